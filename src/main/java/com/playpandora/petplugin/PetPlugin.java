@@ -1,22 +1,47 @@
 package com.playpandora.petplugin;
 
 import com.playpandora.petplugin.commands.PetCommand;
+import com.playpandora.petplugin.config.ConfigProblems;
+import com.playpandora.petplugin.config.MessageTemplate;
+import com.playpandora.petplugin.config.Messages;
+import com.playpandora.petplugin.config.PluginSettings;
 import com.playpandora.petplugin.gui.PetShopGUI;
+import com.playpandora.petplugin.integration.EconomyProvider;
+import com.playpandora.petplugin.integration.FakeEconomyProvider;
+import com.playpandora.petplugin.integration.IntegrationBridge;
+import com.playpandora.petplugin.integration.LevelPluginProvider;
+import com.playpandora.petplugin.integration.LevelProvider;
+import com.playpandora.petplugin.integration.VaultEconomyProvider;
 import com.playpandora.petplugin.managers.PetManager;
 import com.playpandora.petplugin.managers.PurchaseManager;
+import com.playpandora.petplugin.managers.ReviveManager;
+import com.playpandora.petplugin.managers.TransactionManager;
 import com.playpandora.petplugin.storage.DataManager;
+import com.playpandora.petplugin.storage.TransactionLedger;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.lang.reflect.Method;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
 
 public class PetPlugin extends JavaPlugin {
     
     private static PetPlugin instance;
-    private Object economy;
+    private IntegrationBridge integrations;
     private DataManager dataManager;
     private PetManager petManager;
     private PurchaseManager purchaseManager;
+    private TransactionManager transactionManager;
+    private ReviveManager reviveManager;
     private PetShopGUI shopGUI;
+    private volatile PluginSettings settings;
+    private volatile Messages messages;
     
     @Override
     public void onEnable() {
@@ -26,21 +51,25 @@ public class PetPlugin extends JavaPlugin {
             // Save default config
             saveDefaultConfig();
             
-            // Setup economy
-            if (!setupEconomy()) {
-                getLogger().warning("Vault not found! Economy features disabled.");
-            }
+            // Compile hot-path settings; invalid values fall back to their defaults
+            ConfigProblems problems = new ConfigProblems();
+            settings = PluginSettings.compile(getConfig(), problems);
+            problems.getProblems().forEach(problem -> getLogger().warning("config.yml: " + problem));
+            messages = Messages.load(getConfig(), new File(getDataFolder(), "lang"), getLogger());
+            
+            // Bind the economy and level plugins once
+            integrations = setupIntegrations();
             
             // Initialize managers
             dataManager = new DataManager(this);
             petManager = new PetManager(this);
+            transactionManager = new TransactionManager(this, openLedger());
             purchaseManager = new PurchaseManager(this);
+            reviveManager = new ReviveManager(this);
             shopGUI = new PetShopGUI(this);
             
-            // Load existing data
-            if (dataManager != null) {
-                dataManager.loadData();
-            }
+            // Load existing data once, before any command or listener can see it
+            dataManager.loadData();
             
             // Register command with null check
             if (getCommand("pet") != null) {
@@ -52,11 +81,14 @@ public class PetPlugin extends JavaPlugin {
             // Register listeners
             getServer().getPluginManager().registerEvents(new com.playpandora.petplugin.listeners.PetListener(this), this);
             
-            // Start health monitoring task
+            // Start the pet tick engine (following, health monitoring and healing)
             if (petManager != null) {
-                petManager.startHealthMonitoring();
+                petManager.startTicking();
             }
             
+            // Start revive window reminders and expiry
+            reviveManager.start();
+            
             getLogger().info("PetPlugin v" + getDescription().getVersion() + " has been enabled successfully!");
         } catch (Exception e) {
             getLogger().severe("Failed to enable PetPlugin! " + e.getMessage());
@@ -78,6 +110,11 @@ public class PetPlugin extends JavaPlugin {
                 dataManager.close();
             }
             
+            // Force the last ledger records to disk
+            if (transactionManager != null && transactionManager.getLedger() != null) {
+                transactionManager.getLedger().close();
+            }
+            
             // Cancel all tasks
             getServer().getScheduler().cancelTasks(this);
             
@@ -88,22 +125,45 @@ public class PetPlugin extends JavaPlugin {
         }
     }
     
-    private boolean setupEconomy() {
-        if (getServer().getPluginManager().getPlugin("Vault") == null) {
-            return false;
+    private IntegrationBridge setupIntegrations() {
+        String economyName = getConfig().getString("integrations.economy", "vault").toLowerCase(Locale.ROOT);
+        EconomyProvider economy = switch (economyName) {
+            case "none" -> null;
+            case "fake" -> new FakeEconomyProvider(getConfig().getDouble("integrations.fake-starting-balance", 100000.0));
+            default -> getServer().getPluginManager().getPlugin("Vault") != null
+                ? VaultEconomyProvider.create(getServer().getServicesManager(), getLogger())
+                : null;
+        };
+        if (economy != null) {
+            getLogger().info("Using economy: " + economy.getName());
+        } else if (!economyName.equals("none")) {
+            getLogger().warning("Vault not found! Economy features disabled.");
         }
         
+        // LevelPlugin may enable after us, so it is bound on first use
+        Supplier<LevelProvider> levels = () -> getServer().getPluginManager().isPluginEnabled("LevelPlugin")
+            ? LevelPluginProvider.create(getLogger())
+            : null;
+        return new IntegrationBridge(economy, levels, getConfig().getLong("integrations.cache-ttl-ms", 1000L),
+            getConfig().getBoolean("integrations.async-economy", false));
+    }
+    
+    /**
+     * @return The opened transaction ledger, or null if it is disabled or could not be opened
+     */
+    private TransactionLedger openLedger() {
+        if (!getConfig().getBoolean("ledger.enabled", true)) {
+            return null;
+        }
+        
+        TransactionLedger ledger = new TransactionLedger(new File(getDataFolder(), "ledger"), getLogger(),
+            getConfig().getInt("ledger.segment-records", 65536));
         try {
-            Class<?> economyClass = Class.forName("net.milkbowl.vault.economy.Economy");
-            var rsp = getServer().getServicesManager().getRegistration(economyClass);
-            if (rsp == null) {
-                return false;
-            }
-            
-            economy = rsp.getProvider();
-            return economy != null;
-        } catch (ClassNotFoundException e) {
-            return false;
+            ledger.open(getConfig().getLong("ledger.sync-interval-ms", 1000L));
+            return ledger;
+        } catch (IOException e) {
+            getLogger().severe("Failed to open the transaction ledger, purchases and revives are not recorded: " + e.getMessage());
+            return null;
         }
     }
     
@@ -111,56 +171,38 @@ public class PetPlugin extends JavaPlugin {
         return instance;
     }
     
-    public Object getEconomy() {
-        return economy;
+    public IntegrationBridge getIntegrations() {
+        return integrations;
+    }
+    
+    /**
+     * @return The economy in use, or null if there is none
+     */
+    public EconomyProvider getEconomy() {
+        return integrations.getEconomy();
     }
     
     public double getPlayerBalance(org.bukkit.entity.Player player) {
-        if (economy == null) {
-            return 0.0;
-        }
-        
-        try {
-            Method getBalance = economy.getClass().getMethod("getBalance", org.bukkit.OfflinePlayer.class);
-            return (Double) getBalance.invoke(economy, player);
-        } catch (Exception e) {
-            return 0.0;
-        }
+        return integrations.getBalance(player);
     }
     
     public boolean withdrawPlayer(org.bukkit.entity.Player player, double amount) {
-        if (economy == null) {
+        if (integrations.getEconomy() == null) {
             getLogger().warning("Economy is null! Cannot withdraw money for " + player.getName());
             return false;
         }
-        
-        try {
-            Method withdraw = economy.getClass().getMethod("withdrawPlayer", org.bukkit.OfflinePlayer.class, double.class);
-            Object response = withdraw.invoke(economy, player, amount);
-            
-            // Check if the response indicates success (EconomyResponse)
-            if (response != null) {
-                try {
-                    Method transactionSuccess = response.getClass().getMethod("transactionSuccess");
-                    boolean success = (Boolean) transactionSuccess.invoke(response);
-                    if (!success) {
-                        Method errorMessage = response.getClass().getMethod("errorMessage");
-                        String error = (String) errorMessage.invoke(response);
-                        getLogger().warning("Failed to withdraw money for " + player.getName() + ": " + error);
-                        return false;
-                    }
-                    return true;
-                } catch (Exception e) {
-                    // If response doesn't have transactionSuccess method, assume success
-                    return true;
-                }
-            }
-            return true;
-        } catch (Exception e) {
-            getLogger().severe("Failed to withdraw money for " + player.getName() + ": " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
+        return integrations.withdraw(player, amount);
+    }
+    
+    public boolean depositPlayer(org.bukkit.entity.Player player, double amount) {
+        return integrations.deposit(player, amount);
+    }
+    
+    /**
+     * @return The player's level from LevelPlugin, or 0 if it is not installed
+     */
+    public int getPlayerLevel(org.bukkit.entity.Player player) {
+        return integrations.getLevel(player);
     }
     
     public DataManager getDataManager() {
@@ -175,10 +217,55 @@ public class PetPlugin extends JavaPlugin {
         return purchaseManager;
     }
     
+    public TransactionManager getTransactionManager() {
+        return transactionManager;
+    }
+    
+    public ReviveManager getReviveManager() {
+        return reviveManager;
+    }
+    
     public PetShopGUI getShopGUI() {
         return shopGUI;
     }
     
+    /**
+     * @return The current compiled settings; callers should read this once per operation
+     */
+    public PluginSettings getSettings() {
+        return settings;
+    }
+    
+    /**
+     * Re-reads config.yml and swaps in the new settings, unless the file cannot be parsed or
+     * fails validation, in which case the running settings stay in place.
+     * Settings read at startup (storage, tick scheduling, revive windows) still need a restart.
+     * @return Problems that rejected the reload; empty if it was applied
+     */
+    public List<String> reloadSettings() {
+        YamlConfiguration fresh = new YamlConfiguration();
+        try {
+            fresh.load(new File(getDataFolder(), "config.yml"));
+        } catch (IOException | InvalidConfigurationException e) {
+            return List.of("config.yml could not be read: " + e.getMessage());
+        }
+        
+        ConfigProblems problems = new ConfigProblems();
+        PluginSettings compiled = PluginSettings.compile(fresh, problems);
+        if (!problems.isEmpty()) {
+            return problems.getProblems();
+        }
+        
+        reloadConfig();
+        settings = compiled;
+        messages = Messages.load(fresh, new File(getDataFolder(), "lang"), getLogger());
+        return List.of();
+    }
+    
+    public Messages getMessages() {
+        return messages;
+    }
+    
     /**
      * Formats a message from config by replacing {prefix} and translating color codes
      * @param messageKey The config key for the message (e.g., "messages.pet-despawned")
@@ -187,21 +274,22 @@ public class PetPlugin extends JavaPlugin {
      * @return Formatted message ready to send
      */
     public String formatMessage(String messageKey, String defaultMessage, String... replacements) {
-        String message = getConfig().getString(messageKey, defaultMessage);
-        String prefix = getConfig().getString("messages.prefix", "&ePandora");
-        
-        // Replace {prefix} placeholder
-        message = message.replace("{prefix}", prefix);
-        
-        // Apply replacements
-        for (int i = 0; i < replacements.length; i += 2) {
-            if (i + 1 < replacements.length) {
-                message = message.replace("{" + replacements[i] + "}", replacements[i + 1]);
-            }
+        return messages.get(null, messageKey, defaultMessage).render(replacements);
+    }
+    
+    /**
+     * Sends a message in the recipient's client locale where a bundle for it exists.
+     * Messages without placeholders go out as cached components.
+     * @see #formatMessage
+     */
+    public void sendMessage(CommandSender recipient, String messageKey, String defaultMessage, String... replacements) {
+        Locale locale = recipient instanceof Player player ? player.locale() : null;
+        MessageTemplate template = messages.get(locale, messageKey, defaultMessage);
+        if (template.isConstant()) {
+            recipient.sendMessage(template.toComponent());
+        } else {
+            recipient.sendMessage(template.render(replacements));
         }
-        
-        // Translate color codes
-        return org.bukkit.ChatColor.translateAlternateColorCodes('&', message);
     }
 }
 
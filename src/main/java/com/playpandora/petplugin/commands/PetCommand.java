@@ -1,16 +1,34 @@
 package com.playpandora.petplugin.commands;
 
 import com.playpandora.petplugin.PetPlugin;
+import com.playpandora.petplugin.integration.IntegrationBridge;
+import com.playpandora.petplugin.managers.PetLoadGovernor;
+import com.playpandora.petplugin.managers.PetSpatialIndex;
+import com.playpandora.petplugin.managers.PetTeleporter;
+import com.playpandora.petplugin.managers.PetTickEngine;
+import com.playpandora.petplugin.managers.ReviveManager;
+import com.playpandora.petplugin.managers.TickBudget;
+import com.playpandora.petplugin.managers.TransactionManager;
+import com.playpandora.petplugin.managers.TransactionMetrics;
 import com.playpandora.petplugin.models.Pet;
+import com.playpandora.petplugin.storage.LedgerEntry;
+import com.playpandora.petplugin.storage.SaveMetrics;
+import com.playpandora.petplugin.storage.TransactionLedger;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.UUID;
 
 public class PetCommand implements CommandExecutor {
     
+    private static final int MAX_LEDGER_ENTRIES = 50;
+    private static final double STATS_NEARBY_RADIUS = 32.0; // Blocks around the admin running /pet stats
+    
     private final PetPlugin plugin;
     
     public PetCommand(PetPlugin plugin) {
@@ -19,9 +37,14 @@ public class PetCommand implements CommandExecutor {
     
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        // Admin subcommands work from the console as well
+        if (args.length > 0 && handleAdminCommand(sender, args[0].toLowerCase(), args)) {
+            return true;
+        }
+        
         if (!(sender instanceof Player player)) {
-            sender.sendMessage(plugin.formatMessage("messages.players-only",
-                "{prefix}This command can only be used by players!"));
+            plugin.sendMessage(sender, "messages.players-only",
+                "{prefix}This command can only be used by players!");
             return true;
         }
         
@@ -36,8 +59,8 @@ public class PetCommand implements CommandExecutor {
         switch (subCommand) {
             case "rename" -> {
                 if (args.length < 3) {
-                    player.sendMessage(plugin.formatMessage("messages.usage-rename",
-                        "{prefix}Usage: &6/pet rename <generatedname> <newname>"));
+                    plugin.sendMessage(player, "messages.usage-rename",
+                        "{prefix}Usage: &6/pet rename <generatedname> <newname>");
                     return true;
                 }
                 
@@ -53,8 +76,8 @@ public class PetCommand implements CommandExecutor {
             }
             case "spawn" -> {
                 if (args.length < 2) {
-                    player.sendMessage(plugin.formatMessage("messages.usage-spawn",
-                        "{prefix}Usage: &6/pet spawn <pettype>"));
+                    plugin.sendMessage(player, "messages.usage-spawn",
+                        "{prefix}Usage: &6/pet spawn <pettype>");
                     return true;
                 }
                 
@@ -63,17 +86,16 @@ public class PetCommand implements CommandExecutor {
             }
             case "despawn" -> {
                 plugin.getPetManager().despawnPet(player.getUniqueId());
-                String message = plugin.formatMessage("messages.pet-despawned",
+                plugin.sendMessage(player, "messages.pet-despawned",
                     "{prefix}Your pet has been despawned.");
-                player.sendMessage(message);
             }
             case "list" -> {
                 listPets(player);
             }
             case "release" -> {
                 if (args.length < 2) {
-                    player.sendMessage(plugin.formatMessage("messages.usage-release",
-                        "{prefix}Usage: &6/pet release <petname>"));
+                    plugin.sendMessage(player, "messages.usage-release",
+                        "{prefix}Usage: &6/pet release <petname>");
                     return true;
                 }
                 
@@ -88,8 +110,8 @@ public class PetCommand implements CommandExecutor {
             }
             case "revive" -> {
                 if (args.length < 2) {
-                    player.sendMessage(plugin.formatMessage("messages.usage-revive",
-                        "{prefix}Usage: &6/pet revive <petname>"));
+                    plugin.sendMessage(player, "messages.usage-revive",
+                        "{prefix}Usage: &6/pet revive <petname>");
                     return true;
                 }
                 
@@ -103,26 +125,92 @@ public class PetCommand implements CommandExecutor {
                 revivePet(player, petName);
             }
             default -> {
-                player.sendMessage(plugin.formatMessage("messages.unknown-subcommand",
-                    "{prefix}Unknown subcommand. Use: &6/pet [rename|spawn|despawn|list|release|revive]"));
+                if (player.hasPermission("petplugin.admin")) {
+                    plugin.sendMessage(player, "messages.unknown-subcommand-admin",
+                        "{prefix}Unknown subcommand. Use: &6/pet [rename|spawn|despawn|list|release|revive|stats|reload|governor|ledger]");
+                } else {
+                    plugin.sendMessage(player, "messages.unknown-subcommand",
+                        "{prefix}Unknown subcommand. Use: &6/pet [rename|spawn|despawn|list|release|revive]");
+                }
             }
         }
         
         return true;
     }
     
+    /**
+     * @return False if the subcommand is not an admin one and is left to the player commands
+     */
+    private boolean handleAdminCommand(CommandSender sender, String subCommand, String[] args) {
+        switch (subCommand) {
+            case "stats" -> {
+                if (!sender.hasPermission("petplugin.admin")) {
+                    plugin.sendMessage(sender, "messages.no-permission",
+                        "{prefix}You don't have permission to use this command.");
+                    return true;
+                }
+                
+                showStats(sender);
+            }
+            case "reload" -> {
+                if (!sender.hasPermission("petplugin.admin")) {
+                    plugin.sendMessage(sender, "messages.no-permission",
+                        "{prefix}You don't have permission to use this command.");
+                    return true;
+                }
+                
+                reloadSettings(sender);
+            }
+            case "governor" -> {
+                if (!sender.hasPermission("petplugin.admin")) {
+                    plugin.sendMessage(sender, "messages.no-permission",
+                        "{prefix}You don't have permission to use this command.");
+                    return true;
+                }
+                
+                showGovernor(sender);
+            }
+            case "ledger" -> {
+                if (!sender.hasPermission("petplugin.admin")) {
+                    plugin.sendMessage(sender, "messages.no-permission",
+                        "{prefix}You don't have permission to use this command.");
+                    return true;
+                }
+                if (args.length < 2) {
+                    plugin.sendMessage(sender, "messages.usage-ledger",
+                        "{prefix}Usage: &6/pet ledger <player> [count]");
+                    return true;
+                }
+                
+                int count = 10;
+                if (args.length > 2) {
+                    try {
+                        count = Math.max(1, Math.min(MAX_LEDGER_ENTRIES, Integer.parseInt(args[2])));
+                    } catch (NumberFormatException e) {
+                        plugin.sendMessage(sender, "messages.usage-ledger",
+                            "{prefix}Usage: &6/pet ledger <player> [count]");
+                        return true;
+                    }
+                }
+                showLedger(sender, args[1], count);
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+    
     private void renamePet(Player player, String generatedName, String newName) {
         Pet pet = plugin.getDataManager().getPetByGeneratedName(player.getUniqueId(), generatedName);
         
         if (pet == null) {
-            String message = plugin.formatMessage("messages.pet-not-found",
+            plugin.sendMessage(player, "messages.pet-not-found",
                 "{prefix}Pet not found. Use &6/pet list &7to see your pets.");
-            player.sendMessage(message);
             return;
         }
         
-        pet.setCustomName(newName);
-        plugin.getDataManager().saveData();
+        plugin.getDataManager().renamePet(player.getUniqueId(), pet, newName);
         
         // Update entity name if spawned
         if (pet.getEntityUUID() != null) {
@@ -132,22 +220,18 @@ public class PetCommand implements CommandExecutor {
             }
         }
         
-        String message = plugin.formatMessage("messages.pet-renamed",
+        plugin.sendMessage(player, "messages.pet-renamed",
             "{prefix}Your pet has been renamed to &6{new_name}&7!",
             "new_name", newName);
-        player.sendMessage(message);
     }
     
     private void spawnPet(Player player, String petType) {
-        List<Pet> pets = plugin.getDataManager().getPlayerPets(player.getUniqueId());
-        Pet pet = pets.stream()
-                .filter(p -> p.getPetType().equalsIgnoreCase(petType))
-                .findFirst()
-                .orElse(null);
+        Pet pet = plugin.getDataManager().getPetByType(player.getUniqueId(), petType);
         
         if (pet == null) {
-            player.sendMessage(plugin.formatMessage("messages.pet-type-not-owned",
-                "{prefix}You don't own a &6" + petType + " &7pet. Use &6/pet &7to buy one!"));
+            plugin.sendMessage(player, "messages.pet-type-not-owned",
+                "{prefix}You don't own a &6{pet_type} &7pet. Use &6/pet &7to buy one!",
+                "pet_type", petType);
             return;
         }
         
@@ -159,9 +243,8 @@ public class PetCommand implements CommandExecutor {
         List<Pet> deadPets = plugin.getDataManager().getDeadPets(player.getUniqueId());
         
         if (pets.isEmpty() && deadPets.isEmpty()) {
-            String message = plugin.formatMessage("messages.no-pets-owned",
+            plugin.sendMessage(player, "messages.no-pets-owned",
                 "{prefix}You don't own any pets yet. Use &6/pet &7to buy one!");
-            player.sendMessage(message);
             return;
         }
         
@@ -175,17 +258,13 @@ public class PetCommand implements CommandExecutor {
         
         if (!deadPets.isEmpty()) {
             player.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', "&7&lDead Pets (Can be revived):"));
+            ReviveManager reviveManager = plugin.getReviveManager();
+            long now = System.currentTimeMillis();
             for (Pet pet : deadPets) {
-                long deathTime = pet.getDeathTimestamp();
-                long currentTime = System.currentTimeMillis();
-                long timeSinceDeath = currentTime - deathTime;
-                long hoursRemaining = (21600000 - timeSinceDeath) / 3600000; // 6 hours = 21600000 ms
-                long minutesRemaining = ((21600000 - timeSinceDeath) % 3600000) / 60000;
-                
-                if (timeSinceDeath < 21600000) {
+                if (reviveManager.canRevive(pet, now)) {
                     player.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&',
                         "  &c[DEAD] &7" + pet.getPetType() + " - &6" + pet.getDisplayName() +
-                        " &7(&c" + hoursRemaining + "h " + minutesRemaining + "m &7remaining)"));
+                        " &7(&c" + ReviveManager.formatDuration(reviveManager.getRemainingMillis(pet, now)) + " &7remaining)"));
                 } else {
                     player.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&',
                         "  &c[DEAD] &7" + pet.getPetType() + " - &6" + pet.getDisplayName() +
@@ -196,21 +275,12 @@ public class PetCommand implements CommandExecutor {
     }
     
     private void releasePet(Player player, String petName) {
-        // Check alive pets first
-        Pet pet = plugin.getDataManager().getPetByGeneratedName(player.getUniqueId(), petName);
-        if (pet == null) {
-            // Check by display name
-            List<Pet> pets = plugin.getDataManager().getPlayerPets(player.getUniqueId());
-            pet = pets.stream()
-                    .filter(p -> p.getDisplayName().equalsIgnoreCase(petName))
-                    .findFirst()
-                    .orElse(null);
-        }
+        // By generated name first, then by display name
+        Pet pet = plugin.getDataManager().getPetByName(player.getUniqueId(), petName);
         
         if (pet == null) {
-            String message = plugin.formatMessage("messages.pet-not-found",
+            plugin.sendMessage(player, "messages.pet-not-found",
                 "{prefix}Pet not found. Use &6/pet list &7to see your pets.");
-            player.sendMessage(message);
             return;
         }
         
@@ -222,60 +292,209 @@ public class PetCommand implements CommandExecutor {
         // Remove pet
         plugin.getDataManager().removePet(player.getUniqueId(), pet);
         
-        String message = plugin.formatMessage("messages.pet-released",
+        plugin.sendMessage(player, "messages.pet-released",
             "{prefix}You released &6{pet_name}&7. The pet is gone forever.",
             "pet_name", pet.getDisplayName());
-        player.sendMessage(message);
     }
     
     private void revivePet(Player player, String petName) {
         Pet pet = plugin.getDataManager().getDeadPetByName(player.getUniqueId(), petName);
         
         if (pet == null) {
-            String message = plugin.formatMessage("messages.pet-not-found",
+            plugin.sendMessage(player, "messages.pet-not-found",
                 "{prefix}Pet not found. Use &6/pet list &7to see your dead pets.");
-            player.sendMessage(message);
             return;
         }
         
-        // Check if within 6 hours
-        long deathTime = pet.getDeathTimestamp();
-        long currentTime = System.currentTimeMillis();
-        long timeSinceDeath = currentTime - deathTime;
-        long sixHours = 21600000; // 6 hours in milliseconds
+        // Check if still within the revive window
+        ReviveManager reviveManager = plugin.getReviveManager();
+        if (!reviveManager.canRevive(pet, System.currentTimeMillis())) {
+            plugin.sendMessage(player, "messages.revive-too-late",
+                "{prefix}Too late! You can only revive pets within {hours} hours of death.",
+                "hours", ReviveManager.formatHours(reviveManager.getWindowMillis()));
+            return;
+        }
         
-        if (timeSinceDeath > sixHours) {
-            String message = plugin.formatMessage("messages.revive-too-late",
-                "{prefix}Too late! You can only revive pets within 6 hours of death.");
-            player.sendMessage(message);
+        // Charged through the transaction pipeline; free without an economy
+        double reviveCost = plugin.getEconomy() != null ? plugin.getSettings().reviveCost() : 0.0;
+        plugin.getTransactionManager().submit(player, new TransactionManager.Transaction(
+            TransactionManager.Kind.REVIVE, pet.getPetId().toString(), pet.getPetType(), reviveCost,
+            () -> {
+                // The window may have closed while the payment was processed
+                if (!reviveManager.canRevive(pet, System.currentTimeMillis())) {
+                    throw new IllegalStateException("revive window closed");
+                }
+                plugin.getDataManager().revivePet(player.getUniqueId(), pet);
+            },
+            () -> plugin.sendMessage(player, "messages.pet-revived",
+                "{prefix}You revived &6{pet_name} &7for &6${cost}&7!",
+                "pet_name", pet.getDisplayName(),
+                "cost", String.format("%.2f", reviveCost))), null);
+    }
+    
+    private void reloadSettings(CommandSender sender) {
+        List<String> problems = plugin.reloadSettings();
+        if (!problems.isEmpty()) {
+            problems.forEach(problem -> plugin.getLogger().warning("Reload rejected: " + problem));
+            plugin.sendMessage(sender, "messages.config-reload-failed",
+                "{prefix}Reload rejected, config.yml has &6{count} &7problem(s). See the console; the old settings stay active.",
+                "count", String.valueOf(problems.size()));
             return;
         }
         
-        // Check balance
-        double reviveCost = plugin.getConfig().getDouble("revive.cost", 50000.0);
-        if (plugin.getEconomy() != null) {
-            double balance = plugin.getPlayerBalance(player);
-            if (balance < reviveCost) {
-                double needed = reviveCost - balance;
-                String message = plugin.formatMessage("messages.insufficient-funds",
-                    "{prefix}Insufficient funds! You need &6${amount} &7more.",
-                    "amount", String.format("%.2f", needed));
-                player.sendMessage(message);
-                return;
-            }
-            
-            // Withdraw money
-            plugin.withdrawPlayer(player, reviveCost);
+        plugin.sendMessage(sender, "messages.config-reloaded",
+            "{prefix}Configuration reloaded with &6{count} &7pet types.",
+            "count", String.valueOf(plugin.getSettings().getPetTypes().size()));
+    }
+    
+    private void showStats(CommandSender sender) {
+        SaveMetrics metrics = plugin.getDataManager().getSaveMetrics();
+        sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', "&6&lPetPlugin Stats:"));
+        sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+            "  &7Save snapshots: &6%d &7(avg &6%.3fms&7, max &6%.3fms&7 main thread)",
+            metrics.getSnapshotCount(), metrics.getAverageSnapshotMillis(), metrics.getMaxSnapshotMillis())));
+        sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+            "  &7Save writes: &6%d &7(avg &6%.3fms&7, max &6%.3fms&7 off thread)",
+            metrics.getWriteCount(), metrics.getAverageWriteMillis(), metrics.getMaxWriteMillis())));
+        sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+            "  &7Bytes per save: &6%d &7last, &6%d &7avg (&6%d &7players re-serialized last)",
+            metrics.getLastBytesWritten(), metrics.getAverageBytesPerWrite(), metrics.getLastSnapshotPlayers())));
+        sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+            "  &7Coalesced saves: &6%d &7Failed saves: &6%d",
+            metrics.getCoalescedCount(), metrics.getFailureCount())));
+        sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+            "  &7Revive windows: &6%d &7open, &6%d &7expired pets purged",
+            plugin.getReviveManager().getTrackedCount(), plugin.getReviveManager().getPurgedCount())));
+        
+        PetTickEngine tickEngine = plugin.getPetManager().getTickEngine();
+        TickBudget budget = tickEngine.getBudget();
+        sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+            "  &7Pet ticks: &6%d &7pets (&6%d &7healing, &6%d &7suspended), avg &6%.3fms&7, max &6%.3fms&7, last &6%.3fms &7(&6%d &7visited, &6%d &7deferred)",
+            tickEngine.size(), tickEngine.getHealingCount(), plugin.getPetManager().getSuspendedCount(), budget.getAverageMillis(), budget.getMaxMillis(), budget.getLastMillis(),
+            budget.getLastProcessed(), budget.getLastDeferred())));
+        sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+            "  &7Tick budget: &6%.3fms&7, exceeded &6%d &7of &6%d &7ticks",
+            budget.getBudgetNanos() / 1_000_000.0, budget.getExceededCount(), budget.getTickCount())));
+        
+        PetTeleporter teleporter = plugin.getPetManager().getTeleporter();
+        sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+            "  &7Teleports: &6%d &7in flight, &6%d &7waited for a chunk; safe spots &6%d &7cached, &6%d &7searched",
+            teleporter.getPendingCount(), teleporter.getDeferredCount(),
+            teleporter.getFinder().getHitCount(), teleporter.getFinder().getMissCount())));
+        
+        PetSpatialIndex spatialIndex = plugin.getPetManager().getSpatialIndex();
+        sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+            "  &7Pet positions: &6%d &7pets in &6%d &7chunks",
+            spatialIndex.size(), spatialIndex.getOccupiedChunkCount())));
+        if (sender instanceof Player player) {
+            org.bukkit.Location here = player.getLocation();
+            sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+                "  &7Near you: &6%d &7pets within &6%.0f &7blocks, &6%d &7in your chunk",
+                spatialIndex.getOwnersNear(here, STATS_NEARBY_RADIUS).size(), STATS_NEARBY_RADIUS,
+                spatialIndex.countInChunk(here.getWorld(), here.getBlockX() >> 4, here.getBlockZ() >> 4))));
         }
         
-        // Revive pet
-        plugin.getDataManager().revivePet(player.getUniqueId(), pet);
+        IntegrationBridge integrations = plugin.getIntegrations();
+        sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+            "  &7Balance cache: &6%d &7hits, &6%d &7misses; level cache: &6%d &7hits, &6%d &7misses",
+            integrations.getBalanceHits(), integrations.getBalanceMisses(),
+            integrations.getLevelHits(), integrations.getLevelMisses())));
         
-        String message = plugin.formatMessage("messages.pet-revived",
-            "{prefix}You revived &6{pet_name} &7for &6${cost}&7!",
-            "pet_name", pet.getDisplayName(),
-            "cost", String.format("%.2f", reviveCost));
-        player.sendMessage(message);
+        TransactionMetrics transactions = plugin.getTransactionManager().getMetrics();
+        sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+            "  &7Transactions: &6%d &7ok, &6%d &7short of funds, &6%d &7failed, &6%d &7refunded, &6%d &7busy, &6%d &7duplicates; &6%d&7/min",
+            transactions.getCompletedCount(), transactions.getInsufficientCount(), transactions.getFailedCount(),
+            transactions.getRefundedCount(), transactions.getBusyCount(), transactions.getDuplicateCount(), transactions.getPerMinute())));
+        sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+            "  &7Transaction latency: p50 &6%.1fms&7, p95 &6%.1fms&7, p99 &6%.1fms",
+            transactions.getLatencyMillis(50), transactions.getLatencyMillis(95), transactions.getLatencyMillis(99))));
+        
+        PetLoadGovernor governor = plugin.getPetManager().getLoadGovernor();
+        sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+            "  &7Load level: &6%s &7at &6%.1f &7MSPT (&6%d &7frozen, &6%d &7put away; &6/pet governor &7for details)",
+            governor.getLevel(), governor.getLastMspt(), tickEngine.getFrozenCount(), governor.getShedCount())));
+    }
+    
+    private void showGovernor(CommandSender sender) {
+        PetLoadGovernor governor = plugin.getPetManager().getLoadGovernor();
+        sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', "&6&lPet Load Governor:"));
+        if (!governor.isEnabled()) {
+            sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', "  &7Disabled in config.yml"));
+            return;
+        }
+        
+        sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+            "  &7Level: &6%s &7(%s) at &6%.1f &7MSPT",
+            governor.getLevel(), governor.getLevel().getDescription(), governor.getLastMspt())));
+        
+        double[] thresholds = governor.getThresholds();
+        for (PetLoadGovernor.Level level : PetLoadGovernor.Level.values()) {
+            String threshold = level.ordinal() == 0 ? "-" : String.format("%.1f", thresholds[level.ordinal() - 1]);
+            sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+                "  &7%s: enters at &6%s &7MSPT, entered &6%d &7times, &6%d &7ticks spent",
+                level, threshold, governor.getTimesEntered(level), governor.getTicksAtLevel(level))));
+        }
+        
+        PetTickEngine tickEngine = plugin.getPetManager().getTickEngine();
+        sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+            "  &7Now: cycle x&6%d&7, healing &6%s&7, &6%d &7frozen, &6%d &7put away in total",
+            tickEngine.getSlowdown(), tickEngine.isHealingPaused() ? "paused" : "on",
+            tickEngine.getFrozenCount(), governor.getShedCount())));
+        
+        java.text.SimpleDateFormat timeFormat = new java.text.SimpleDateFormat("HH:mm:ss");
+        for (PetLoadGovernor.Transition transition : governor.getTransitions()) {
+            sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+                "  &8%s &7%s -> &6%s &7at &6%.1f &7MSPT",
+                timeFormat.format(new java.util.Date(transition.timeMillis())),
+                transition.from(), transition.to(), transition.mspt())));
+        }
+    }
+    
+    private void showLedger(CommandSender sender, String target, int count) {
+        TransactionLedger ledger = plugin.getTransactionManager().getLedger();
+        if (ledger == null) {
+            plugin.sendMessage(sender, "messages.ledger-disabled",
+                "{prefix}The transaction ledger is disabled.");
+            return;
+        }
+        
+        OfflinePlayer owner;
+        try {
+            owner = plugin.getServer().getOfflinePlayer(UUID.fromString(target));
+        } catch (IllegalArgumentException e) {
+            // Never looks the name up online, so the main thread cannot stall on it
+            owner = plugin.getServer().getOfflinePlayerIfCached(target);
+        }
+        if (owner == null) {
+            plugin.sendMessage(sender, "messages.player-not-found",
+                "{prefix}No player named &6{player} &7has played here.",
+                "player", target);
+            return;
+        }
+        
+        // Segments are scanned off the main thread; the answer comes back on it
+        UUID ownerUUID = owner.getUniqueId();
+        String ownerName = owner.getName() != null ? owner.getName() : target;
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            List<LedgerEntry> entries;
+            try {
+                entries = TransactionLedger.recent(ledger.getDirectory(), ownerUUID, count);
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to read the transaction ledger: " + e.getMessage());
+                entries = List.of();
+            }
+            List<LedgerEntry> found = entries;
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+                    "&6&lLedger for %s &7(latest %d):", ownerName, found.size())));
+                java.text.SimpleDateFormat timeFormat = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+                for (LedgerEntry entry : found) {
+                    sender.sendMessage(org.bukkit.ChatColor.translateAlternateColorCodes('&', String.format(
+                        "  &8%s &7%s &6%s &7$&6%.2f &7%s",
+                        timeFormat.format(new java.util.Date(entry.timestamp())),
+                        entry.kind(), entry.petType(), entry.amount(), entry.outcome())));
+                }
+            });
+        });
     }
 }
-
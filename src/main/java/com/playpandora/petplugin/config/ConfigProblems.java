@@ -0,0 +1,70 @@
+package com.playpandora.petplugin.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects validation problems while compiling config.yml. Out-of-range values are reported
+ * and replaced by their default, so compiling always yields usable settings.
+ */
+public class ConfigProblems {
+    
+    private final List<String> problems = new ArrayList<>();
+    
+    public void add(String problem) {
+        problems.add(problem);
+    }
+    
+    public boolean isEmpty() {
+        return problems.isEmpty();
+    }
+    
+    public List<String> getProblems() {
+        return List.copyOf(problems);
+    }
+    
+    double atLeast(ConfigurationSection section, String path, String key, double def, double min) {
+        return between(section, path, key, def, min, Double.MAX_VALUE);
+    }
+    
+    double between(ConfigurationSection section, String path, String key, double def, double min, double max) {
+        double value = section.getDouble(key, def);
+        if (Double.isNaN(value) || value < min || value > max) {
+            add(name(path, key) + ": " + value + " is outside " + range(min, max, Double.MAX_VALUE) + ", using " + def);
+            return def;
+        }
+        return value;
+    }
+    
+    int atLeast(ConfigurationSection section, String path, String key, int def, int min) {
+        return between(section, path, key, def, min, Integer.MAX_VALUE);
+    }
+    
+    int between(ConfigurationSection section, String path, String key, int def, int min, int max) {
+        int value = section.getInt(key, def);
+        if (value < min || value > max) {
+            add(name(path, key) + ": " + value + " is outside " + range(min, max, Integer.MAX_VALUE) + ", using " + def);
+            return def;
+        }
+        return value;
+    }
+    
+    long atLeast(ConfigurationSection section, String path, String key, long def, long min) {
+        long value = section.getLong(key, def);
+        if (value < min) {
+            add(name(path, key) + ": " + value + " is outside " + range(min, Long.MAX_VALUE, Long.MAX_VALUE) + ", using " + def);
+            return def;
+        }
+        return value;
+    }
+    
+    private static String name(String path, String key) {
+        return path.isEmpty() ? key : path + "." + key;
+    }
+    
+    private static String range(Number min, Number max, Number unbounded) {
+        return max.equals(unbounded) ? ">= " + min : "[" + min + ", " + max + "]";
+    }
+}
@@ -0,0 +1,57 @@
+package com.playpandora.petplugin.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.List;
+
+/**
+ * The {@code load-governor} section of config.yml, read and validated once.
+ * @param thresholds Average MSPT that enters each level above normal, ascending
+ */
+public record LoadGovernorSettings(
+    boolean enabled,
+    List<Double> thresholds,
+    int sampleTicks,
+    double recoverMargin,
+    int recoverSamples,
+    int slowdown,
+    double freezeDistance,
+    int shedChunkPets
+) {
+    
+    private static final List<Double> DEFAULT_THRESHOLDS = List.of(40.0, 45.0, 50.0, 60.0);
+    
+    public LoadGovernorSettings {
+        thresholds = List.copyOf(thresholds);
+    }
+    
+    static LoadGovernorSettings compile(ConfigurationSection config, ConfigProblems problems) {
+        return new LoadGovernorSettings(
+            config.getBoolean("load-governor.enabled", true),
+            thresholds(config, problems),
+            problems.atLeast(config, "", "load-governor.sample-ticks", 20, 1),
+            problems.atLeast(config, "", "load-governor.recover-margin", 5.0, 0.0),
+            problems.atLeast(config, "", "load-governor.recover-samples", 3, 1),
+            problems.atLeast(config, "", "load-governor.tick-slowdown", 2, 1),
+            problems.atLeast(config, "", "load-governor.freeze-distance", 24.0, 0.0),
+            problems.atLeast(config, "", "load-governor.shed-chunk-pets", 6, 1));
+    }
+    
+    private static List<Double> thresholds(ConfigurationSection config, ConfigProblems problems) {
+        List<Double> configured = config.getDoubleList("load-governor.level-thresholds");
+        if (configured.isEmpty()) {
+            return DEFAULT_THRESHOLDS;
+        }
+        
+        boolean valid = configured.size() == DEFAULT_THRESHOLDS.size();
+        for (int i = 1; valid && i < configured.size(); i++) {
+            valid = configured.get(i) >= configured.get(i - 1);
+        }
+        if (!valid) {
+            problems.add("load-governor.level-thresholds: needs " + DEFAULT_THRESHOLDS.size()
+                + " ascending values, using " + DEFAULT_THRESHOLDS);
+            return DEFAULT_THRESHOLDS;
+        }
+        return configured;
+    }
+}
@@ -0,0 +1,111 @@
+package com.playpandora.petplugin.config;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message parsed once into literal text and {placeholder} slots, with {prefix} filled in and
+ * color codes translated up front. Placeholder values are only translated when they contain
+ * an '&amp;', so player-chosen pet names keep their colors as before.
+ */
+public final class MessageTemplate {
+    
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+    
+    private final String[] literals;     // One more than placeholders: text before, between and after them
+    private final String[] placeholders; // Names without braces
+    private volatile Component component; // Built on first use, constant templates only
+    
+    private MessageTemplate(String[] literals, String[] placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+    
+    public static MessageTemplate compile(String template, String prefix) {
+        String text = template.replace("{prefix}", prefix);
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        
+        int start = 0;
+        int open = text.indexOf('{');
+        while (open >= 0) {
+            int close = text.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+            String name = text.substring(open + 1, close);
+            if (name.isEmpty() || name.indexOf('{') >= 0 || name.indexOf(' ') >= 0) {
+                // Not a placeholder; keep scanning from the next brace
+                open = text.indexOf('{', open + 1);
+                continue;
+            }
+            literals.add(translate(text.substring(start, open)));
+            placeholders.add(name);
+            start = close + 1;
+            open = text.indexOf('{', start);
+        }
+        literals.add(translate(text.substring(start)));
+        
+        return new MessageTemplate(literals.toArray(new String[0]), placeholders.toArray(new String[0]));
+    }
+    
+    public boolean isConstant() {
+        return placeholders.length == 0;
+    }
+    
+    /**
+     * @param replacements Pairs of placeholder name and value; placeholders without a value stay as written
+     */
+    public String render(String... replacements) {
+        if (placeholders.length == 0) {
+            return literals[0];
+        }
+        
+        StringBuilder builder = BUILDER.get();
+        builder.setLength(0);
+        for (int i = 0; i < placeholders.length; i++) {
+            builder.append(literals[i]);
+            String value = valueOf(placeholders[i], replacements);
+            if (value == null) {
+                builder.append('{').append(placeholders[i]).append('}');
+            } else {
+                builder.append(value.indexOf('&') >= 0 ? translate(value) : value);
+            }
+        }
+        builder.append(literals[placeholders.length]);
+        return builder.toString();
+    }
+    
+    /**
+     * @return The rendered message as a component; cached when the template has no placeholders
+     */
+    public Component toComponent(String... replacements) {
+        if (placeholders.length > 0) {
+            return LegacyComponentSerializer.legacySection().deserialize(render(replacements));
+        }
+        
+        Component cached = component;
+        if (cached == null) {
+            cached = LegacyComponentSerializer.legacySection().deserialize(literals[0]);
+            component = cached;
+        }
+        return cached;
+    }
+    
+    private static String valueOf(String name, String[] replacements) {
+        for (int i = 0; i + 1 < replacements.length; i += 2) {
+            if (replacements[i].equals(name)) {
+                return replacements[i + 1];
+            }
+        }
+        return null;
+    }
+    
+    private static String translate(String text) {
+        return ChatColor.translateAlternateColorCodes('&', text);
+    }
+}
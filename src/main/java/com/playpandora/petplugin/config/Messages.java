@@ -0,0 +1,100 @@
+package com.playpandora.petplugin.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Compiled message templates: the {@code messages} section of config.yml, plus optional per-locale
+ * bundles in {@code lang/<locale>.yml} (e.g. de_de.yml or de.yml) laid out the same way.
+ * A locale bundle only needs the keys it translates; the rest come from config.yml.
+ * Immutable apart from its lookup caches; a reload builds a new instance.
+ */
+public final class Messages {
+    
+    private static final String DEFAULT_PREFIX = "&ePandora";
+    
+    private final Map<String, MessageTemplate> defaults;           // "messages.<key>" -> Template
+    private final Map<String, Map<String, MessageTemplate>> locales; // "de_de" or "de" -> Templates
+    private final String prefix;
+    private final Map<Locale, Map<String, MessageTemplate>> resolved = new ConcurrentHashMap<>();
+    private final Map<String, MessageTemplate> fallbacks = new ConcurrentHashMap<>(); // Built-in default -> Template
+    
+    private Messages(Map<String, MessageTemplate> defaults, Map<String, Map<String, MessageTemplate>> locales, String prefix) {
+        this.defaults = defaults;
+        this.locales = locales;
+        this.prefix = prefix;
+    }
+    
+    public static Messages load(ConfigurationSection config, File langFolder, Logger logger) {
+        ConfigurationSection section = config.getConfigurationSection("messages");
+        String prefix = section != null ? section.getString("prefix", DEFAULT_PREFIX) : DEFAULT_PREFIX;
+        Map<String, MessageTemplate> defaults = compileBundle(section, prefix);
+        
+        Map<String, Map<String, MessageTemplate>> locales = new HashMap<>();
+        File[] files = langFolder.listFiles((dir, name) -> name.endsWith(".yml"));
+        if (files != null) {
+            for (File file : files) {
+                String locale = file.getName().substring(0, file.getName().length() - 4).toLowerCase(Locale.ROOT);
+                ConfigurationSection bundle = YamlConfiguration.loadConfiguration(file).getConfigurationSection("messages");
+                if (bundle == null) {
+                    logger.warning("lang/" + file.getName() + " has no messages section, ignoring it");
+                    continue;
+                }
+                locales.put(locale, compileBundle(bundle, bundle.getString("prefix", prefix)));
+            }
+        }
+        return new Messages(defaults, locales, prefix);
+    }
+    
+    /**
+     * @param locale Recipient's client locale, or null for config.yml's messages
+     * @param defaultMessage Used when no bundle defines the key; should be a constant
+     */
+    public MessageTemplate get(Locale locale, String messageKey, String defaultMessage) {
+        MessageTemplate template = null;
+        if (locale != null && !locales.isEmpty()) {
+            template = resolved.computeIfAbsent(locale, this::bundleFor).get(messageKey);
+        }
+        if (template == null) {
+            template = defaults.get(messageKey);
+        }
+        if (template == null) {
+            template = fallbacks.computeIfAbsent(defaultMessage, message -> MessageTemplate.compile(message, prefix));
+        }
+        return template;
+    }
+    
+    public int getLocaleCount() {
+        return locales.size();
+    }
+    
+    private Map<String, MessageTemplate> bundleFor(Locale locale) {
+        Map<String, MessageTemplate> bundle = locales.get(locale.toString().toLowerCase(Locale.ROOT));
+        if (bundle == null) {
+            bundle = locales.get(locale.getLanguage().toLowerCase(Locale.ROOT));
+        }
+        return bundle != null ? bundle : Collections.emptyMap();
+    }
+    
+    private static Map<String, MessageTemplate> compileBundle(ConfigurationSection section, String prefix) {
+        Map<String, MessageTemplate> templates = new HashMap<>();
+        if (section == null) {
+            return templates;
+        }
+        for (String key : section.getKeys(false)) {
+            String template = section.getString(key);
+            if (template != null && !key.equals("prefix")) {
+                templates.put("messages." + key, MessageTemplate.compile(template, prefix));
+            }
+        }
+        return templates;
+    }
+}
@@ -0,0 +1,73 @@
+package com.playpandora.petplugin.config;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One entry of {@code pet-types} in config.yml, read and validated once.
+ * Stats a type does not use keep their defaults and are simply ignored.
+ */
+public record PetTypeDefinition(
+    String id,
+    boolean enabled,
+    String name,
+    List<String> description,
+    double price,
+    Material material,
+    int slot,
+    int requiredLevel,
+    double maxHealth,
+    double movementSpeed,
+    double jumpStrength,
+    double attackDamage,
+    double attackSpeed,
+    double followRange,
+    int speedBoostLevel,
+    int extraLives,
+    int nightVisionLevel,
+    boolean invisibilityOnSneak
+) {
+    
+    public PetTypeDefinition {
+        description = List.copyOf(description);
+    }
+    
+    static PetTypeDefinition compile(String id, ConfigurationSection section, ConfigProblems problems) {
+        String path = "pet-types." + id;
+        String key = id.toLowerCase(Locale.ROOT);
+        boolean dog = key.equals("dog");
+        
+        return new PetTypeDefinition(
+            id,
+            section.getBoolean("enabled", true),
+            section.getString("name", id),
+            section.getStringList("description"),
+            problems.atLeast(section, path, "price", 0.0, 0.0),
+            material(section, path, problems),
+            problems.between(section, path, "slot", -1, -1, 53),
+            problems.atLeast(section, path, "required-level", 0, 0),
+            problems.between(section, path, "max-health", 20.0, 1.0, 1024.0),
+            problems.atLeast(section, path, "movement-speed", 0.35, 0.0),
+            problems.atLeast(section, path, "jump-strength", 1.0, 0.0),
+            problems.atLeast(section, path, "attack-damage", dog ? 8.0 : 6.0, 0.0),
+            problems.atLeast(section, path, "attack-speed", dog ? 1.5 : 1.3, 0.0),
+            problems.atLeast(section, path, "follow-range", 32.0, 0.0),
+            problems.atLeast(section, path, "speed-boost-level", 1, 1),
+            problems.atLeast(section, path, "extra-lives", 1, 0),
+            problems.atLeast(section, path, "night-vision-level", 1, 1),
+            section.getBoolean("invisibility-on-sneak", true));
+    }
+    
+    private static Material material(ConfigurationSection section, String path, ConfigProblems problems) {
+        String materialName = section.getString("material", "BARRIER");
+        try {
+            return Material.valueOf(materialName);
+        } catch (IllegalArgumentException e) {
+            problems.add(path + ".material: unknown material " + materialName);
+            return Material.BARRIER;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.playpandora.petplugin.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Settings read on hot paths, compiled once from config.yml. Instances are immutable;
+ * a reload builds a new one and publishes it in place of the old.
+ */
+public record PluginSettings(
+    double runAwayHealthThreshold,
+    double teleportDistance,
+    long leashCheckIntervalNanos,
+    double autoHealRate,
+    int tickBuckets,
+    long tickBudgetNanos,
+    boolean preventDamage,
+    boolean preventDeath,
+    String shopTitle,
+    double reviveCost,
+    long reviveWindowMillis,
+    List<Integer> reviveReminderMinutes, // Within the window, latest first
+    int revivePurgeBatchSize,
+    long idempotencyWindowNanos,
+    LoadGovernorSettings loadGovernor,
+    StorageSettings storage,
+    Map<String, PetTypeDefinition> petTypes // Lower-cased id -> Definition, in config order
+) {
+    
+    public PluginSettings {
+        reviveReminderMinutes = List.copyOf(reviveReminderMinutes);
+        petTypes = Collections.unmodifiableMap(new LinkedHashMap<>(petTypes));
+    }
+    
+    /**
+     * Compiles and validates the whole config. Invalid values are reported to {@code problems}
+     * and replaced by their defaults.
+     */
+    public static PluginSettings compile(ConfigurationSection config, ConfigProblems problems) {
+        Map<String, PetTypeDefinition> petTypes = new LinkedHashMap<>();
+        ConfigurationSection petTypesSection = config.getConfigurationSection("pet-types");
+        if (petTypesSection == null) {
+            problems.add("pet-types: section is missing, no pets can be bought");
+        } else {
+            Map<Integer, String> slots = new HashMap<>();
+            for (String id : petTypesSection.getKeys(false)) {
+                ConfigurationSection petSection = petTypesSection.getConfigurationSection(id);
+                if (petSection == null) {
+                    problems.add("pet-types." + id + ": expected a section");
+                    continue;
+                }
+                
+                PetTypeDefinition definition = PetTypeDefinition.compile(id, petSection, problems);
+                if (petTypes.putIfAbsent(id.toLowerCase(Locale.ROOT), definition) != null) {
+                    problems.add("pet-types." + id + ": duplicate of another type differing only in case, ignored");
+                    continue;
+                }
+                if (definition.enabled() && definition.slot() >= 0) {
+                    String previous = slots.putIfAbsent(definition.slot(), id);
+                    if (previous != null) {
+                        problems.add("pet-types." + id + ".slot: " + definition.slot() + " is already used by " + previous);
+                    }
+                }
+            }
+        }
+        
+        long reviveWindowMillis = (long) (problems.atLeast(config, "", "revive.time-limit-hours", 6.0, 0.0) * 3_600_000L);
+        return new PluginSettings(
+            problems.between(config, "", "pets.run-away-health-threshold", 0.2, 0.0, 1.0),
+            problems.atLeast(config, "", "pets.teleport-distance", 50.0, 1.0),
+            problems.atLeast(config, "", "pets.leash-check-interval-ms", 250, 0) * 1_000_000L,
+            problems.atLeast(config, "", "pets.auto-heal-rate", 0.5, 0.0),
+            problems.atLeast(config, "", "pets.tick-buckets", 20, 1),
+            problems.atLeast(config, "", "pets.tick-budget-nanos", 2_000_000L, 0L),
+            config.getBoolean("pets.prevent-damage", true),
+            config.getBoolean("pets.prevent-death", true),
+            config.getString("shop.title", "&8Pet Shop"),
+            problems.atLeast(config, "", "revive.cost", 50000.0, 0.0),
+            reviveWindowMillis,
+            reminderMinutes(config, problems, reviveWindowMillis),
+            problems.atLeast(config, "", "revive.purge-batch-size", 50, 1),
+            problems.atLeast(config, "", "transactions.idempotency-window-ms", 2000, 0) * 1_000_000L,
+            LoadGovernorSettings.compile(config, problems),
+            StorageSettings.compile(config, problems),
+            petTypes);
+    }
+    
+    private static List<Integer> reminderMinutes(ConfigurationSection config, ConfigProblems problems, long windowMillis) {
+        List<Integer> minutes = new ArrayList<>();
+        for (int minute : config.getIntegerList("revive.reminder-minutes")) {
+            if (minute > 0 && minute * 60_000L < windowMillis) {
+                minutes.add(minute);
+            } else {
+                problems.add("revive.reminder-minutes: " + minute + " is not inside the revive window, ignored");
+            }
+        }
+        minutes.sort(Comparator.reverseOrder());
+        return minutes;
+    }
+    
+    /**
+     * @param petType Pet type id in any case
+     * @return The definition, or null if the type is not configured
+     */
+    public PetTypeDefinition getPetType(String petType) {
+        return petType == null ? null : petTypes.get(petType.toLowerCase(Locale.ROOT));
+    }
+    
+    public Collection<PetTypeDefinition> getPetTypes() {
+        return petTypes.values();
+    }
+}
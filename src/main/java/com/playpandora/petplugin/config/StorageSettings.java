@@ -0,0 +1,47 @@
+package com.playpandora.petplugin.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The {@code storage} section of config.yml. Only read when the plugin starts; a reload
+ * validates it but the open backend keeps its settings.
+ * @param backend One of yaml, yaml-per-player, binary or sqlite
+ */
+public record StorageSettings(
+    String backend,
+    String binaryFile,
+    boolean binaryCompress,
+    String sqliteFile,
+    int sqlitePoolSize,
+    boolean asyncSave,
+    long shutdownFlushTimeoutMillis,
+    double healthSaveThreshold,
+    boolean journalEnabled,
+    long journalSyncIntervalMillis
+) {
+    
+    private static final Set<String> BACKENDS = Set.of("yaml", "yaml-per-player", "binary", "sqlite");
+    
+    static StorageSettings compile(ConfigurationSection config, ConfigProblems problems) {
+        String backend = config.getString("storage.backend", "yaml").toLowerCase(Locale.ROOT);
+        if (!BACKENDS.contains(backend)) {
+            problems.add("storage.backend: unknown '" + backend + "', using yaml");
+            backend = "yaml";
+        }
+        
+        return new StorageSettings(
+            backend,
+            config.getString("storage.binary.file", "pets.dat"),
+            config.getBoolean("storage.binary.compress", false),
+            config.getString("storage.sqlite.file", "pets.db"),
+            problems.atLeast(config, "", "storage.sqlite.pool-size", 2, 1),
+            config.getBoolean("storage.async-save", true),
+            problems.atLeast(config, "", "storage.shutdown-flush-timeout", 10000L, 0L),
+            problems.atLeast(config, "", "storage.health-save-threshold", 1.0, 0.0),
+            config.getBoolean("storage.journal.enabled", true),
+            problems.atLeast(config, "", "storage.journal.sync-interval-ms", 50L, 1L));
+    }
+}
@@ -0,0 +1,75 @@
+package com.playpandora.petplugin.gui;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * A plugin menu. The menu is its inventory's holder, so listeners recognise plugin menus with a
+ * single {@code instanceof} on {@code getHolder(false)} and every other inventory is ignored
+ * without touching its title. Each slot carries its own click handler; menus are read-only,
+ * so every click and drag in them is cancelled.
+ */
+public class Menu implements InventoryHolder {
+    
+    private final Inventory inventory;
+    private final MenuClickHandler[] handlers; // By slot, null for decoration
+    
+    public Menu(int size, String title) {
+        this.inventory = Bukkit.createInventory(this, size, title);
+        this.handlers = new MenuClickHandler[size];
+    }
+    
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+    
+    public int getSize() {
+        return handlers.length;
+    }
+    
+    public ItemStack getItem(int slot) {
+        return inventory.getItem(slot);
+    }
+    
+    /**
+     * Sets a decoration item that does nothing when clicked
+     */
+    public void setItem(int slot, ItemStack item) {
+        setItem(slot, item, null);
+    }
+    
+    public void setItem(int slot, ItemStack item, MenuClickHandler handler) {
+        inventory.setItem(slot, item);
+        handlers[slot] = handler;
+    }
+    
+    /**
+     * Changes what a slot does without touching its item
+     */
+    public void setHandler(int slot, MenuClickHandler handler) {
+        handlers[slot] = handler;
+    }
+    
+    public void open(Player player) {
+        player.openInventory(inventory);
+    }
+    
+    /**
+     * @param rawSlot Slot in the open view; slots past the menu belong to the player's own inventory
+     */
+    public void handleClick(Player player, int rawSlot, InventoryClickEvent event) {
+        if (rawSlot < 0 || rawSlot >= handlers.length) {
+            return;
+        }
+        
+        MenuClickHandler handler = handlers[rawSlot];
+        if (handler != null) {
+            handler.onClick(player, event);
+        }
+    }
+}
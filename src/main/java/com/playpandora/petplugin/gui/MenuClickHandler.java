@@ -0,0 +1,13 @@
+package com.playpandora.petplugin.gui;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+
+/**
+ * Reacts to a click on one slot of a {@link Menu}. The click is already cancelled.
+ */
+@FunctionalInterface
+public interface MenuClickHandler {
+    
+    void onClick(Player player, InventoryClickEvent event);
+}
@@ -1,102 +1,144 @@
 package com.playpandora.petplugin.gui;
 
 import com.playpandora.petplugin.PetPlugin;
-import org.bukkit.Bukkit;
+import com.playpandora.petplugin.config.PetTypeDefinition;
+import com.playpandora.petplugin.config.PluginSettings;
 import org.bukkit.Material;
-import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
-import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.UUID;
 
 public class PetShopGUI {
     
+    private static final String OWNED = org.bukkit.ChatColor.translateAlternateColorCodes('&', "&a&l✓ OWNED");
+    private static final String CLICK_TO_PURCHASE = org.bukkit.ChatColor.translateAlternateColorCodes('&', "&8CLICK TO PURCHASE");
+    private static final String INSUFFICIENT_FUNDS = org.bukkit.ChatColor.translateAlternateColorCodes('&', "&c&l✗ INSUFFICIENT FUNDS");
+    private static final String REQUIREMENTS_NOT_MET = org.bukkit.ChatColor.translateAlternateColorCodes('&', "&c&l✗ REQUIREMENTS NOT MET");
+    
     private final PetPlugin plugin;
-    private final Map<UUID, Map<Integer, String>> playerSlotMappings = new HashMap<>();
+    private ShopLayout layout; // Rendered for one settings instance; rebuilt after a reload
     
     public PetShopGUI(PetPlugin plugin) {
         this.plugin = plugin;
     }
     
+    /**
+     * Opens the shop, or refreshes it in place if the player already has it open
+     */
     public void openShop(Player player) {
-        String title = plugin.getConfig().getString("shop.title", "&8Pet Shop");
-        // Strip any bold formatting from the title
-        title = org.bukkit.ChatColor.stripColor(org.bukkit.ChatColor.translateAlternateColorCodes('&', title)).replace(" ", "");
-        title = "&8Pet Shop"; // Force &8 style (no bold)
+        ShopLayout layout = getLayout();
+        if (layout == null) {
+            plugin.sendMessage(player, "messages.no-pets-configured",
+                "{prefix}No pets configured!");
+            return;
+        }
         
-        ConfigurationSection petTypes = plugin.getConfig().getConfigurationSection("pet-types");
-        if (petTypes == null) {
-            player.sendMessage(plugin.formatMessage("messages.no-pets-configured",
-                "{prefix}No pets configured!"));
+        if (player.getOpenInventory().getTopInventory().getHolder(false) instanceof ShopMenu open
+                && open.getLayout() == layout) {
+            refresh(player, open);
             return;
         }
         
-        // Clear previous slot mapping for this player
-        playerSlotMappings.remove(player.getUniqueId());
-        Map<Integer, String> slotMapping = new HashMap<>();
+        ShopMenu menu = new ShopMenu(layout);
+        menu.setHandler(layout.closeSlot, (clicker, event) -> clicker.closeInventory());
+        for (int i = 0; i < layout.petCount(); i++) {
+            String petTypeId = layout.petTypes[i].id();
+            menu.setHandler(layout.petSlots[i], (clicker, event) -> {
+                // Patch the open shop once the purchase settles rather than reopening it
+                plugin.getPurchaseManager().purchasePet(clicker, petTypeId, () -> {
+                    if (clicker.getOpenInventory().getTopInventory().getHolder(false) == menu) {
+                        refresh(clicker, menu);
+                    }
+                });
+            });
+        }
+        refresh(player, menu);
+        menu.open(player);
+    }
+    
+    /**
+     * Rewrites the pet slots whose player-specific lines changed since they were last shown
+     * @return How many slots were rewritten
+     */
+    private int refresh(Player player, ShopMenu menu) {
+        ShopLayout layout = menu.getLayout();
+        boolean hasEconomy = plugin.getEconomy() != null;
+        double balance = hasEconomy ? plugin.getPlayerBalance(player) : 0;
+        int playerLevel = -1; // Looked up once, and only if some pet has a level requirement
         
-        // Count enabled pets
-        int petCount = 0;
-        for (String petType : petTypes.getKeys(false)) {
-            ConfigurationSection petConfig = petTypes.getConfigurationSection(petType);
-            if (petConfig != null && petConfig.getBoolean("enabled", true)) {
-                petCount++;
+        int patched = 0;
+        for (int i = 0; i < layout.petCount(); i++) {
+            PetTypeDefinition petType = layout.petTypes[i];
+            if (petType.requiredLevel() > 0 && playerLevel < 0) {
+                playerLevel = plugin.getPlayerLevel(player);
+            }
+            if (menu.patch(i, playerLore(player, petType, hasEconomy, balance, playerLevel))) {
+                patched++;
+            }
+        }
+        return patched;
+    }
+    
+    /**
+     * @return The shop layout for the current settings, rendered on first use; null if no pets are configured
+     */
+    private ShopLayout getLayout() {
+        PluginSettings settings = plugin.getSettings();
+        ShopLayout current = layout;
+        if (current == null || current.settings != settings) {
+            current = settings.getPetTypes().isEmpty() ? null : buildLayout(settings);
+            layout = current;
+        }
+        return current;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private ShopLayout buildLayout(PluginSettings settings) {
+        List<PetTypeDefinition> enabled = new ArrayList<>();
+        for (PetTypeDefinition petType : settings.getPetTypes()) {
+            if (petType.enabled()) {
+                enabled.add(petType);
             }
         }
         
         // Calculate optimal size
-        int size = calculateOptimalSizeWithNav(petCount);
-        
-        Inventory inv = Bukkit.createInventory(null, size,
-            org.bukkit.ChatColor.translateAlternateColorCodes('&', title));
+        int size = calculateOptimalSizeWithNav(enabled.size());
+        ItemStack[] contents = new ItemStack[size];
+        ItemStack border = createBorder();
         
         // Fill borders first
-        fillBorders(inv, size, true, true, true);
+        fillBorders(contents, border);
         
         // Add close button (bottom right)
         int closeSlot = size - 1;
-        inv.setItem(closeSlot, createCloseButton());
+        contents[closeSlot] = createCloseButton();
         
         // Add pet items
         // Start at slot 1 (after left border) for small inventories, or slot 10 for larger ones
-        int startSlot = size > 9 ? 10 : 1;
-        int currentSlot = startSlot;
-        for (String petType : petTypes.getKeys(false)) {
-            ConfigurationSection petConfig = petTypes.getConfigurationSection(petType);
-            if (petConfig == null || !petConfig.getBoolean("enabled", true)) {
-                continue;
-            }
-            
+        List<Integer> petSlots = new ArrayList<>();
+        List<PetTypeDefinition> placed = new ArrayList<>();
+        int currentSlot = size > 9 ? 10 : 1;
+        for (PetTypeDefinition petType : enabled) {
             // Use configured slot if valid, otherwise auto-place
-            int slot = petConfig.getInt("slot", -1);
+            int slot = petType.slot();
             if (slot < 0 || slot >= size || slot == closeSlot) {
                 // Auto-place: find next available slot
                 // For small inventories (size <= 9), use all slots except borders and close button
                 // For larger inventories, skip bottom row
                 int maxSlot = size > 9 ? size - 9 : size - 1;
                 while (currentSlot < maxSlot) {
-                    int row = currentSlot / 9;
                     int col = currentSlot % 9;
                     // Skip side borders (columns 0 and 8)
                     if (col == 0 || col == 8) {
                         currentSlot++;
                         continue;
                     }
-                    // Skip top row borders (row 0)
-                    if (row == 0 && (col == 0 || col == 8)) {
-                        currentSlot++;
-                        continue;
-                    }
                     // Check if slot is available
-                    ItemStack existing = inv.getItem(currentSlot);
-                    if (existing == null || existing.getType() == Material.GRAY_STAINED_GLASS_PANE) {
+                    ItemStack existing = contents[currentSlot];
+                    if (existing == null || existing == border) {
                         slot = currentSlot;
                         currentSlot++;
                         break;
@@ -106,160 +148,104 @@ public class PetShopGUI {
                 if (slot < 0) break; // No more space
             }
             
-            // Store the mapping
-            slotMapping.put(slot, petType);
-            
-            ItemStack item = createPetItem(petType, petConfig, player);
-            inv.setItem(slot, item);
+            petSlots.add(slot);
+            placed.add(petType);
         }
         
-        // Store the slot mapping for this player
-        playerSlotMappings.put(player.getUniqueId(), slotMapping);
+        int petCount = placed.size();
+        ItemStack[] petTemplates = new ItemStack[petCount];
+        List<String>[] staticLore = new List[petCount];
+        for (int i = 0; i < petCount; i++) {
+            PetTypeDefinition petType = placed.get(i);
+            staticLore[i] = List.copyOf(createStaticLore(petType));
+            petTemplates[i] = createPetTemplate(petType, staticLore[i]);
+            contents[petSlots.get(i)] = petTemplates[i];
+        }
         
         // Fill remaining empty slots with borders
-        fillEmptySlots(inv, size);
+        for (int i = 0; i < size; i++) {
+            if (contents[i] == null) {
+                contents[i] = border;
+            }
+        }
         
-        player.openInventory(inv);
+        return new ShopLayout(settings, org.bukkit.ChatColor.translateAlternateColorCodes('&', settings.shopTitle()),
+            size, closeSlot, contents, petSlots.stream().mapToInt(Integer::intValue).toArray(),
+            placed.toArray(new PetTypeDefinition[0]), petTemplates, staticLore);
     }
     
-    
-    private ItemStack createPetItem(String petType, ConfigurationSection config, Player player) {
-        String materialName = config.getString("material", "BARRIER");
-        Material material;
-        try {
-            material = Material.valueOf(materialName);
-        } catch (IllegalArgumentException e) {
-            material = Material.BARRIER;
-        }
-        
-        ItemStack item = new ItemStack(material);
+    private ItemStack createPetTemplate(PetTypeDefinition petType, List<String> staticLore) {
+        ItemStack item = new ItemStack(petType.material());
         ItemMeta meta = item.getItemMeta();
-        
         if (meta == null) {
             return item;
         }
         
-        // Set display name
-        String name = config.getString("name", petType);
-        meta.setDisplayName(org.bukkit.ChatColor.translateAlternateColorCodes('&', name));
-        
-        // Build lore with Hypixel-style formatting
+        meta.setDisplayName(org.bukkit.ChatColor.translateAlternateColorCodes('&', petType.name()));
+        meta.setLore(staticLore);
+        item.setItemMeta(meta);
+        return item;
+    }
+    
+    /**
+     * Description and price, the same for every player
+     */
+    private List<String> createStaticLore(PetTypeDefinition petType) {
         List<String> lore = new ArrayList<>();
         
         // Add description
-        List<String> description = config.getStringList("description");
-        for (String line : description) {
+        for (String line : petType.description()) {
             lore.add(org.bukkit.ChatColor.translateAlternateColorCodes('&', "&7" + line));
         }
         
         lore.add("");
         
         // Add price
-        double price = config.getDouble("price", 0.0);
+        double price = petType.price();
         if (price > 0) {
             lore.add(org.bukkit.ChatColor.translateAlternateColorCodes('&', 
                 "&7Price: &6$" + String.format("%.2f", price)));
             lore.add("");
         }
-        
-        // Check if player owns this pet
-        boolean ownsPet = plugin.getDataManager().hasPetType(player.getUniqueId(), petType);
-        if (ownsPet) {
-            lore.add(org.bukkit.ChatColor.translateAlternateColorCodes('&', "&a&l✓ OWNED"));
-        } else {
-            boolean canPurchase = true;
-            
-            // Check level requirement
-            int requiredLevel = config.getInt("required-level", 0);
-            if (requiredLevel > 0) {
-                int playerLevel = getPlayerLevel(player);
-                if (playerLevel < requiredLevel) {
-                    lore.add(org.bukkit.ChatColor.translateAlternateColorCodes('&', 
-                        "&7Requires Level: &6" + requiredLevel));
-                    lore.add(org.bukkit.ChatColor.translateAlternateColorCodes('&', 
-                        "&7Your Level: &c" + playerLevel));
-                    lore.add("");
-                    canPurchase = false;
-                }
-            }
-            
-            lore.add("");
-            
-            // Check if player can afford it
-            if (plugin.getEconomy() != null && price > 0) {
-                double balance = plugin.getPlayerBalance(player);
-                if (balance >= price && canPurchase) {
-                    lore.add(org.bukkit.ChatColor.translateAlternateColorCodes('&', "&8CLICK TO PURCHASE"));
-                } else {
-                    if (balance < price) {
-                        lore.add(org.bukkit.ChatColor.translateAlternateColorCodes('&', "&c&l✗ INSUFFICIENT FUNDS"));
-                        lore.add(org.bukkit.ChatColor.translateAlternateColorCodes('&',
-                            "&7You need: &6$" + String.format("%.2f", price - balance) + " &7more"));
-                    } else {
-                        lore.add(org.bukkit.ChatColor.translateAlternateColorCodes('&', "&c&l✗ REQUIREMENTS NOT MET"));
-                    }
-                }
-            } else {
-                if (canPurchase) {
-                    lore.add(org.bukkit.ChatColor.translateAlternateColorCodes('&', "&8CLICK TO PURCHASE"));
-                } else {
-                    lore.add(org.bukkit.ChatColor.translateAlternateColorCodes('&', "&c&l✗ REQUIREMENTS NOT MET"));
-                }
-            }
-        }
-        
-        meta.setLore(lore);
-        item.setItemMeta(meta);
-        
-        return item;
+        return lore;
     }
     
-    public String getPetTypeBySlot(Player player, int slot) {
-        // First check the player's slot mapping (for auto-placed pets)
-        Map<Integer, String> slotMapping = playerSlotMappings.get(player.getUniqueId());
-        if (slotMapping != null && slotMapping.containsKey(slot)) {
-            return slotMapping.get(slot);
-        }
+    /**
+     * Ownership, level and affordability lines for one player
+     */
+    private List<String> playerLore(Player player, PetTypeDefinition petType, boolean hasEconomy, double balance, int playerLevel) {
+        List<String> lore = new ArrayList<>(4);
         
-        // Fall back to config-based lookup
-        ConfigurationSection petTypes = plugin.getConfig().getConfigurationSection("pet-types");
-        if (petTypes == null) {
-            return null;
+        // Check if player owns this pet
+        if (plugin.getDataManager().hasPetType(player.getUniqueId(), petType.id())) {
+            lore.add(OWNED);
+            return lore;
         }
         
-        for (String petType : petTypes.getKeys(false)) {
-            ConfigurationSection petConfig = petTypes.getConfigurationSection(petType);
-            if (petConfig != null && petConfig.getInt("slot", -1) == slot) {
-                return petType;
-            }
+        // Check level requirement
+        boolean canPurchase = true;
+        int requiredLevel = petType.requiredLevel();
+        if (requiredLevel > 0 && playerLevel < requiredLevel) {
+            lore.add(org.bukkit.ChatColor.translateAlternateColorCodes('&', 
+                "&7Requires Level: &6" + requiredLevel));
+            lore.add(org.bukkit.ChatColor.translateAlternateColorCodes('&', 
+                "&7Your Level: &c" + playerLevel));
+            lore.add("");
+            canPurchase = false;
         }
         
-        return null;
-    }
-    
-    public void clearPlayerMapping(Player player) {
-        playerSlotMappings.remove(player.getUniqueId());
-    }
-    
-    private int getPlayerLevel(org.bukkit.entity.Player player) {
-        // Check if LevelPlugin is available
-        if (org.bukkit.Bukkit.getPluginManager().getPlugin("LevelPlugin") != null) {
-            try {
-                Class<?> levelPluginClass = Class.forName("com.playpandora.levelplugin.LevelPlugin");
-                Method getInstanceMethod = levelPluginClass.getMethod("getInstance");
-                Object levelPlugin = getInstanceMethod.invoke(null);
-                
-                Method getAPIMethod = levelPluginClass.getMethod("getAPI");
-                Object api = getAPIMethod.invoke(levelPlugin);
-                
-                Method getLevelMethod = api.getClass().getMethod("getLevel", org.bukkit.entity.Player.class);
-                return (Integer) getLevelMethod.invoke(api, player);
-            } catch (Exception e) {
-                // LevelPlugin not available or error
-                return 0;
-            }
+        lore.add("");
+        
+        // Check if player can afford it
+        double price = petType.price();
+        if (hasEconomy && price > 0 && balance < price) {
+            lore.add(INSUFFICIENT_FUNDS);
+            lore.add(org.bukkit.ChatColor.translateAlternateColorCodes('&',
+                "&7You need: &6$" + String.format("%.2f", price - balance) + " &7more"));
+        } else {
+            lore.add(canPurchase ? CLICK_TO_PURCHASE : REQUIREMENTS_NOT_MET);
         }
-        return 0;
+        return lore;
     }
     
     // GUI utility methods (Hypixel standard)
@@ -277,47 +263,20 @@ public class PetShopGUI {
         return 54;
     }
     
-    private void fillBorders(Inventory inv, int size, boolean fillTop, boolean fillBottom, boolean fillSides) {
-        ItemStack border = createBorder();
+    private void fillBorders(ItemStack[] contents, ItemStack border) {
+        int size = contents.length;
         int rows = size / 9;
         
-        if (fillTop && rows > 0) {
-            for (int i = 0; i < 9; i++) {
-                if (inv.getItem(i) == null) {
-                    inv.setItem(i, border);
-                }
-            }
+        // Top and bottom rows
+        for (int i = 0; i < 9 && i < size; i++) {
+            contents[i] = border;
+            contents[(rows - 1) * 9 + i] = border;
         }
         
-        if (fillBottom && rows > 0) {
-            int startBottom = (rows - 1) * 9;
-            for (int i = startBottom; i < size; i++) {
-                if (inv.getItem(i) == null) {
-                    inv.setItem(i, border);
-                }
-            }
-        }
-        
-        if (fillSides && rows > 0) {
-            for (int row = 0; row < rows; row++) {
-                int leftSlot = row * 9;
-                int rightSlot = row * 9 + 8;
-                if (inv.getItem(leftSlot) == null) {
-                    inv.setItem(leftSlot, border);
-                }
-                if (inv.getItem(rightSlot) == null) {
-                    inv.setItem(rightSlot, border);
-                }
-            }
-        }
-    }
-    
-    private void fillEmptySlots(Inventory inv, int size) {
-        ItemStack border = createBorder();
-        for (int i = 0; i < size; i++) {
-            if (inv.getItem(i) == null) {
-                inv.setItem(i, border);
-            }
+        // Sides
+        for (int row = 0; row < rows; row++) {
+            contents[row * 9] = border;
+            contents[row * 9 + 8] = border;
         }
     }
     
@@ -0,0 +1,42 @@
+package com.playpandora.petplugin.gui;
+
+import com.playpandora.petplugin.config.PetTypeDefinition;
+import com.playpandora.petplugin.config.PluginSettings;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+
+/**
+ * The parts of the shop that are the same for every player, rendered once per settings
+ * instance: title, size, borders, close button and one template item per pet type carrying
+ * its name, description and price. Nothing here is modified after construction.
+ */
+final class ShopLayout {
+    
+    final PluginSettings settings; // The settings this layout was rendered from
+    final String title;
+    final int size;
+    final int closeSlot;
+    final ItemStack[] contents;    // By slot, templates included
+    final int[] petSlots;          // By pet index
+    final PetTypeDefinition[] petTypes;
+    final ItemStack[] petTemplates;
+    final List<String>[] staticLore; // Lore every player sees, before their own lines
+    
+    ShopLayout(PluginSettings settings, String title, int size, int closeSlot, ItemStack[] contents,
+               int[] petSlots, PetTypeDefinition[] petTypes, ItemStack[] petTemplates, List<String>[] staticLore) {
+        this.settings = settings;
+        this.title = title;
+        this.size = size;
+        this.closeSlot = closeSlot;
+        this.contents = contents;
+        this.petSlots = petSlots;
+        this.petTypes = petTypes;
+        this.petTemplates = petTemplates;
+        this.staticLore = staticLore;
+    }
+    
+    int petCount() {
+        return petSlots.length;
+    }
+}
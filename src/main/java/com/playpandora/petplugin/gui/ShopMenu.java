@@ -0,0 +1,54 @@
+package com.playpandora.petplugin.gui;
+
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One player's open shop. Starts from a {@link ShopLayout} and only rewrites a pet slot when
+ * that player's own lore lines for it (owned, level, affordability) change.
+ */
+final class ShopMenu extends Menu {
+    
+    private final ShopLayout layout;
+    private final List<?>[] playerLore; // By pet index, the player lines currently shown
+    
+    ShopMenu(ShopLayout layout) {
+        super(layout.size, layout.title);
+        this.layout = layout;
+        this.playerLore = new List<?>[layout.petCount()];
+        for (int slot = 0; slot < layout.size; slot++) {
+            if (layout.contents[slot] != null) {
+                setItem(slot, layout.contents[slot]);
+            }
+        }
+    }
+    
+    ShopLayout getLayout() {
+        return layout;
+    }
+    
+    /**
+     * @return Whether the slot had to be rewritten
+     */
+    boolean patch(int petIndex, List<String> lore) {
+        if (lore.equals(playerLore[petIndex])) {
+            return false;
+        }
+        
+        ItemStack item = layout.petTemplates[petIndex].clone();
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            List<String> fullLore = new ArrayList<>(layout.staticLore[petIndex].size() + lore.size());
+            fullLore.addAll(layout.staticLore[petIndex]);
+            fullLore.addAll(lore);
+            meta.setLore(fullLore);
+            item.setItemMeta(meta);
+        }
+        getInventory().setItem(layout.petSlots[petIndex], item);
+        playerLore[petIndex] = lore;
+        return true;
+    }
+}
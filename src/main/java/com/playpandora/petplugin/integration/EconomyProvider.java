@@ -0,0 +1,30 @@
+package com.playpandora.petplugin.integration;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Money source behind purchases and revives.
+ */
+public interface EconomyProvider {
+    
+    String getName();
+    
+    double getBalance(Player player);
+    
+    /**
+     * @return Whether the amount was taken
+     */
+    boolean withdraw(Player player, double amount);
+    
+    /**
+     * @return Whether the amount was paid out
+     */
+    boolean deposit(Player player, double amount);
+    
+    /**
+     * @return Whether every method may be called from any thread
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
+}
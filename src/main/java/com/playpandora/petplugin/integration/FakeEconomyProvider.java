@@ -0,0 +1,56 @@
+package com.playpandora.petplugin.integration;
+
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory economy for test servers ({@code integrations.economy: fake}). Every player starts
+ * with {@code integrations.fake-starting-balance}; balances are lost on restart.
+ */
+public final class FakeEconomyProvider implements EconomyProvider {
+    
+    private final double startingBalance;
+    private final Map<UUID, Double> balances = new ConcurrentHashMap<>();
+    
+    public FakeEconomyProvider(double startingBalance) {
+        this.startingBalance = startingBalance;
+    }
+    
+    @Override
+    public String getName() {
+        return "Fake";
+    }
+    
+    @Override
+    public double getBalance(Player player) {
+        return balances.getOrDefault(player.getUniqueId(), startingBalance);
+    }
+    
+    @Override
+    public boolean withdraw(Player player, double amount) {
+        boolean[] taken = new boolean[1];
+        balances.compute(player.getUniqueId(), (uuid, balance) -> {
+            double current = balance != null ? balance : startingBalance;
+            taken[0] = amount >= 0 && current >= amount;
+            return taken[0] ? current - amount : current;
+        });
+        return taken[0];
+    }
+    
+    @Override
+    public boolean deposit(Player player, double amount) {
+        if (amount < 0) {
+            return false;
+        }
+        balances.merge(player.getUniqueId(), startingBalance + amount, (balance, ignored) -> balance + amount);
+        return true;
+    }
+    
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+}
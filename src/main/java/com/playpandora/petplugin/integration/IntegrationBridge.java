@@ -0,0 +1,191 @@
+package com.playpandora.petplugin.integration;
+
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Front for the economy and level plugins. Balances and levels are cached per player for
+ * {@code integrations.cache-ttl-ms}, so a shop refresh or a purchase check asks each plugin once
+ * instead of once per pet type. Our own withdrawals and deposits drop the player's cached
+ * balance straight away; changes made by other plugins show up once the entry expires.
+ * The level plugin is bound on first use rather than at startup, since it may enable after us;
+ * a failed bind is retried every {@value #LEVEL_BIND_RETRY_MILLIS}ms or when {@link #rebindLevels()} is called.
+ * Safe to call from any thread, though the providers themselves may not be; see {@link #isAsyncSafe()}.
+ */
+public class IntegrationBridge {
+    
+    private static final long LEVEL_BIND_RETRY_MILLIS = 30_000L;
+    
+    private final EconomyProvider economy; // Null if there is none
+    private final Supplier<LevelProvider> levelBinder; // Returns null while there is none
+    private volatile LevelProvider levels;             // Null until bound
+    private volatile long nextLevelBind;               // Nanos; no attempt before this
+    private final long ttlNanos;
+    private final boolean asyncEconomy;
+    private final Map<UUID, Cached> balances = new ConcurrentHashMap<>();
+    private final Map<UUID, Cached> levelCache = new ConcurrentHashMap<>();
+    private final AtomicLong balanceHits = new AtomicLong();
+    private final AtomicLong balanceMisses = new AtomicLong();
+    private final AtomicLong levelHits = new AtomicLong();
+    private final AtomicLong levelMisses = new AtomicLong();
+    
+    private record Cached(double value, long expiresAt) {
+    }
+    
+    /**
+     * @param levelBinder  Looks up the level plugin, returning null if it is missing or not enabled yet
+     * @param asyncEconomy Whether the economy may be called off the main thread even though it does not say so itself
+     */
+    public IntegrationBridge(EconomyProvider economy, Supplier<LevelProvider> levelBinder, long ttlMillis, boolean asyncEconomy) {
+        this.economy = economy;
+        this.levelBinder = levelBinder;
+        this.nextLevelBind = System.nanoTime();
+        this.ttlNanos = Math.max(0, ttlMillis) * 1_000_000L;
+        this.asyncEconomy = asyncEconomy;
+    }
+    
+    /**
+     * @return The economy in use, or null if purchases are free
+     */
+    public EconomyProvider getEconomy() {
+        return economy;
+    }
+    
+    /**
+     * @return The level plugin, or null if it is not (yet) available
+     */
+    public LevelProvider getLevels() {
+        LevelProvider bound = levels;
+        if (bound != null || System.nanoTime() - nextLevelBind < 0) {
+            return bound;
+        }
+        
+        synchronized (this) {
+            if (levels == null && System.nanoTime() - nextLevelBind >= 0) {
+                levels = levelBinder.get();
+                nextLevelBind = System.nanoTime() + LEVEL_BIND_RETRY_MILLIS * 1_000_000L;
+            }
+            return levels;
+        }
+    }
+    
+    /**
+     * Drops the bound level plugin and looks it up again on next use, e.g. after it was (re)enabled
+     */
+    public void rebindLevels() {
+        levels = null;
+        nextLevelBind = System.nanoTime();
+    }
+    
+    public double getBalance(Player player) {
+        if (economy == null) {
+            return 0.0;
+        }
+        
+        long now = System.nanoTime();
+        Cached cached = balances.get(player.getUniqueId());
+        if (cached != null && now - cached.expiresAt() < 0) {
+            balanceHits.incrementAndGet();
+            return cached.value();
+        }
+        
+        balanceMisses.incrementAndGet();
+        double balance = economy.getBalance(player);
+        balances.put(player.getUniqueId(), new Cached(balance, now + ttlNanos));
+        return balance;
+    }
+    
+    /**
+     * Reads the balance from the economy, bypassing the cache, and caches the result
+     */
+    public double refreshBalance(Player player) {
+        if (economy == null) {
+            return 0.0;
+        }
+        
+        balanceMisses.incrementAndGet();
+        double balance = economy.getBalance(player);
+        balances.put(player.getUniqueId(), new Cached(balance, System.nanoTime() + ttlNanos));
+        return balance;
+    }
+    
+    /**
+     * @return Whether balance reads, withdrawals and deposits may run off the main thread
+     */
+    public boolean isAsyncSafe() {
+        return economy != null && (asyncEconomy || economy.isThreadSafe());
+    }
+    
+    /**
+     * @return The player's level, or 0 without a level plugin
+     */
+    public int getLevel(Player player) {
+        LevelProvider levels = getLevels();
+        if (levels == null) {
+            return 0;
+        }
+        
+        long now = System.nanoTime();
+        Cached cached = levelCache.get(player.getUniqueId());
+        if (cached != null && now - cached.expiresAt() < 0) {
+            levelHits.incrementAndGet();
+            return (int) cached.value();
+        }
+        
+        levelMisses.incrementAndGet();
+        int level = levels.getLevel(player);
+        levelCache.put(player.getUniqueId(), new Cached(level, now + ttlNanos));
+        return level;
+    }
+    
+    public boolean withdraw(Player player, double amount) {
+        if (economy == null) {
+            return false;
+        }
+        try {
+            return economy.withdraw(player, amount);
+        } finally {
+            balances.remove(player.getUniqueId());
+        }
+    }
+    
+    public boolean deposit(Player player, double amount) {
+        if (economy == null) {
+            return false;
+        }
+        try {
+            return economy.deposit(player, amount);
+        } finally {
+            balances.remove(player.getUniqueId());
+        }
+    }
+    
+    /**
+     * Forgets everything cached for a player, e.g. when they leave
+     */
+    public void invalidate(UUID playerUUID) {
+        balances.remove(playerUUID);
+        levelCache.remove(playerUUID);
+    }
+    
+    public long getBalanceHits() {
+        return balanceHits.get();
+    }
+    
+    public long getBalanceMisses() {
+        return balanceMisses.get();
+    }
+    
+    public long getLevelHits() {
+        return levelHits.get();
+    }
+    
+    public long getLevelMisses() {
+        return levelMisses.get();
+    }
+}
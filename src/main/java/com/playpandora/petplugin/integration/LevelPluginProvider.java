@@ -0,0 +1,64 @@
+package com.playpandora.petplugin.integration;
+
+import org.bukkit.entity.Player;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.logging.Logger;
+
+/**
+ * Levels from LevelPlugin ({@code LevelPlugin.getInstance().getAPI().getLevel(player)}), with the
+ * API object and its getLevel method resolved once into a bound method handle.
+ */
+public final class LevelPluginProvider implements LevelProvider {
+    
+    private static final String PLUGIN_CLASS = "com.playpandora.levelplugin.LevelPlugin";
+    
+    private final Logger logger;
+    private final MethodHandle getLevel; // (Player)int
+    
+    private LevelPluginProvider(Logger logger, MethodHandle getLevel) {
+        this.logger = logger;
+        this.getLevel = getLevel;
+    }
+    
+    /**
+     * @return The bridge, or null if LevelPlugin is not loaded
+     */
+    public static LevelPluginProvider create(Logger logger) {
+        try {
+            Class<?> pluginClass = Class.forName(PLUGIN_CLASS);
+            Object levelPlugin = pluginClass.getMethod("getInstance").invoke(null);
+            Object api = pluginClass.getMethod("getAPI").invoke(levelPlugin);
+            
+            // The API implementation class may not be public; the accessible method can still be unreflected
+            Method method = api.getClass().getMethod("getLevel", Player.class);
+            method.setAccessible(true);
+            MethodHandle getLevel = MethodHandles.lookup().unreflect(method).bindTo(api)
+                .asType(MethodType.methodType(int.class, Player.class));
+            return new LevelPluginProvider(logger, getLevel);
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (Throwable e) {
+            logger.warning("LevelPlugin is installed but its API could not be bound: " + e);
+            return null;
+        }
+    }
+    
+    @Override
+    public String getName() {
+        return "LevelPlugin";
+    }
+    
+    @Override
+    public int getLevel(Player player) {
+        try {
+            return (int) getLevel.invokeExact(player);
+        } catch (Throwable e) {
+            logger.warning("Could not read the level of " + player.getName() + ": " + e);
+            return 0;
+        }
+    }
+}
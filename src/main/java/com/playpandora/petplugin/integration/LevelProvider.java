@@ -0,0 +1,13 @@
+package com.playpandora.petplugin.integration;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Player level source for pet level requirements.
+ */
+public interface LevelProvider {
+    
+    String getName();
+    
+    int getLevel(Player player);
+}
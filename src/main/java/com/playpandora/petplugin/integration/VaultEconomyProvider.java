@@ -0,0 +1,110 @@
+package com.playpandora.petplugin.integration;
+
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.RegisteredServiceProvider;
+import org.bukkit.plugin.ServicesManager;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.logging.Logger;
+
+/**
+ * Vault's economy, called through method handles that are resolved once against the Economy
+ * interface and bound to the registered provider. Vault stays a soft dependency: nothing here
+ * refers to its classes at compile time.
+ */
+public final class VaultEconomyProvider implements EconomyProvider {
+    
+    private static final String ECONOMY_CLASS = "net.milkbowl.vault.economy.Economy";
+    private static final String RESPONSE_CLASS = "net.milkbowl.vault.economy.EconomyResponse";
+    
+    private final Logger logger;
+    private final String name;
+    private final MethodHandle getBalance;          // (OfflinePlayer)double
+    private final MethodHandle withdrawPlayer;      // (OfflinePlayer, double)EconomyResponse
+    private final MethodHandle depositPlayer;       // (OfflinePlayer, double)EconomyResponse
+    private final MethodHandle transactionSuccess;  // (EconomyResponse)boolean
+    private final MethodHandle errorMessage;        // (EconomyResponse)String
+    
+    private VaultEconomyProvider(Logger logger, String name, MethodHandle getBalance, MethodHandle withdrawPlayer,
+                                 MethodHandle depositPlayer, MethodHandle transactionSuccess, MethodHandle errorMessage) {
+        this.logger = logger;
+        this.name = name;
+        this.getBalance = getBalance;
+        this.withdrawPlayer = withdrawPlayer;
+        this.depositPlayer = depositPlayer;
+        this.transactionSuccess = transactionSuccess;
+        this.errorMessage = errorMessage;
+    }
+    
+    /**
+     * @return The bridge, or null if Vault or an economy plugin is missing
+     */
+    public static VaultEconomyProvider create(ServicesManager services, Logger logger) {
+        try {
+            Class<?> economyClass = Class.forName(ECONOMY_CLASS);
+            RegisteredServiceProvider<?> registration = services.getRegistration(economyClass);
+            Object economy = registration != null ? registration.getProvider() : null;
+            if (economy == null) {
+                return null;
+            }
+            
+            Class<?> responseClass = Class.forName(RESPONSE_CLASS);
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodHandle getName = lookup.findVirtual(economyClass, "getName", MethodType.methodType(String.class));
+            return new VaultEconomyProvider(logger,
+                (String) getName.invoke(economy),
+                lookup.findVirtual(economyClass, "getBalance", MethodType.methodType(double.class, OfflinePlayer.class)).bindTo(economy),
+                lookup.findVirtual(economyClass, "withdrawPlayer", MethodType.methodType(responseClass, OfflinePlayer.class, double.class)).bindTo(economy),
+                lookup.findVirtual(economyClass, "depositPlayer", MethodType.methodType(responseClass, OfflinePlayer.class, double.class)).bindTo(economy),
+                lookup.findVirtual(responseClass, "transactionSuccess", MethodType.methodType(boolean.class)),
+                lookup.findGetter(responseClass, "errorMessage", String.class));
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (Throwable e) {
+            logger.warning("Vault is installed but its economy API could not be bound: " + e);
+            return null;
+        }
+    }
+    
+    @Override
+    public String getName() {
+        return "Vault (" + name + ")";
+    }
+    
+    @Override
+    public double getBalance(Player player) {
+        try {
+            return (double) getBalance.invoke((OfflinePlayer) player);
+        } catch (Throwable e) {
+            logger.warning("Could not read the balance of " + player.getName() + ": " + e);
+            return 0.0;
+        }
+    }
+    
+    @Override
+    public boolean withdraw(Player player, double amount) {
+        return transact(withdrawPlayer, "withdraw", player, amount);
+    }
+    
+    @Override
+    public boolean deposit(Player player, double amount) {
+        return transact(depositPlayer, "deposit", player, amount);
+    }
+    
+    private boolean transact(MethodHandle handle, String action, Player player, double amount) {
+        try {
+            Object response = handle.invoke((OfflinePlayer) player, amount);
+            if (response != null && !(boolean) transactionSuccess.invoke(response)) {
+                logger.warning("Failed to " + action + " money for " + player.getName() + ": " + errorMessage.invoke(response));
+                return false;
+            }
+            return true;
+        } catch (Throwable e) {
+            logger.severe("Failed to " + action + " money for " + player.getName() + ": " + e);
+            return false;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.playpandora.petplugin.listeners;
 
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
 import com.playpandora.petplugin.PetPlugin;
+import com.playpandora.petplugin.gui.Menu;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -8,12 +11,19 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.entity.EntityRegainHealthEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerToggleSneakEvent;
+import org.bukkit.event.server.PluginEnableEvent;
+import org.bukkit.event.world.EntitiesUnloadEvent;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 
@@ -29,57 +39,22 @@ public class PetListener implements Listener {
     
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onInventoryClick(InventoryClickEvent event) {
-        if (!(event.getWhoClicked() instanceof Player player)) {
-            return;
-        }
-        
-        String title = event.getView().getTitle();
-        String shopTitle = org.bukkit.ChatColor.translateAlternateColorCodes('&',
-            plugin.getConfig().getString("shop.title", "&8Pet Shop"));
-        
-        if (!title.equals(shopTitle)) {
+        // Plugin menus hold their own inventory; anything else leaves after one instanceof
+        if (!(event.getInventory().getHolder(false) instanceof Menu menu)) {
             return;
         }
         
+        // Cancelled on either side of the view so shift-clicks cannot move items in
         event.setCancelled(true);
-        
-        if (event.getCurrentItem() == null) {
-            return;
-        }
-        
-        int slot = event.getSlot();
-        
-        // Check if close button was clicked
-        int inventorySize = event.getInventory().getSize();
-        if (slot == inventorySize - 1) {
-            player.closeInventory();
-            return;
-        }
-        
-        String petType = plugin.getShopGUI().getPetTypeBySlot(player, slot);
-        
-        if (petType != null) {
-            boolean success = plugin.getPurchaseManager().purchasePet(player, petType);
-            // Refresh GUI after purchase attempt
-            plugin.getServer().getScheduler().runTask(plugin, () -> {
-                plugin.getShopGUI().openShop(player);
-            });
+        if (event.getWhoClicked() instanceof Player player) {
+            menu.handleClick(player, event.getRawSlot(), event);
         }
     }
     
-    @EventHandler
-    public void onInventoryClose(InventoryCloseEvent event) {
-        if (!(event.getPlayer() instanceof Player player)) {
-            return;
-        }
-        
-        String title = event.getView().getTitle();
-        String shopTitle = org.bukkit.ChatColor.translateAlternateColorCodes('&',
-            plugin.getConfig().getString("shop.title", "&8Pet Shop"));
-        
-        if (title.equals(shopTitle)) {
-            // Clear slot mapping when shop closes
-            plugin.getShopGUI().clearPlayerMapping(player);
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getInventory().getHolder(false) instanceof Menu) {
+            event.setCancelled(true);
         }
     }
     
@@ -90,7 +65,7 @@ public class PetListener implements Listener {
         }
         
         // Check if this is a pet
-        UUID petOwner = plugin.getPetManager().getPetOwner(entity.getUniqueId());
+        UUID petOwner = plugin.getPetManager().getPetOwner(entity);
         if (petOwner == null) {
             return; // Not a pet
         }
@@ -126,8 +101,8 @@ public class PetListener implements Listener {
         // Prevent owners from hurting their own pets
         if (damagerPlayer != null && damagerPlayer.getUniqueId().equals(petOwner)) {
             event.setCancelled(true);
-            damagerPlayer.sendMessage(plugin.formatMessage("messages.cannot-hurt-own-pet",
-                "{prefix} &7You cannot hurt your own pet!"));
+            plugin.sendMessage(damagerPlayer, "messages.cannot-hurt-own-pet",
+                "{prefix} &7You cannot hurt your own pet!");
             return;
         }
         
@@ -185,7 +160,7 @@ public class PetListener implements Listener {
         LivingEntity entity = event.getEntity();
         
         // Check if this is a pet
-        UUID petOwner = plugin.getPetManager().getPetOwner(entity.getUniqueId());
+        UUID petOwner = plugin.getPetManager().getPetOwner(entity);
         if (petOwner == null) {
             return; // Not a pet
         }
@@ -194,17 +169,115 @@ public class PetListener implements Listener {
         event.setDroppedExp(0);
         event.getDrops().clear();
         
-        // The pet manager will handle death in the health monitor
-        // We don't cancel the event here to allow the health monitor to detect it
-        // But we ensure no drops are created
+        // Mark the pet as dead and tell the owner
+        plugin.getPetManager().getHealthTracker().onDeath(petOwner, entity);
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPetDamaged(EntityDamageEvent event) {
+        if (!(event.getEntity() instanceof LivingEntity entity)) {
+            return;
+        }
+        
+        UUID petOwner = plugin.getPetManager().getPetOwner(entity);
+        if (petOwner == null) {
+            return; // Not a pet
+        }
+        
+        plugin.getPetManager().getHealthTracker().onDamage(petOwner, entity, event.getFinalDamage());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPetRegainHealth(EntityRegainHealthEvent event) {
+        if (!(event.getEntity() instanceof LivingEntity entity)) {
+            return;
+        }
+        
+        UUID petOwner = plugin.getPetManager().getPetOwner(entity);
+        if (petOwner == null) {
+            return; // Not a pet
+        }
+        
+        plugin.getPetManager().getHealthTracker().onRegain(petOwner, entity, event.getAmount());
     }
     
     @EventHandler
     public void onPlayerMove(PlayerMoveEvent event) {
-        Player player = event.getPlayer();
+        // Most move events are head turns or steps within a block; skip those without any lookup
+        org.bukkit.Location from = event.getFrom();
+        org.bukkit.Location to = event.getTo();
+        if (from.getBlockX() == to.getBlockX() && from.getBlockY() == to.getBlockY()
+                && from.getBlockZ() == to.getBlockZ() && from.getWorld() == to.getWorld()) {
+            return;
+        }
         
         // Teleport pet if too far
-        plugin.getPetManager().teleportPetToPlayer(player);
+        plugin.getPetManager().handleOwnerMove(event.getPlayer(), to);
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onServerTickEnd(ServerTickEndEvent event) {
+        plugin.getPetManager().getLoadGovernor().onTickEnd(event.getTickDuration());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginEnable(PluginEnableEvent event) {
+        // A level plugin that enables after us (or is reloaded) is picked up straight away
+        if (event.getPlugin().getName().equals("LevelPlugin")) {
+            plugin.getIntegrations().rebindLevels();
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        plugin.getPetManager().handleOwnerWorldChange(event.getPlayer());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesUnload(EntitiesUnloadEvent event) {
+        // Pets left behind in an unloading chunk are suspended, not reported dead on the next tick
+        for (Entity entity : event.getEntities()) {
+            if (!(entity instanceof LivingEntity living)) {
+                continue;
+            }
+            UUID petOwner = plugin.getPetManager().getPetOwner(living);
+            if (petOwner != null) {
+                plugin.getPetManager().suspendPet(petOwner, living);
+            }
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        
+        // Load pets off the main thread so they are ready by the time the player joins
+        if (!plugin.getDataManager().prefetchPlayer(event.getUniqueId())) {
+            // Joining without pets would let new purchases overwrite the stored ones
+            event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, "Could not load your pet data, please try again shortly.");
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPreLoginResult(AsyncPlayerPreLoginEvent event) {
+        // A plugin after us may still refuse the login
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            plugin.getDataManager().discardPrefetch(event.getUniqueId());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            plugin.getDataManager().discardPrefetch(event.getPlayer().getUniqueId());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        plugin.getDataManager().handlePlayerJoin(event.getPlayer().getUniqueId());
     }
     
     @EventHandler
@@ -213,6 +286,10 @@ public class PetListener implements Listener {
         
         // Despawn pet on quit
         plugin.getPetManager().despawnPet(player.getUniqueId());
+        
+        // Write back and release the player's pets (per-player storage only)
+        plugin.getDataManager().unloadPlayer(player.getUniqueId());
+        plugin.getIntegrations().invalidate(player.getUniqueId());
     }
     
     @EventHandler(priority = EventPriority.HIGH)
@@ -247,16 +324,13 @@ public class PetListener implements Listener {
                     player.setSaturation(20);
                     player.setFireTicks(0);
                     
-                    // Teleport player to safe location (slightly above)
-                    org.bukkit.Location loc = player.getLocation();
-                    loc.setY(loc.getY() + 1);
-                    player.teleport(loc);
+                    // Move player onto the nearest safe spot (out of lava, off the void)
+                    plugin.getPetManager().getTeleporter().teleportNear(player, player.getLocation());
                     
                     // Send message
-                    String message = plugin.formatMessage("messages.cat-extra-life-used",
+                    plugin.sendMessage(player, "messages.cat-extra-life-used",
                         "{prefix}Your cat saved you! &6{remaining} &7extra lives remaining.",
                         "remaining", String.valueOf(currentLives - 1));
-                    player.sendMessage(message);
                     
                     // Play effects
                     player.getWorld().playSound(player.getLocation(), 
@@ -275,8 +349,8 @@ public class PetListener implements Listener {
         // Check if player has a fox pet
         var activePet = plugin.getPetManager().getActivePet(player.getUniqueId());
         if (activePet != null && activePet.getPetType().equalsIgnoreCase("fox")) {
-            var petConfig = plugin.getConfig().getConfigurationSection("pet-types.fox");
-            if (petConfig != null && petConfig.getBoolean("invisibility-on-sneak", true)) {
+            var petType = plugin.getSettings().getPetType("fox");
+            if (petType != null && petType.invisibilityOnSneak()) {
                 if (event.isSneaking()) {
                     // Apply invisibility
                     player.addPotionEffect(new PotionEffect(PotionEffectType.INVISIBILITY, 
@@ -0,0 +1,70 @@
+package com.playpandora.petplugin.managers;
+
+import com.playpandora.petplugin.util.IntHashSet;
+import org.bukkit.entity.Entity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reverse index from spawned pet entities to their owners.
+ * The primitive entity id set gives event handlers a constant-time "is this a pet?" check
+ * before any UUID hashing happens, which keeps damage and death events for ordinary mobs cheap.
+ */
+public class PetEntityRegistry {
+    
+    private final IntHashSet petEntityIds = new IntHashSet(64);
+    private final Map<UUID, Registration> registrations = new HashMap<>(); // Entity UUID -> Registration
+    
+    public void register(Entity entity, UUID ownerUUID) {
+        Registration previous = registrations.put(entity.getUniqueId(), new Registration(ownerUUID, entity.getEntityId()));
+        if (previous != null && previous.entityId() != entity.getEntityId()) {
+            petEntityIds.remove(previous.entityId());
+        }
+        petEntityIds.add(entity.getEntityId());
+    }
+    
+    public void unregister(UUID entityUUID) {
+        if (entityUUID == null) {
+            return;
+        }
+        
+        Registration registration = registrations.remove(entityUUID);
+        if (registration != null) {
+            petEntityIds.remove(registration.entityId());
+        }
+    }
+    
+    public boolean isPetEntity(int entityId) {
+        return petEntityIds.contains(entityId);
+    }
+    
+    /**
+     * @param entity Any entity
+     * @return The owner's UUID, or null if the entity is not a pet
+     */
+    public UUID getOwner(Entity entity) {
+        if (!petEntityIds.contains(entity.getEntityId())) {
+            return null;
+        }
+        return getOwner(entity.getUniqueId());
+    }
+    
+    public UUID getOwner(UUID entityUUID) {
+        Registration registration = registrations.get(entityUUID);
+        return registration != null ? registration.ownerUUID() : null;
+    }
+    
+    public int size() {
+        return registrations.size();
+    }
+    
+    public void clear() {
+        registrations.clear();
+        petEntityIds.clear();
+    }
+    
+    private record Registration(UUID ownerUUID, int entityId) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.playpandora.petplugin.managers;
+
+import com.playpandora.petplugin.PetPlugin;
+import com.playpandora.petplugin.models.Pet;
+import org.bukkit.entity.LivingEntity;
+
+import java.util.UUID;
+
+/**
+ * Keeps pet health in step with damage and regain events instead of polling it. A damaged pet
+ * joins the tick engine's healing set and leaves it again once back at full health, so pets at
+ * full health cost no health work per tick. The run-away threshold is checked as damage lands.
+ */
+public class PetHealthTracker {
+    
+    private final PetPlugin plugin;
+    private final PetManager petManager;
+    
+    public PetHealthTracker(PetPlugin plugin, PetManager petManager) {
+        this.plugin = plugin;
+        this.petManager = petManager;
+    }
+    
+    /**
+     * Called after damage to a pet entity went through; the entity's health is not yet reduced
+     */
+    public void onDamage(UUID ownerUUID, LivingEntity entity, double finalDamage) {
+        Pet pet = activePet(ownerUUID, entity);
+        double maxHealth = entity.getMaxHealth();
+        double health = entity.getHealth() - finalDamage;
+        if (pet == null || health <= 0) {
+            return; // Deaths arrive through onDeath
+        }
+        
+        record(ownerUUID, pet, health, maxHealth);
+        petManager.getTickEngine().setHealing(ownerUUID, true);
+        
+        if (health / maxHealth <= plugin.getSettings().runAwayHealthThreshold()) {
+            // Not from inside the damage event; the entity is removed
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (petManager.getActivePet(ownerUUID) == pet && !entity.isDead()) {
+                    petManager.makePetRunAway(ownerUUID);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Called after health regained by other means (e.g. natural regeneration) went through
+     */
+    public void onRegain(UUID ownerUUID, LivingEntity entity, double amount) {
+        Pet pet = activePet(ownerUUID, entity);
+        if (pet == null) {
+            return;
+        }
+        
+        double maxHealth = entity.getMaxHealth();
+        double health = Math.min(maxHealth, entity.getHealth() + amount);
+        record(ownerUUID, pet, health, maxHealth);
+        if (health >= maxHealth) {
+            petManager.getTickEngine().setHealing(ownerUUID, false);
+        }
+    }
+    
+    public void onDeath(UUID ownerUUID, LivingEntity entity) {
+        Pet pet = activePet(ownerUUID, entity);
+        if (pet != null) {
+            petManager.handlePetDeath(ownerUUID, pet);
+        }
+    }
+    
+    /**
+     * Applies one regeneration step to a healing pet
+     * @return Whether the pet still needs healing
+     */
+    boolean regenerate(UUID ownerUUID, Pet pet, LivingEntity entity, double amount) {
+        double maxHealth = entity.getMaxHealth();
+        double health = Math.min(maxHealth, entity.getHealth() + amount);
+        entity.setHealth(health);
+        record(ownerUUID, pet, health, maxHealth);
+        return health < maxHealth;
+    }
+    
+    /**
+     * Records an entity's health on its pet before the entity leaves the world
+     */
+    void capture(UUID ownerUUID, Pet pet, LivingEntity entity) {
+        record(ownerUUID, pet, entity.getHealth(), entity.getMaxHealth());
+    }
+    
+    private Pet activePet(UUID ownerUUID, LivingEntity entity) {
+        Pet pet = petManager.getActivePet(ownerUUID);
+        return pet != null && entity.getUniqueId().equals(pet.getEntityUUID()) ? pet : null;
+    }
+    
+    /**
+     * Update pet health in data model (will be saved on next auto-save)
+     */
+    private void record(UUID ownerUUID, Pet pet, double health, double maxHealth) {
+        pet.setCurrentHealth(health);
+        pet.setMaxHealth(maxHealth);
+        plugin.getDataManager().updatePetHealth(ownerUUID, pet);
+    }
+}
@@ -0,0 +1,203 @@
+package com.playpandora.petplugin.managers;
+
+import com.playpandora.petplugin.PetPlugin;
+import com.playpandora.petplugin.config.LoadGovernorSettings;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Backs pet processing off while the server lags. Tick durations are averaged over a window of
+ * {@code load-governor.sample-ticks}; each window can climb one level when the average reaches
+ * that level's threshold, and drop one level once it has stayed {@code recover-margin} below the
+ * current level's threshold for {@code recover-samples} windows in a row. Settings come from
+ * {@link LoadGovernorSettings}; a reload applies to the current level straight away.
+ */
+public class PetLoadGovernor {
+    
+    private static final int MAX_TRANSITIONS = 10;
+    
+    public enum Level {
+        NORMAL("all pet work runs"),
+        SLOWED("pets ticked less often"),
+        NO_HEALING("healing paused"),
+        FROZEN_AI("AI frozen on far pets"),
+        SHEDDING("pets in crowded chunks put away");
+        
+        private final String description;
+        
+        Level(String description) {
+            this.description = description;
+        }
+        
+        public String getDescription() {
+            return description;
+        }
+    }
+    
+    public record Transition(long timeMillis, Level from, Level to, double mspt) {
+    }
+    
+    private final PetPlugin plugin;
+    private final PetManager petManager;
+    private final PetTickEngine tickEngine;
+    private final PetSpatialIndex spatialIndex;
+    private LoadGovernorSettings applied; // Settings the current level was applied with
+    
+    private Level level = Level.NORMAL;
+    private double windowMillis;
+    private int windowTicks;
+    private double lastMspt;
+    private int calmSamples;
+    private final long[] ticksAtLevel = new long[Level.values().length];
+    private final long[] timesEntered = new long[Level.values().length];
+    private long shedCount;
+    private final Deque<Transition> transitions = new ArrayDeque<>();
+    
+    public PetLoadGovernor(PetPlugin plugin, PetManager petManager, PetTickEngine tickEngine, PetSpatialIndex spatialIndex) {
+        this.plugin = plugin;
+        this.petManager = petManager;
+        this.tickEngine = tickEngine;
+        this.spatialIndex = spatialIndex;
+        this.applied = plugin.getSettings().loadGovernor();
+    }
+    
+    /**
+     * Called at the end of every server tick
+     * @param tickMillis How long the tick took
+     */
+    public void onTickEnd(double tickMillis) {
+        LoadGovernorSettings settings = plugin.getSettings().loadGovernor();
+        if (settings != applied) {
+            reconfigure(settings);
+        }
+        if (!settings.enabled()) {
+            return;
+        }
+        
+        windowMillis += tickMillis;
+        if (++windowTicks < settings.sampleTicks()) {
+            return;
+        }
+        lastMspt = windowMillis / windowTicks;
+        ticksAtLevel[level.ordinal()] += windowTicks;
+        windowMillis = 0;
+        windowTicks = 0;
+        evaluate(lastMspt, settings);
+    }
+    
+    /**
+     * Picks up reloaded settings: the current level is re-applied with them, or dropped back to
+     * normal if the governor was turned off
+     */
+    private void reconfigure(LoadGovernorSettings settings) {
+        applied = settings;
+        windowMillis = 0;
+        windowTicks = 0;
+        calmSamples = 0;
+        if (!settings.enabled() && level != Level.NORMAL) {
+            setLevel(Level.NORMAL, lastMspt);
+        } else {
+            apply(level, settings);
+        }
+    }
+    
+    private void evaluate(double mspt, LoadGovernorSettings settings) {
+        List<Double> thresholds = settings.thresholds();
+        int current = level.ordinal();
+        if (current < thresholds.size() && mspt >= thresholds.get(current)) {
+            calmSamples = 0;
+            setLevel(Level.values()[current + 1], mspt);
+        } else if (current > 0 && mspt < thresholds.get(current - 1) - settings.recoverMargin()) {
+            if (++calmSamples >= settings.recoverSamples()) {
+                calmSamples = 0;
+                setLevel(Level.values()[current - 1], mspt);
+            }
+        } else {
+            calmSamples = 0;
+        }
+        
+        // Keeps clearing crowded chunks for as long as the server stays this far behind
+        if (level == Level.SHEDDING) {
+            shedCrowdedChunks(settings.shedChunkPets());
+        }
+    }
+    
+    private void setLevel(Level next, double mspt) {
+        Level previous = level;
+        level = next;
+        timesEntered[next.ordinal()]++;
+        transitions.addFirst(new Transition(System.currentTimeMillis(), previous, next, mspt));
+        if (transitions.size() > MAX_TRANSITIONS) {
+            transitions.removeLast();
+        }
+        plugin.getLogger().info(String.format("Pet load level %s -> %s at %.1f MSPT (%s)",
+            previous, next, mspt, next.getDescription()));
+        apply(next, applied);
+        // Pets put away while shedding come back on their owner's next move once the level drops
+    }
+    
+    private void apply(Level level, LoadGovernorSettings settings) {
+        tickEngine.setSlowdown(level.compareTo(Level.SLOWED) >= 0 ? settings.slowdown() : 1);
+        tickEngine.setHealingPaused(level.compareTo(Level.NO_HEALING) >= 0);
+        tickEngine.setFreezeDistance(level.compareTo(Level.FROZEN_AI) >= 0 ? settings.freezeDistance() : -1);
+    }
+    
+    private void shedCrowdedChunks(int shedChunkPets) {
+        for (UUID ownerUUID : spatialIndex.getOwnersInDenseChunks(shedChunkPets)) {
+            if (petManager.shedPet(ownerUUID)) {
+                shedCount++;
+            }
+        }
+    }
+    
+    public boolean isShedding() {
+        return level == Level.SHEDDING;
+    }
+    
+    public boolean isEnabled() {
+        return plugin.getSettings().loadGovernor().enabled();
+    }
+    
+    public Level getLevel() {
+        return level;
+    }
+    
+    public double getLastMspt() {
+        return lastMspt;
+    }
+    
+    /**
+     * @return Average MSPT that enters each level above normal
+     */
+    public double[] getThresholds() {
+        List<Double> thresholds = plugin.getSettings().loadGovernor().thresholds();
+        double[] values = new double[thresholds.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = thresholds.get(i);
+        }
+        return values;
+    }
+    
+    public long getTicksAtLevel(Level level) {
+        return ticksAtLevel[level.ordinal()];
+    }
+    
+    public long getTimesEntered(Level level) {
+        return timesEntered[level.ordinal()];
+    }
+    
+    public long getShedCount() {
+        return shedCount;
+    }
+    
+    /**
+     * @return Recent level changes, newest first
+     */
+    public List<Transition> getTransitions() {
+        return new ArrayList<>(transitions);
+    }
+}
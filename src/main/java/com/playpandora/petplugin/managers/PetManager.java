@@ -1,16 +1,15 @@
 package com.playpandora.petplugin.managers;
 
 import com.playpandora.petplugin.PetPlugin;
+import com.playpandora.petplugin.config.PetTypeDefinition;
+import com.playpandora.petplugin.config.PluginSettings;
 import com.playpandora.petplugin.models.Pet;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.attribute.Attribute;
-import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.*;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
 
@@ -19,125 +18,83 @@ public class PetManager {
     private final PetPlugin plugin;
     private final Map<UUID, Pet> activePets = new HashMap<>(); // Player UUID -> Active Pet
     private final Map<UUID, LivingEntity> petEntities = new HashMap<>(); // Pet UUID -> Entity
-    private BukkitTask healthMonitorTask;
+    private final Set<UUID> suspendedOwners = new HashSet<>(); // Owners whose active pet has no entity
+    private final PetEntityRegistry entityRegistry = new PetEntityRegistry(); // Pet entity -> Owner
+    private final PetHealthTracker healthTracker;
+    private final PetTickEngine tickEngine;
+    private final PetLoadGovernor loadGovernor;
+    private final PetSpatialIndex spatialIndex = new PetSpatialIndex();
+    private final PetTeleporter teleporter = new PetTeleporter(this::onTeleported);
     
     public PetManager(PetPlugin plugin) {
         this.plugin = plugin;
+        this.healthTracker = new PetHealthTracker(plugin, this);
+        this.tickEngine = new PetTickEngine(plugin, this, healthTracker, spatialIndex);
+        this.loadGovernor = new PetLoadGovernor(plugin, this, tickEngine, spatialIndex);
     }
     
-    public void startHealthMonitoring() {
-        healthMonitorTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                monitorPetHealth();
-                healPets();
-            }
-        }.runTaskTimer(plugin, 0L, 20L); // Every second
+    /**
+     * Starts the tick engine that follows, monitors and heals every spawned pet
+     */
+    public void startTicking() {
+        tickEngine.start();
     }
     
-    private void monitorPetHealth() {
-        double threshold = plugin.getConfig().getDouble("pets.run-away-health-threshold", 0.2);
-        
-        Iterator<Map.Entry<UUID, Pet>> iterator = activePets.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<UUID, Pet> entry = iterator.next();
-            UUID playerUUID = entry.getKey();
-            Pet pet = entry.getValue();
-            LivingEntity entity = petEntities.get(pet.getEntityUUID());
-            
-            if (entity == null || entity.isDead()) {
-                handlePetDeath(playerUUID, pet);
-                iterator.remove();
-                continue;
-            }
-            
-            // Update pet health in data model
-            pet.setCurrentHealth(entity.getHealth());
-            pet.setMaxHealth(entity.getMaxHealth());
-            plugin.getDataManager().updatePetHealth(playerUUID, pet);
-            
-            double healthPercent = entity.getHealth() / entity.getMaxHealth();
-            
-            if (healthPercent <= threshold) {
-                // Make pet run away
-                makePetRunAway(playerUUID, pet, entity);
-            }
-        }
+    public PetTickEngine getTickEngine() {
+        return tickEngine;
     }
     
-    private void healPets() {
-        double healRate = plugin.getConfig().getDouble("pets.auto-heal-rate", 0.5);
-        
-        for (Map.Entry<UUID, Pet> entry : activePets.entrySet()) {
-            UUID playerUUID = entry.getKey();
-            Pet pet = entry.getValue();
-            LivingEntity entity = petEntities.get(pet.getEntityUUID());
-            
-            if (entity != null && !entity.isDead()) {
-                double currentHealth = entity.getHealth();
-                double maxHealth = entity.getMaxHealth();
-                
-                if (currentHealth < maxHealth) {
-                    entity.setHealth(Math.min(maxHealth, currentHealth + healRate));
-                }
-                
-                // Update pet health in data model
-                pet.setCurrentHealth(entity.getHealth());
-                pet.setMaxHealth(maxHealth);
-                
-                // Mark for save (will be saved on next auto-save)
-                plugin.getDataManager().updatePetHealth(playerUUID, pet);
-            }
+    public PetHealthTracker getHealthTracker() {
+        return healthTracker;
+    }
+    
+    public PetTeleporter getTeleporter() {
+        return teleporter;
+    }
+    
+    public PetLoadGovernor getLoadGovernor() {
+        return loadGovernor;
+    }
+    
+    public PetSpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+    
+    private void onTeleported(Entity entity) {
+        UUID ownerUUID = entityRegistry.getOwner(entity);
+        if (ownerUUID != null && tickEngine.get(ownerUUID) != null) {
+            spatialIndex.update(ownerUUID, entity);
         }
     }
     
-    private void makePetRunAway(UUID playerUUID, Pet pet, LivingEntity entity) {
+    /**
+     * @return Whether the pet ran away and was despawned
+     */
+    boolean makePetRunAway(UUID playerUUID) {
         Player player = Bukkit.getPlayer(playerUUID);
         if (player == null) {
-            return;
+            return false;
         }
         
-        // Make pet run away from player
-        Location playerLoc = player.getLocation();
-        Location petLoc = entity.getLocation();
+        // The pet is despawned straight away, so it is not moved first; a teleport here would
+        // only risk loading the chunk ten blocks away for an entity that is about to vanish
+        plugin.sendMessage(player, "messages.pet-low-health", 
+            "{prefix}Your pet is low on health and has run away!");
         
-        // Calculate direction away from player
-        double dx = petLoc.getX() - playerLoc.getX();
-        double dz = petLoc.getZ() - playerLoc.getZ();
-        double distance = Math.sqrt(dx * dx + dz * dz);
-        
-        if (distance > 0) {
-            double speed = 1.5;
-            Location targetLoc = petLoc.clone().add(
-                (dx / distance) * 10,
-                0,
-                (dz / distance) * 10
-            );
-            
-            if (entity instanceof org.bukkit.entity.Sittable sittable) {
-                sittable.setSitting(false);
-            }
-            
-            // Teleport pet away
-            entity.teleport(targetLoc);
-            
-            // Send message to player
-            String message = plugin.formatMessage("messages.pet-low-health", 
-                "{prefix}Your pet is low on health and has run away!");
-            player.sendMessage(message);
-            
-            // Despawn the pet
-            despawnPet(playerUUID);
-        }
+        despawnPet(playerUUID);
+        return true;
     }
     
-    private void handlePetDeath(UUID playerUUID, Pet pet) {
+    void handlePetDeath(UUID playerUUID, Pet pet) {
+        activePets.remove(playerUUID);
+        suspendedOwners.remove(playerUUID);
+        tickEngine.remove(playerUUID);
+        
         Player player = Bukkit.getPlayer(playerUUID);
         if (player != null) {
-            String message = plugin.formatMessage("messages.pet-died",
-                "{prefix}Your pet has died! Use &6/pet revive " + pet.getDisplayName() + 
-                " &7within 6 hours to revive it for &6$50,000&7.");
-            player.sendMessage(message);
+            plugin.sendMessage(player, "messages.pet-died",
+                "{prefix}Your pet has died! Use &6/pet revive {pet_name} &7within 6 hours to revive it for &6$50,000&7.",
+                "pet_name", pet.getDisplayName());
             
             // Remove effects
             player.removePotionEffect(PotionEffectType.SPEED);
@@ -150,27 +107,45 @@ public class PetManager {
         // Remove entity
         if (pet.getEntityUUID() != null) {
             petEntities.remove(pet.getEntityUUID());
+            entityRegistry.unregister(pet.getEntityUUID());
         }
     }
     
     public boolean spawnPet(Player player, Pet pet) {
         // Check if player already has a pet spawned
         if (activePets.containsKey(player.getUniqueId())) {
-            String message = plugin.formatMessage("messages.pet-already-spawned",
+            plugin.sendMessage(player, "messages.pet-already-spawned",
                 "{prefix}You already have a pet spawned. Despawn it first with &6/pet despawn&7.");
-            player.sendMessage(message);
             return false;
         }
         
         Location spawnLoc = player.getLocation().add(2, 0, 2);
-        LivingEntity entity = (LivingEntity) player.getWorld().spawnEntity(spawnLoc, pet.getEntityType());
+        PluginSettings settings = plugin.getSettings();
+        PetTypeDefinition type = settings.getPetType(pet.getPetType());
+        LivingEntity entity = spawnEntity(player, pet, spawnLoc, type, settings);
+        activePets.put(player.getUniqueId(), pet);
+        tickEngine.add(player.getUniqueId(), pet, entity);
+        
+        // Apply special abilities
+        applyPetAbilities(pet.getPetType(), type, player);
+        
+        plugin.sendMessage(player, "messages.pet-spawned",
+            "{prefix}Your pet &6{pet_name} &7has been spawned!",
+            "pet_name", pet.getDisplayName());
+        
+        return true;
+    }
+    
+    private LivingEntity spawnEntity(Player player, Pet pet, Location location, PetTypeDefinition type, PluginSettings settings) {
+        LivingEntity entity = (LivingEntity) location.getWorld().spawnEntity(location, pet.getEntityType());
+        // Never saved with its chunk; an unloading chunk suspends the pet instead (see suspendPet)
+        entity.setPersistent(false);
         
         // Configure pet based on type
-        configurePet(entity, pet.getPetType());
+        configurePet(entity, pet.getPetType(), type, settings);
         
         // Set pet name
-        String displayName = pet.getDisplayName();
-        entity.setCustomName(org.bukkit.ChatColor.translateAlternateColorCodes('&', "&6" + displayName));
+        entity.setCustomName(org.bukkit.ChatColor.translateAlternateColorCodes('&', "&6" + pet.getDisplayName()));
         entity.setCustomNameVisible(true);
         
         // Make pet follow player
@@ -184,33 +159,151 @@ public class PetManager {
             sittable.setSitting(false);
         }
         
-        // Start following task for better pet behavior
-        startFollowingTask(entity, player);
-        
         // Store references
         pet.setEntityUUID(entity.getUniqueId());
-        activePets.put(player.getUniqueId(), pet);
         petEntities.put(entity.getUniqueId(), entity);
+        entityRegistry.register(entity, player.getUniqueId());
+        return entity;
+    }
+    
+    /**
+     * Takes a pet's entity out of the world without despawning the pet, because its chunk is
+     * unloading or its owner went to another world. Health and position are kept on the pet,
+     * which stays active (abilities included) but is not ticked until it is resumed.
+     */
+    public void suspendPet(UUID playerUUID, LivingEntity entity) {
+        Pet pet = activePets.get(playerUUID);
+        if (pet == null || !entity.getUniqueId().equals(pet.getEntityUUID())) {
+            return;
+        }
         
-        // Apply special abilities
-        applyPetAbilities(entity, pet.getPetType(), player);
-        
-        String message = plugin.formatMessage("messages.pet-spawned",
-            "{prefix}Your pet &6{pet_name} &7has been spawned!",
-            "pet_name", displayName);
-        player.sendMessage(message);
+        healthTracker.capture(playerUUID, pet, entity);
+        pet.setSuspendedLocation(entity.getLocation());
+        suspendedOwners.add(playerUUID);
+        tickEngine.remove(playerUUID);
+        petEntities.remove(pet.getEntityUUID());
+        entityRegistry.unregister(pet.getEntityUUID());
+        pet.setEntityUUID(null);
+        if (entity.isValid()) {
+            entity.remove();
+        }
+    }
+    
+    /**
+     * Puts a pet away until the load governor stops shedding; it comes back like any suspended pet
+     * @return Whether the pet was in the world
+     */
+    boolean shedPet(UUID playerUUID) {
+        PetTickEngine.Entry entry = tickEngine.get(playerUUID);
+        if (entry == null) {
+            return false;
+        }
         
+        suspendPet(playerUUID, entry.entity);
+        Player player = Bukkit.getPlayer(playerUUID);
+        if (player != null) {
+            plugin.sendMessage(player, "messages.pet-shed",
+                "{prefix}The server is busy, so your pet is resting for a moment. It will be back soon.");
+        }
         return true;
     }
     
-    private void configurePet(LivingEntity entity, String petType) {
-        ConfigurationSection petConfig = plugin.getConfig().getConfigurationSection("pet-types." + petType);
-        if (petConfig == null) {
+    /**
+     * Spawns a suspended pet again: where it was if the owner is still within the teleport
+     * distance of that spot and it is loaded, otherwise next to the owner
+     */
+    private void resumePet(Player player, Pet pet, Location ownerLocation) {
+        PluginSettings settings = plugin.getSettings();
+        SafeLocationFinder finder = teleporter.getFinder();
+        Location previous = pet.getSuspendedLocation();
+        Location spawnLoc = null;
+        if (previous.getWorld() == ownerLocation.getWorld()
+                && previous.distanceSquared(ownerLocation) <= settings.teleportDistance() * settings.teleportDistance()) {
+            spawnLoc = finder.find(previous);
+        }
+        if (spawnLoc == null) {
+            spawnLoc = finder.find(ownerLocation.clone().add(2, 0, 2));
+        }
+        if (spawnLoc == null) {
+            if (!ownerLocation.isChunkLoaded()) {
+                return; // e.g. a teleport destination; the next move tries again
+            }
+            spawnLoc = ownerLocation.clone();
+        }
+        
+        LivingEntity entity = spawnEntity(player, pet, spawnLoc, settings.getPetType(pet.getPetType()), settings);
+        entity.setHealth(Math.max(1.0, Math.min(pet.getCurrentHealth(), entity.getMaxHealth())));
+        pet.setSuspendedLocation(null);
+        suspendedOwners.remove(player.getUniqueId());
+        tickEngine.add(player.getUniqueId(), pet, entity);
+    }
+    
+    /**
+     * Brings back suspended pets whose owners are online. A move brings a pet back straight away;
+     * this catches owners who stand still while their pet's chunk reloads or the load governor
+     * stops shedding. Called from the tick engine about once a second.
+     */
+    void resumeSuspendedPets() {
+        if (suspendedOwners.isEmpty() || loadGovernor.isShedding()) {
+            return;
+        }
+        
+        // Resuming removes the owner from the set
+        for (UUID playerUUID : new ArrayList<>(suspendedOwners)) {
+            Pet pet = activePets.get(playerUUID);
+            if (pet == null || !pet.isSuspended()) {
+                suspendedOwners.remove(playerUUID);
+                continue;
+            }
+            Player player = Bukkit.getPlayer(playerUUID);
+            if (player != null) {
+                resumePet(player, pet, player.getLocation());
+            }
+        }
+    }
+    
+    /**
+     * Brings the pet along when its owner changes world
+     */
+    public void handleOwnerWorldChange(Player player) {
+        UUID playerUUID = player.getUniqueId();
+        Pet pet = activePets.get(playerUUID);
+        if (pet == null) {
+            return;
+        }
+        
+        if (!pet.isSuspended()) {
+            LivingEntity entity = petEntities.get(pet.getEntityUUID());
+            if (entity == null || entity.getWorld() == player.getWorld()) {
+                return; // Already followed along
+            }
+            suspendPet(playerUUID, entity);
+        }
+        if (!loadGovernor.isShedding()) {
+            resumePet(player, pet, player.getLocation());
+        }
+    }
+    
+    /**
+     * @return How many active pets currently have no entity in the world
+     */
+    public int getSuspendedCount() {
+        int count = 0;
+        for (Pet pet : activePets.values()) {
+            if (pet.isSuspended()) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    private void configurePet(LivingEntity entity, String petType, PetTypeDefinition type, PluginSettings settings) {
+        if (type == null) {
             return;
         }
         
         // Set max health
-        double maxHealth = petConfig.getDouble("max-health", 20.0);
+        double maxHealth = type.maxHealth();
         entity.getAttribute(Attribute.MAX_HEALTH).setBaseValue(maxHealth);
         entity.setHealth(maxHealth);
         
@@ -218,10 +311,8 @@ public class PetManager {
         switch (petType.toLowerCase()) {
             case "horse" -> {
                 if (entity instanceof Horse horse) {
-                    double speed = petConfig.getDouble("movement-speed", 0.35);
-                    double jump = petConfig.getDouble("jump-strength", 1.0);
-                    horse.getAttribute(Attribute.MOVEMENT_SPEED).setBaseValue(speed);
-                    horse.setJumpStrength(jump);
+                    horse.getAttribute(Attribute.MOVEMENT_SPEED).setBaseValue(type.movementSpeed());
+                    horse.setJumpStrength(type.jumpStrength());
                     horse.setTamed(true);
                     // Add saddle so horse is ready to ride
                     org.bukkit.inventory.ItemStack saddle = new org.bukkit.inventory.ItemStack(org.bukkit.Material.SADDLE);
@@ -230,12 +321,9 @@ public class PetManager {
             }
             case "dog" -> {
                 if (entity instanceof Wolf wolf) {
-                    double attackDamage = petConfig.getDouble("attack-damage", 8.0);
-                    double attackSpeed = petConfig.getDouble("attack-speed", 1.5);
-                    wolf.getAttribute(Attribute.ATTACK_DAMAGE).setBaseValue(attackDamage);
-                    wolf.getAttribute(Attribute.ATTACK_SPEED).setBaseValue(attackSpeed);
-                    double followRange = petConfig.getDouble("follow-range", 32.0);
-                    wolf.getAttribute(Attribute.FOLLOW_RANGE).setBaseValue(followRange);
+                    wolf.getAttribute(Attribute.ATTACK_DAMAGE).setBaseValue(type.attackDamage());
+                    wolf.getAttribute(Attribute.ATTACK_SPEED).setBaseValue(type.attackSpeed());
+                    wolf.getAttribute(Attribute.FOLLOW_RANGE).setBaseValue(type.followRange());
                     wolf.setTamed(true);
                     wolf.setAngry(false);
                 }
@@ -247,36 +335,31 @@ public class PetManager {
             }
             case "wolf" -> {
                 if (entity instanceof Wolf wolf) {
-                    double attackDamage = petConfig.getDouble("attack-damage", 6.0);
-                    double attackSpeed = petConfig.getDouble("attack-speed", 1.3);
-                    wolf.getAttribute(Attribute.ATTACK_DAMAGE).setBaseValue(attackDamage);
-                    wolf.getAttribute(Attribute.ATTACK_SPEED).setBaseValue(attackSpeed);
+                    wolf.getAttribute(Attribute.ATTACK_DAMAGE).setBaseValue(type.attackDamage());
+                    wolf.getAttribute(Attribute.ATTACK_SPEED).setBaseValue(type.attackSpeed());
                     wolf.setTamed(true);
                 }
             }
         }
         
         // Prevent damage if configured
-        if (plugin.getConfig().getBoolean("pets.prevent-damage", true)) {
+        if (settings.preventDamage()) {
             entity.setInvulnerable(true);
         }
     }
     
-    private void applyPetAbilities(LivingEntity entity, String petType, Player player) {
-        ConfigurationSection petConfig = plugin.getConfig().getConfigurationSection("pet-types." + petType);
-        if (petConfig == null) {
+    private void applyPetAbilities(String petType, PetTypeDefinition type, Player player) {
+        if (type == null) {
             return;
         }
         
         switch (petType.toLowerCase()) {
             case "cat" -> {
-                int speedLevel = petConfig.getInt("speed-boost-level", 1);
-                player.addPotionEffect(new PotionEffect(PotionEffectType.SPEED, Integer.MAX_VALUE, speedLevel - 1, true, false));
+                player.addPotionEffect(new PotionEffect(PotionEffectType.SPEED, Integer.MAX_VALUE, type.speedBoostLevel() - 1, true, false));
                 // Extra lives are handled in the death event listener
             }
             case "parrot" -> {
-                int nightVisionLevel = petConfig.getInt("night-vision-level", 1);
-                player.addPotionEffect(new PotionEffect(PotionEffectType.NIGHT_VISION, Integer.MAX_VALUE, nightVisionLevel - 1, true, false));
+                player.addPotionEffect(new PotionEffect(PotionEffectType.NIGHT_VISION, Integer.MAX_VALUE, type.nightVisionLevel() - 1, true, false));
             }
             case "fox" -> {
                 // Invisibility on sneak is handled in the player toggle sneak event
@@ -292,9 +375,9 @@ public class PetManager {
     public int getCatExtraLives(UUID playerUUID) {
         Pet pet = activePets.get(playerUUID);
         if (pet != null && pet.getPetType().equalsIgnoreCase("cat")) {
-            ConfigurationSection petConfig = plugin.getConfig().getConfigurationSection("pet-types.cat");
-            if (petConfig != null) {
-                return petConfig.getInt("extra-lives", 1);
+            PetTypeDefinition type = plugin.getSettings().getPetType("cat");
+            if (type != null) {
+                return type.extraLives();
             }
         }
         return 0;
@@ -306,7 +389,11 @@ public class PetManager {
             return;
         }
         
+        tickEngine.remove(playerUUID);
+        pet.setSuspendedLocation(null);
+        suspendedOwners.remove(playerUUID);
         LivingEntity entity = petEntities.remove(pet.getEntityUUID());
+        entityRegistry.unregister(pet.getEntityUUID());
         if (entity != null && !entity.isDead()) {
             entity.remove();
         }
@@ -345,62 +432,58 @@ public class PetManager {
      * @return The owner's UUID, or null if not found
      */
     public UUID getPetOwner(UUID entityUUID) {
-        for (Map.Entry<UUID, Pet> entry : activePets.entrySet()) {
-            Pet pet = entry.getValue();
-            if (pet.getEntityUUID() != null && pet.getEntityUUID().equals(entityUUID)) {
-                return entry.getKey(); // Return player UUID (owner)
-            }
-        }
-        return null;
+        return entityRegistry.getOwner(entityUUID);
     }
     
-    public void teleportPetToPlayer(Player player) {
-        Pet pet = activePets.get(player.getUniqueId());
-        if (pet == null) {
+    /**
+     * Get the owner UUID of an entity, rejecting non-pets by entity id before any UUID lookup
+     * @param entity Any entity
+     * @return The owner's UUID, or null if the entity is not a pet
+     */
+    public UUID getPetOwner(Entity entity) {
+        return entityRegistry.getOwner(entity);
+    }
+    
+    public boolean isPetEntity(int entityId) {
+        return entityRegistry.isPetEntity(entityId);
+    }
+    
+    /**
+     * Leash check for an owner's move. The listener only passes moves that changed block or world;
+     * beyond that, each owner is checked at most once per {@code pets.leash-check-interval-ms}.
+     * @param to Where the owner is moving to
+     */
+    public void handleOwnerMove(Player player, Location to) {
+        PetTickEngine.Entry entry = tickEngine.get(player.getUniqueId());
+        if (entry == null) {
+            // A suspended pet comes back as soon as its owner moves, unless the server is shedding load
+            Pet pet = activePets.get(player.getUniqueId());
+            if (pet != null && pet.isSuspended() && !loadGovernor.isShedding()) {
+                resumePet(player, pet, to);
+            }
             return;
         }
         
-        LivingEntity entity = petEntities.get(pet.getEntityUUID());
-        if (entity == null || entity.isDead()) {
+        PluginSettings settings = plugin.getSettings();
+        long now = System.nanoTime();
+        if (now - entry.lastLeashCheckNanos < settings.leashCheckIntervalNanos()) {
             return;
         }
+        entry.lastLeashCheckNanos = now;
         
-        double distance = entity.getLocation().distance(player.getLocation());
-        double teleportDistance = plugin.getConfig().getDouble("pets.teleport-distance", 50.0);
+        LivingEntity entity = entry.entity;
+        if (entity.isDead()) {
+            return;
+        }
         
-        if (distance > teleportDistance) {
-            Location teleportLoc = player.getLocation().add(2, 0, 2);
-            entity.teleport(teleportLoc);
+        // Where the pet was at its last tick visit or teleport, kept as plain coordinates by the
+        // spatial index, so the check reads neither the entity nor a Location
+        if (spatialIndex.isWithin(player.getUniqueId(), to, settings.teleportDistance())) {
+            return;
         }
-    }
-    
-    private void startFollowingTask(LivingEntity entity, Player player) {
-        // Task to ensure pet follows player
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (entity.isDead() || !entity.isValid()) {
-                    cancel();
-                    return;
-                }
-                
-                if (player == null || !player.isOnline()) {
-                    cancel();
-                    return;
-                }
-                
-                // Check if pet is too far
-                double distance = entity.getLocation().distance(player.getLocation());
-                if (distance > 30) {
-                    // Make pet follow
-                    if (entity instanceof Tameable tameable && tameable.isTamed()) {
-                        if (entity instanceof org.bukkit.entity.Sittable sittable) {
-                            sittable.setSitting(false);
-                        }
-                    }
-                }
-            }
-        }.runTaskTimer(plugin, 20L, 40L); // Check every 2 seconds
+        
+        // Lands beside the owner on solid ground; skipped while a previous teleport is in flight
+        teleporter.teleportNear(entity, to.clone().add(2, 0, 2));
     }
 }
 
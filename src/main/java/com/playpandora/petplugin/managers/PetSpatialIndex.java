@@ -0,0 +1,215 @@
+package com.playpandora.petplugin.managers;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Spawned pets bucketed by world and chunk, so area questions ("which pets are near here?",
+ * "how many pets are in this chunk?") only look at the chunks involved instead of every
+ * active pet. Positions are the last ones reported: the tick engine refreshes each pet on
+ * its visit and the teleporter on arrival, so they may lag up to one tick cycle behind.
+ * Main thread only.
+ */
+public class PetSpatialIndex {
+    
+    private final Map<UUID, Map<Long, List<Tracked>>> worlds = new HashMap<>(); // World UUID -> Chunk key -> Pets
+    private final Map<UUID, Tracked> byOwner = new HashMap<>(); // Player UUID -> Tracked
+    private final Location scratch = new Location(null, 0, 0, 0);
+    
+    private static final class Tracked {
+        
+        final UUID ownerUUID;
+        UUID worldId;
+        long chunkKey;
+        double x;
+        double y;
+        double z;
+        
+        Tracked(UUID ownerUUID) {
+            this.ownerUUID = ownerUUID;
+        }
+    }
+    
+    /**
+     * Records where an owner's pet is now, moving it to another chunk bucket if needed
+     */
+    public void update(UUID ownerUUID, Entity entity) {
+        Location location = entity.getLocation(scratch);
+        World world = location.getWorld();
+        if (world == null) {
+            return;
+        }
+        
+        UUID worldId = world.getUID();
+        long chunkKey = chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        Tracked tracked = byOwner.get(ownerUUID);
+        if (tracked == null) {
+            tracked = new Tracked(ownerUUID);
+            byOwner.put(ownerUUID, tracked);
+            tracked.worldId = worldId;
+            tracked.chunkKey = chunkKey;
+            cell(worldId, chunkKey).add(tracked);
+        } else if (tracked.chunkKey != chunkKey || !tracked.worldId.equals(worldId)) {
+            unlink(tracked);
+            tracked.worldId = worldId;
+            tracked.chunkKey = chunkKey;
+            cell(worldId, chunkKey).add(tracked);
+        }
+        tracked.x = location.getX();
+        tracked.y = location.getY();
+        tracked.z = location.getZ();
+    }
+    
+    public void remove(UUID ownerUUID) {
+        Tracked tracked = byOwner.remove(ownerUUID);
+        if (tracked != null) {
+            unlink(tracked);
+        }
+    }
+    
+    /**
+     * @return Owners whose pets are within {@code radius} blocks of the center, in no particular order
+     */
+    public List<UUID> getOwnersNear(Location center, double radius) {
+        List<UUID> owners = new ArrayList<>();
+        World world = center.getWorld();
+        Map<Long, List<Tracked>> chunks = world != null ? worlds.get(world.getUID()) : null;
+        if (chunks == null) {
+            return owners;
+        }
+        
+        double radiusSquared = radius * radius;
+        int minChunkX = (int) Math.floor(center.getX() - radius) >> 4;
+        int maxChunkX = (int) Math.floor(center.getX() + radius) >> 4;
+        int minChunkZ = (int) Math.floor(center.getZ() - radius) >> 4;
+        int maxChunkZ = (int) Math.floor(center.getZ() + radius) >> 4;
+        
+        // Walk whichever is smaller: the chunks in range, or the occupied chunks of this world
+        boolean scanOccupied = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1) > chunks.size();
+        if (scanOccupied) {
+            for (List<Tracked> cell : chunks.values()) {
+                collectNear(cell, center, radiusSquared, owners);
+            }
+            return owners;
+        }
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                List<Tracked> cell = chunks.get(chunkKey(chunkX, chunkZ));
+                if (cell != null) {
+                    collectNear(cell, center, radiusSquared, owners);
+                }
+            }
+        }
+        return owners;
+    }
+    
+    /**
+     * @return Whether the owner's pet, where it was last recorded, is within {@code radius} blocks
+     * of the point; false if it is not tracked or is in another world
+     */
+    public boolean isWithin(UUID ownerUUID, Location point, double radius) {
+        Tracked tracked = byOwner.get(ownerUUID);
+        World world = point.getWorld();
+        if (tracked == null || world == null || !tracked.worldId.equals(world.getUID())) {
+            return false;
+        }
+        double dx = tracked.x - point.getX();
+        double dy = tracked.y - point.getY();
+        double dz = tracked.z - point.getZ();
+        return dx * dx + dy * dy + dz * dz <= radius * radius;
+    }
+    
+    public int countInChunk(World world, int chunkX, int chunkZ) {
+        Map<Long, List<Tracked>> chunks = worlds.get(world.getUID());
+        if (chunks == null) {
+            return 0;
+        }
+        List<Tracked> cell = chunks.get(chunkKey(chunkX, chunkZ));
+        return cell != null ? cell.size() : 0;
+    }
+    
+    /**
+     * @param minPets Fewest pets a chunk must hold to be included
+     * @return Owners whose pets are in chunks holding at least {@code minPets}, most crowded chunks first
+     */
+    public List<UUID> getOwnersInDenseChunks(int minPets) {
+        List<List<Tracked>> dense = new ArrayList<>();
+        for (Map<Long, List<Tracked>> chunks : worlds.values()) {
+            for (List<Tracked> cell : chunks.values()) {
+                if (cell.size() >= minPets) {
+                    dense.add(cell);
+                }
+            }
+        }
+        dense.sort((a, b) -> Integer.compare(b.size(), a.size()));
+        
+        List<UUID> owners = new ArrayList<>();
+        for (List<Tracked> cell : dense) {
+            for (Tracked tracked : cell) {
+                owners.add(tracked.ownerUUID);
+            }
+        }
+        return owners;
+    }
+    
+    public int size() {
+        return byOwner.size();
+    }
+    
+    /**
+     * @return How many chunks hold at least one pet, over all worlds
+     */
+    public int getOccupiedChunkCount() {
+        int count = 0;
+        for (Map<Long, List<Tracked>> chunks : worlds.values()) {
+            count += chunks.size();
+        }
+        return count;
+    }
+    
+    public void clear() {
+        worlds.clear();
+        byOwner.clear();
+    }
+    
+    static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+    
+    private List<Tracked> cell(UUID worldId, long chunkKey) {
+        return worlds.computeIfAbsent(worldId, id -> new HashMap<>()).computeIfAbsent(chunkKey, key -> new ArrayList<>(2));
+    }
+    
+    private void unlink(Tracked tracked) {
+        Map<Long, List<Tracked>> chunks = worlds.get(tracked.worldId);
+        if (chunks == null) {
+            return;
+        }
+        List<Tracked> cell = chunks.get(tracked.chunkKey);
+        if (cell != null && cell.remove(tracked) && cell.isEmpty()) {
+            chunks.remove(tracked.chunkKey);
+            if (chunks.isEmpty()) {
+                worlds.remove(tracked.worldId);
+            }
+        }
+    }
+    
+    private static void collectNear(List<Tracked> cell, Location center, double radiusSquared, List<UUID> owners) {
+        for (int i = 0; i < cell.size(); i++) {
+            Tracked tracked = cell.get(i);
+            double dx = tracked.x - center.getX();
+            double dy = tracked.y - center.getY();
+            double dz = tracked.z - center.getZ();
+            if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+                owners.add(tracked.ownerUUID);
+            }
+        }
+    }
+}
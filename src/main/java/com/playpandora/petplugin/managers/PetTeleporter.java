@@ -0,0 +1,90 @@
+package com.playpandora.petplugin.managers;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Moves pets (and revived owners) with Paper's {@code teleportAsync}, landing them on a spot
+ * from {@link SafeLocationFinder}. If the destination chunk is not loaded, the chunk is
+ * requested asynchronously and the teleport finishes once it arrives, so the caller's tick
+ * never waits on chunk loading. At most one teleport per entity is in flight.
+ * Main thread only.
+ */
+public class PetTeleporter {
+    
+    private final SafeLocationFinder finder = new SafeLocationFinder();
+    private final Set<UUID> pending = new HashSet<>(); // Entity UUIDs with a teleport in flight
+    private final Consumer<Entity> arrivalListener;
+    private long deferredCount;
+    
+    /**
+     * @param arrivalListener Told about every entity that completed a teleport
+     */
+    public PetTeleporter(Consumer<Entity> arrivalListener) {
+        this.arrivalListener = arrivalListener;
+    }
+    
+    /**
+     * @param target Where to go; the entity lands on the nearest safe spot around it
+     * @return False if the entity already has a teleport in flight
+     */
+    public boolean teleportNear(Entity entity, Location target) {
+        UUID entityId = entity.getUniqueId();
+        if (!pending.add(entityId)) {
+            return false;
+        }
+        
+        World world = target.getWorld();
+        int chunkX = target.getBlockX() >> 4;
+        int chunkZ = target.getBlockZ() >> 4;
+        if (world.isChunkLoaded(chunkX, chunkZ)) {
+            teleportNow(entity, target);
+            return true;
+        }
+        
+        deferredCount++;
+        Location destination = target.clone();
+        world.getChunkAtAsync(chunkX, chunkZ).whenComplete((chunk, error) -> {
+            // Paper completes chunk futures on the main thread
+            if (error != null || !entity.isValid()) {
+                pending.remove(entityId);
+                return;
+            }
+            teleportNow(entity, destination);
+        });
+        return true;
+    }
+    
+    public boolean isPending(Entity entity) {
+        return pending.contains(entity.getUniqueId());
+    }
+    
+    public int getPendingCount() {
+        return pending.size();
+    }
+    
+    public long getDeferredCount() {
+        return deferredCount;
+    }
+    
+    public SafeLocationFinder getFinder() {
+        return finder;
+    }
+    
+    private void teleportNow(Entity entity, Location target) {
+        Location safe = finder.find(target);
+        UUID entityId = entity.getUniqueId();
+        entity.teleportAsync(safe != null ? safe : target).whenComplete((success, error) -> {
+            pending.remove(entityId);
+            if (error == null && Boolean.TRUE.equals(success)) {
+                arrivalListener.accept(entity);
+            }
+        });
+    }
+}
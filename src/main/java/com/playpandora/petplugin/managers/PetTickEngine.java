@@ -0,0 +1,314 @@
+package com.playpandora.petplugin.managers;
+
+import com.playpandora.petplugin.PetPlugin;
+import com.playpandora.petplugin.models.Pet;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Sittable;
+import org.bukkit.entity.Tameable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Drives every spawned pet from a single scheduler task. Active pets live in a flat array that is
+ * walked round-robin: each tick visits its share so that every pet comes up once per
+ * {@code pets.tick-buckets} ticks, and the scheduler cost stays the same however many pets are out.
+ * A tick stops once {@code pets.tick-budget-nanos} is used up, and the pets it did not reach are
+ * visited first on the next tick. Only pets in the healing set (see {@link PetHealthTracker})
+ * do any health work on their visit. Under load, {@link PetLoadGovernor} stretches the cycle,
+ * pauses healing and freezes the AI of pets far from their owner.
+ */
+public class PetTickEngine {
+    
+    private static final double FOLLOW_DISTANCE_SQUARED = 30.0 * 30.0;
+    private static final double TICKS_PER_SECOND = 20.0;
+    private static final int RESUME_INTERVAL_TICKS = 20;
+    
+    private final PetPlugin plugin;
+    private final PetManager petManager;
+    private final PetHealthTracker healthTracker;
+    private final PetSpatialIndex spatialIndex;
+    private final int buckets;
+    private final TickBudget budget;
+    private final Map<UUID, Entry> byOwner = new HashMap<>(); // Player UUID -> Entry
+    private Entry[] entries = new Entry[16];
+    private int size;
+    private int healing;
+    private int frozen;
+    private int slowdown = 1;              // Cycle length multiplier set by the load governor
+    private boolean healingPaused;
+    private double freezeDistanceSquared = -1; // Negative while no pets are to be frozen
+    private int cursor; // Next pet to visit
+    private int owed;   // Visits due but not yet made, carried over when the budget runs out
+    private long currentTick;
+    private BukkitTask task;
+    
+    static final class Entry {
+        
+        final UUID ownerUUID;
+        final Pet pet;
+        final LivingEntity entity;
+        int index;
+        long lastVisitTick;
+        long lastLeashCheckNanos;
+        boolean healing;
+        boolean frozen; // AI turned off by the load governor
+        
+        Entry(UUID ownerUUID, Pet pet, LivingEntity entity) {
+            this.ownerUUID = ownerUUID;
+            this.pet = pet;
+            this.entity = entity;
+        }
+    }
+    
+    public PetTickEngine(PetPlugin plugin, PetManager petManager, PetHealthTracker healthTracker, PetSpatialIndex spatialIndex) {
+        this.plugin = plugin;
+        this.petManager = petManager;
+        this.healthTracker = healthTracker;
+        this.spatialIndex = spatialIndex;
+        this.buckets = plugin.getSettings().tickBuckets();
+        this.budget = new TickBudget(plugin.getSettings().tickBudgetNanos());
+    }
+    
+    public void start() {
+        if (task == null) {
+            task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+    
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+    
+    public void add(UUID ownerUUID, Pet pet, LivingEntity entity) {
+        remove(ownerUUID);
+        
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        Entry entry = new Entry(ownerUUID, pet, entity);
+        entry.index = size;
+        entry.lastVisitTick = currentTick;
+        entry.lastLeashCheckNanos = System.nanoTime();
+        entries[size++] = entry;
+        byOwner.put(ownerUUID, entry);
+        spatialIndex.update(ownerUUID, entity);
+        setHealing(ownerUUID, entity.getHealth() < entity.getMaxHealth());
+    }
+    
+    /**
+     * @return The spawned pet of a player, or null
+     */
+    Entry get(UUID ownerUUID) {
+        return byOwner.get(ownerUUID);
+    }
+    
+    /**
+     * Drops a pet straight away; the last pet takes over its slot
+     */
+    public void remove(UUID ownerUUID) {
+        Entry entry = byOwner.remove(ownerUUID);
+        if (entry == null) {
+            return;
+        }
+        spatialIndex.remove(ownerUUID);
+        if (entry.healing) {
+            healing--;
+        }
+        if (entry.frozen) {
+            unfreeze(entry);
+        }
+        
+        int last = --size;
+        if (entry.index != last) {
+            Entry moved = entries[last];
+            moved.index = entry.index;
+            entries[entry.index] = moved;
+        }
+        entries[last] = null;
+    }
+    
+    /**
+     * Adds a pet to or drops it from the healing set
+     */
+    public void setHealing(UUID ownerUUID, boolean needsHealing) {
+        Entry entry = byOwner.get(ownerUUID);
+        if (entry == null || entry.healing == needsHealing) {
+            return;
+        }
+        
+        entry.healing = needsHealing;
+        healing += needsHealing ? 1 : -1;
+    }
+    
+    /**
+     * @param slowdown Factor the tick cycle is stretched by; 1 for the configured cycle
+     */
+    public void setSlowdown(int slowdown) {
+        this.slowdown = Math.max(1, slowdown);
+    }
+    
+    public void setHealingPaused(boolean healingPaused) {
+        this.healingPaused = healingPaused;
+    }
+    
+    /**
+     * @param distance Pets further than this from their owner get their AI turned off on their
+     *                 next visit; negative turns every frozen pet back on straight away
+     */
+    public void setFreezeDistance(double distance) {
+        if (distance >= 0) {
+            freezeDistanceSquared = distance * distance;
+            return;
+        }
+        
+        freezeDistanceSquared = -1;
+        for (int i = 0; i < size && frozen > 0; i++) {
+            if (entries[i].frozen) {
+                unfreeze(entries[i]);
+            }
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public int getFrozenCount() {
+        return frozen;
+    }
+    
+    public int getSlowdown() {
+        return slowdown;
+    }
+    
+    public boolean isHealingPaused() {
+        return healingPaused;
+    }
+    
+    public int getHealingCount() {
+        return healing;
+    }
+    
+    public int getBucketCount() {
+        return buckets;
+    }
+    
+    public TickBudget getBudget() {
+        return budget;
+    }
+    
+    private void tick() {
+        currentTick++;
+        if (currentTick % RESUME_INTERVAL_TICKS == 0) {
+            // Suspended pets are not in the cycle, so they are checked separately
+            petManager.resumeSuspendedPets();
+        }
+        if (size == 0) {
+            owed = 0;
+            return;
+        }
+        
+        budget.start();
+        // Settings are read once per tick rather than once per pet
+        double healRate = plugin.getSettings().autoHealRate();
+        
+        // Never more than one visit per pet per tick, however far behind the budget left us
+        int cycle = buckets * slowdown;
+        owed = Math.min(size, owed + (size + cycle - 1) / cycle);
+        int processed = 0;
+        while (owed > 0 && size > 0) {
+            if (processed > 0 && budget.isExhausted()) {
+                break;
+            }
+            if (cursor >= size) {
+                cursor = 0;
+            }
+            
+            Entry entry = entries[cursor];
+            tickPet(entry, healRate);
+            // If it was removed, the pet swapped into its slot is next
+            if (entries[cursor] == entry) {
+                cursor++;
+            }
+            owed--;
+            processed++;
+        }
+        owed = Math.min(owed, size); // Pets removed this tick are no longer owed a visit
+        budget.finish(processed, owed);
+    }
+    
+    private void tickPet(Entry entry, double healRate) {
+        LivingEntity entity = entry.entity;
+        if (entity.isDead()) {
+            if (entity.getHealth() > 0) {
+                // Unloaded or removed rather than killed; the unload event normally suspends it first
+                petManager.suspendPet(entry.ownerUUID, entity);
+                return;
+            }
+            // Normally handled by the death event already; this catches deaths it did not report
+            petManager.handlePetDeath(entry.ownerUUID, entry.pet);
+            return;
+        }
+        
+        Player player = Bukkit.getPlayer(entry.ownerUUID);
+        if (entity.isValid()) {
+            spatialIndex.update(entry.ownerUUID, entity);
+            if (player != null) {
+                follow(entry, entity, player);
+            }
+        }
+        
+        // Heal for the time since the last visit, which stretches when ticks run over budget
+        long elapsedTicks = currentTick - entry.lastVisitTick;
+        entry.lastVisitTick = currentTick;
+        if (entry.healing && healRate > 0 && !healingPaused) {
+            setHealing(entry.ownerUUID, healthTracker.regenerate(entry.ownerUUID, entry.pet, entity,
+                healRate * elapsedTicks / TICKS_PER_SECOND));
+        }
+    }
+    
+    private void follow(Entry entry, LivingEntity entity, Player player) {
+        double distanceSquared = entity.getWorld() == player.getWorld()
+            ? entity.getLocation().distanceSquared(player.getLocation())
+            : Double.POSITIVE_INFINITY;
+        
+        // Far pets stand still while the server is under load; the leash still brings them back
+        boolean freeze = freezeDistanceSquared >= 0 && distanceSquared > freezeDistanceSquared;
+        if (freeze != entry.frozen) {
+            if (freeze) {
+                entity.setAI(false);
+                entry.frozen = true;
+                frozen++;
+            } else {
+                unfreeze(entry);
+            }
+        }
+        if (freeze || distanceSquared == Double.POSITIVE_INFINITY) {
+            return;
+        }
+        
+        // Stand up pets that fell too far behind so they follow again
+        if (distanceSquared > FOLLOW_DISTANCE_SQUARED
+                && entity instanceof Tameable tameable && tameable.isTamed()
+                && entity instanceof Sittable sittable) {
+            sittable.setSitting(false);
+        }
+    }
+    
+    private void unfreeze(Entry entry) {
+        if (entry.entity.isValid()) {
+            entry.entity.setAI(true);
+        }
+        entry.frozen = false;
+        frozen--;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,176 @@
+package com.playpandora.petplugin.managers;
+
+import com.playpandora.petplugin.PetPlugin;
+import com.playpandora.petplugin.config.PluginSettings;
+import com.playpandora.petplugin.models.Pet;
+import com.playpandora.petplugin.util.TimingWheel;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+
+/**
+ * Tracks revive windows of resident dead pets on a timing wheel. Owners get reminders before a
+ * window closes, and pets whose window has closed are purged a bounded number per tick.
+ */
+public class ReviveManager {
+    
+    private static final long WHEEL_TICK_MILLIS = 1000L;
+    
+    private final PetPlugin plugin;
+    private final long windowMillis;
+    private final long[] reminderOffsets; // Millis before the deadline, largest first
+    private final int purgeBatchSize;
+    private final TimingWheel<Tracked> wheel = new TimingWheel<>(WHEEL_TICK_MILLIS, System.currentTimeMillis());
+    private final Map<UUID, TimingWheel.Timer<Tracked>> timers = new HashMap<>(); // Pet ID -> Next event
+    private final ArrayDeque<Tracked> due = new ArrayDeque<>(); // Fired, waiting for a purge slot
+    private BukkitTask tickTask;
+    private long purged;
+    
+    private record Tracked(UUID ownerUUID, Pet pet) {
+    }
+    
+    public ReviveManager(PetPlugin plugin) {
+        this.plugin = plugin;
+        PluginSettings settings = plugin.getSettings();
+        this.windowMillis = settings.reviveWindowMillis();
+        this.purgeBatchSize = settings.revivePurgeBatchSize();
+        this.reminderOffsets = settings.reviveReminderMinutes().stream()
+            .mapToLong(m -> m * 60_000L)
+            .toArray();
+    }
+    
+    public void start() {
+        tickTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+    
+    public void stop() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+    }
+    
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+    
+    /**
+     * @return Milliseconds left to revive a dead pet (negative once the window has closed)
+     */
+    public long getRemainingMillis(Pet pet, long now) {
+        return pet.getDeathTimestamp() + windowMillis - now;
+    }
+    
+    public boolean canRevive(Pet pet, long now) {
+        return pet.isDead() && getRemainingMillis(pet, now) > 0;
+    }
+    
+    public int getTrackedCount() {
+        return timers.size();
+    }
+    
+    public long getPurgedCount() {
+        return purged;
+    }
+    
+    /**
+     * Starts (or restarts) tracking a dead pet's revive window. Called whenever a dead pet becomes resident.
+     */
+    public void track(UUID ownerUUID, Pet pet) {
+        untrack(pet);
+        if (!pet.isDead()) {
+            return;
+        }
+        
+        long now = System.currentTimeMillis();
+        timers.put(pet.getPetId(), wheel.schedule(new Tracked(ownerUUID, pet), nextEventAt(pet, now)));
+    }
+    
+    /**
+     * Stops tracking a pet that was revived, released or unloaded
+     */
+    public void untrack(Pet pet) {
+        TimingWheel.Timer<Tracked> timer = timers.remove(pet.getPetId());
+        if (timer != null) {
+            wheel.cancel(timer);
+        }
+    }
+    
+    /**
+     * @return Time of the next reminder still ahead, or the deadline itself
+     */
+    private long nextEventAt(Pet pet, long now) {
+        long deadline = pet.getDeathTimestamp() + windowMillis;
+        for (long offset : reminderOffsets) {
+            if (deadline - offset > now) {
+                return deadline - offset;
+            }
+        }
+        return deadline;
+    }
+    
+    private void tick() {
+        long now = System.currentTimeMillis();
+        wheel.advance(now, due::add);
+        
+        // Many windows can close at once (e.g. the first start after a long downtime); spread them out
+        for (int handled = 0; handled < purgeBatchSize && !due.isEmpty(); handled++) {
+            Tracked tracked = due.poll();
+            TimingWheel.Timer<Tracked> timer = timers.get(tracked.pet().getPetId());
+            if (timer == null || timer.isPending()) {
+                continue; // Untracked or re-tracked after it fired
+            }
+            handle(tracked, now);
+        }
+    }
+    
+    private void handle(Tracked tracked, long now) {
+        UUID ownerUUID = tracked.ownerUUID();
+        Pet pet = tracked.pet();
+        timers.remove(pet.getPetId());
+        if (!pet.isDead()) {
+            return;
+        }
+        
+        Player owner = plugin.getServer().getPlayer(ownerUUID);
+        long remaining = getRemainingMillis(pet, now);
+        if (remaining <= 0) {
+            if (plugin.getDataManager().expireDeadPet(ownerUUID, pet)) {
+                purged++;
+                if (owner != null) {
+                    plugin.sendMessage(owner, "messages.revive-window-closed",
+                        "{prefix}&6{pet_name} &7can no longer be revived.",
+                        "pet_name", pet.getDisplayName());
+                }
+            }
+            return;
+        }
+        
+        if (owner != null) {
+            plugin.sendMessage(owner, "messages.revive-window-closing",
+                "{prefix}&6{pet_name} &7can only be revived for &6{time} &7more. Use &6/pet revive {pet_name}&7.",
+                "pet_name", pet.getDisplayName(),
+                "time", formatDuration(remaining));
+        }
+        track(ownerUUID, pet);
+    }
+    
+    /**
+     * @return Window length for messages, e.g. "6" or "1.5"
+     */
+    public static String formatHours(long millis) {
+        double hours = millis / 3_600_000.0;
+        return hours == Math.rint(hours) ? String.valueOf((long) hours) : String.format("%.1f", hours);
+    }
+    
+    /**
+     * @return e.g. "5h 12m", or "3m" under an hour
+     */
+    public static String formatDuration(long millis) {
+        long totalMinutes = Math.max(0L, (millis + 59_999L) / 60_000L);
+        long hours = totalMinutes / 60;
+        long minutes = totalMinutes % 60;
+        return hours > 0 ? hours + "h " + minutes + "m" : minutes + "m";
+    }
+}
@@ -0,0 +1,121 @@
+package com.playpandora.petplugin.managers;
+
+import org.bukkit.HeightMap;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Finds a spot near a target where an entity can stand: solid ground and two passable, dry
+ * blocks above it. Searches around the target's own height first, so owners in caves keep
+ * their pets close, and falls back to the surface heightmap. Never loads chunks.
+ * Recent results are cached per chunk section and re-checked before reuse.
+ * Main thread only.
+ */
+public class SafeLocationFinder {
+    
+    private static final int[][] OFFSETS = {{0, 0}, {1, 0}, {0, 1}, {-1, 0}, {0, -1}, {2, 2}, {-2, 2}, {2, -2}, {-2, -2}};
+    private static final int[] VERTICAL_STEPS = {0, 1, -1, 2, -2, 3, -3, 4, -4};
+    private static final int MAX_REUSE_DISTANCE_SQUARED = 4 * 4;
+    private static final long CACHE_TTL_NANOS = 5_000_000_000L;
+    private static final int CACHE_SIZE = 1024;
+    
+    private final Map<SectionKey, Spot> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<SectionKey, Spot> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    private long hits;
+    private long misses;
+    
+    private record SectionKey(UUID worldId, int x, int y, int z) {
+    }
+    
+    private record Spot(int x, int y, int z, long foundAt) {
+    }
+    
+    /**
+     * @return A safe location near the target, the target itself if there is none nearby,
+     *         or null if the target's chunk is not loaded
+     */
+    public Location find(Location target) {
+        World world = target.getWorld();
+        int x = target.getBlockX();
+        int y = target.getBlockY();
+        int z = target.getBlockZ();
+        if (world == null || !world.isChunkLoaded(x >> 4, z >> 4)) {
+            return null;
+        }
+        
+        long now = System.nanoTime();
+        SectionKey key = new SectionKey(world.getUID(), x >> 4, y >> 4, z >> 4);
+        Spot spot = cache.get(key);
+        if (spot != null && now - spot.foundAt() < CACHE_TTL_NANOS && isNear(spot, x, z) && isSafe(world, spot.x(), spot.y(), spot.z())) {
+            hits++;
+            return toLocation(world, spot, target);
+        }
+        
+        misses++;
+        spot = search(world, x, y, z, now);
+        if (spot == null) {
+            return target.clone();
+        }
+        cache.put(key, spot);
+        return toLocation(world, spot, target);
+    }
+    
+    public long getHitCount() {
+        return hits;
+    }
+    
+    public long getMissCount() {
+        return misses;
+    }
+    
+    private Spot search(World world, int x, int y, int z, long now) {
+        for (int[] offset : OFFSETS) {
+            int cx = x + offset[0];
+            int cz = z + offset[1];
+            if (!world.isChunkLoaded(cx >> 4, cz >> 4)) {
+                continue;
+            }
+            for (int step : VERTICAL_STEPS) {
+                if (isSafe(world, cx, y + step, cz)) {
+                    return new Spot(cx, y + step, cz, now);
+                }
+            }
+        }
+        
+        // Nothing at the target's height (e.g. over the void or inside a wall); try the surface
+        int surface = world.getHighestBlockYAt(x, z, HeightMap.MOTION_BLOCKING_NO_LEAVES) + 1;
+        return isSafe(world, x, surface, z) ? new Spot(x, surface, z, now) : null;
+    }
+    
+    private static boolean isSafe(World world, int x, int y, int z) {
+        if (y - 1 < world.getMinHeight() || y + 1 >= world.getMaxHeight()) {
+            return false;
+        }
+        
+        Block ground = world.getBlockAt(x, y - 1, z);
+        Block feet = world.getBlockAt(x, y, z);
+        Block head = world.getBlockAt(x, y + 1, z);
+        return ground.getType().isSolid()
+            && feet.isPassable() && !feet.isLiquid()
+            && head.isPassable() && !head.isLiquid();
+    }
+    
+    private static boolean isNear(Spot spot, int x, int z) {
+        int dx = spot.x() - x;
+        int dz = spot.z() - z;
+        return dx * dx + dz * dz <= MAX_REUSE_DISTANCE_SQUARED;
+    }
+    
+    private static Location toLocation(World world, Spot spot, Location target) {
+        return new Location(world, spot.x() + 0.5, spot.y(), spot.z() + 0.5, target.getYaw(), target.getPitch());
+    }
+}
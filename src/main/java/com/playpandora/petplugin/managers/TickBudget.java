@@ -0,0 +1,89 @@
+package com.playpandora.petplugin.managers;
+
+/**
+ * Time budget for one tick of main-thread pet work, plus timing counters across ticks.
+ * Not thread-safe; only used from the tick that owns it.
+ */
+public class TickBudget {
+    
+    private final long budgetNanos; // 0 or less means unlimited
+    private long startNanos;
+    private long ticks;
+    private long totalNanos;
+    private long maxNanos;
+    private long lastNanos;
+    private long processed;
+    private int lastProcessed;
+    private int lastDeferred;
+    private long exceeded;
+    
+    public TickBudget(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+    
+    public void start() {
+        startNanos = System.nanoTime();
+    }
+    
+    public boolean isExhausted() {
+        return budgetNanos > 0 && System.nanoTime() - startNanos >= budgetNanos;
+    }
+    
+    /**
+     * Records the tick that {@link #start} began
+     * @param count Work items handled this tick
+     * @param deferred Work items left over for the next tick because the budget ran out
+     */
+    public void finish(int count, int deferred) {
+        long nanos = System.nanoTime() - startNanos;
+        ticks++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+        lastNanos = nanos;
+        processed += count;
+        lastProcessed = count;
+        lastDeferred = deferred;
+        if (deferred > 0) {
+            exceeded++;
+        }
+    }
+    
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+    
+    public long getTickCount() {
+        return ticks;
+    }
+    
+    public double getAverageMillis() {
+        return ticks == 0 ? 0.0 : totalNanos / (double) ticks / 1_000_000.0;
+    }
+    
+    public double getMaxMillis() {
+        return maxNanos / 1_000_000.0;
+    }
+    
+    public double getLastMillis() {
+        return lastNanos / 1_000_000.0;
+    }
+    
+    public long getProcessedCount() {
+        return processed;
+    }
+    
+    public int getLastProcessed() {
+        return lastProcessed;
+    }
+    
+    public int getLastDeferred() {
+        return lastDeferred;
+    }
+    
+    /**
+     * @return Ticks that ran out of budget before their share of work was done
+     */
+    public long getExceededCount() {
+        return exceeded;
+    }
+}
@@ -0,0 +1,271 @@
+package com.playpandora.petplugin.managers;
+
+import com.playpandora.petplugin.PetPlugin;
+import com.playpandora.petplugin.integration.IntegrationBridge;
+import com.playpandora.petplugin.storage.TransactionLedger;
+import org.bukkit.entity.Player;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Runs paid actions (purchases, revives) as transactions. A player has at most one in flight.
+ * The economy is charged off the main thread when the provider allows it, and the result comes
+ * back to the main thread exactly once; there the action is committed, and if committing fails
+ * or the player has left by then, the payment is refunded. Each transaction is keyed by kind,
+ * player and target: a repeat of a key that completed within
+ * {@code transactions.idempotency-window-ms} (e.g. a double-click) is ignored instead of
+ * charging again, and the player is told so. Every finished transaction is appended to the
+ * {@link TransactionLedger}, if there is one, with the amount the player was charged.
+ */
+public class TransactionManager {
+    
+    /**
+     * What a transaction pays for. The code is what the ledger stores, so it must never change.
+     */
+    public enum Kind {
+        PURCHASE(0),
+        REVIVE(1);
+        
+        private final int code;
+        
+        Kind(int code) {
+            this.code = code;
+        }
+        
+        public int getCode() {
+            return code;
+        }
+        
+        /**
+         * @return The kind stored under a ledger code, or null if there is none
+         */
+        public static Kind fromCode(int code) {
+            for (Kind kind : values()) {
+                if (kind.code == code) {
+                    return kind;
+                }
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * How a transaction ended. The code is what the ledger stores, so it must never change.
+     */
+    public enum Outcome {
+        COMPLETED(0),
+        INSUFFICIENT_FUNDS(1),
+        PAYMENT_FAILED(2),
+        REFUNDED(3);
+        
+        private final int code;
+        
+        Outcome(int code) {
+            this.code = code;
+        }
+        
+        public int getCode() {
+            return code;
+        }
+        
+        /**
+         * @return The outcome stored under a ledger code, or null if there is none
+         */
+        public static Outcome fromCode(int code) {
+            for (Outcome outcome : values()) {
+                if (outcome.code == code) {
+                    return outcome;
+                }
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * @param target    What is bought, e.g. the pet type or the pet's id; part of the idempotency key
+     * @param petType   Pet type involved, as recorded in the ledger
+     * @param price     Amount charged; 0 for free actions, which skip the economy
+     * @param commit    Persists the action on the main thread after payment; throwing refunds the payment
+     * @param onSuccess Run on the main thread after a successful commit, e.g. to tell the player
+     */
+    public record Transaction(Kind kind, String target, String petType, double price, Runnable commit, Runnable onSuccess) {
+    }
+    
+    private record Charge(Outcome outcome, double missing) {
+    }
+    
+    private final PetPlugin plugin;
+    private final TransactionLedger ledger; // Null if disabled
+    private final Set<UUID> inFlight = new HashSet<>(); // Main thread only
+    private final Map<String, Long> recentlyCompleted = new LinkedHashMap<>(); // Key -> Completion nanos, oldest first
+    private final TransactionMetrics metrics = new TransactionMetrics();
+    
+    /**
+     * @param ledger Where finished transactions are recorded, or null to not record them
+     */
+    public TransactionManager(PetPlugin plugin, TransactionLedger ledger) {
+        this.plugin = plugin;
+        this.ledger = ledger;
+    }
+    
+    /**
+     * Starts a transaction. Must be called on the main thread.
+     * @param onSettled Run on the main thread once the transaction has finished either way; may be null
+     * @return False if it was not started because another is in flight or it just completed
+     */
+    public boolean submit(Player player, Transaction transaction, Runnable onSettled) {
+        UUID uuid = player.getUniqueId();
+        String key = transaction.kind() + ":" + uuid + ":" + transaction.target().toLowerCase(Locale.ROOT);
+        long started = System.nanoTime();
+        
+        expireCompleted(started);
+        if (recentlyCompleted.containsKey(key)) {
+            metrics.recordDuplicate();
+            plugin.sendMessage(player, "messages.transaction-duplicate",
+                "{prefix}That was already done a moment ago, so it was not repeated.");
+            return false;
+        }
+        if (!inFlight.add(uuid)) {
+            metrics.recordBusy();
+            plugin.sendMessage(player, "messages.transaction-pending",
+                "{prefix}Your previous purchase is still being processed, please wait a moment.");
+            return false;
+        }
+        
+        IntegrationBridge integrations = plugin.getIntegrations();
+        Runnable charge = () -> {
+            Charge result;
+            try {
+                result = charge(integrations, player, transaction.price());
+            } catch (RuntimeException e) {
+                // The withdrawal may or may not have gone through, so leave a trace to reconcile against
+                plugin.getLogger().severe(String.format("Economy error while charging %s (%s) $%.2f for %s of %s: %s",
+                    player.getName(), uuid, transaction.price(), transaction.kind(), transaction.target(), e));
+                result = new Charge(Outcome.PAYMENT_FAILED, 0);
+            }
+            Charge settled = result;
+            plugin.getServer().getScheduler().runTask(plugin,
+                () -> complete(player, key, transaction, settled, started, onSettled));
+        };
+        if (transaction.price() > 0 && integrations.isAsyncSafe()) {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, charge);
+        } else {
+            charge.run();
+        }
+        return true;
+    }
+    
+    public TransactionMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * @return The ledger, or null if transactions are not recorded
+     */
+    public TransactionLedger getLedger() {
+        return ledger;
+    }
+    
+    private static Charge charge(IntegrationBridge integrations, Player player, double price) {
+        if (price <= 0) {
+            return new Charge(Outcome.COMPLETED, 0);
+        }
+        
+        // Always ask the economy; a cached balance could be stale the other way
+        double balance = integrations.refreshBalance(player);
+        if (balance < price) {
+            return new Charge(Outcome.INSUFFICIENT_FUNDS, price - balance);
+        }
+        return new Charge(integrations.withdraw(player, price) ? Outcome.COMPLETED : Outcome.PAYMENT_FAILED, 0);
+    }
+    
+    private void complete(Player player, String key, Transaction transaction, Charge charge, long started, Runnable onSettled) {
+        Outcome outcome = charge.outcome();
+        try {
+            switch (outcome) {
+                case INSUFFICIENT_FUNDS -> plugin.sendMessage(player, "messages.insufficient-funds",
+                    "{prefix}Insufficient funds! You need &6${amount} &7more.",
+                    "amount", String.format("%.2f", charge.missing()));
+                case PAYMENT_FAILED -> plugin.sendMessage(player, "messages.purchase-failed",
+                    "{prefix}Failed to process payment! Please try again.");
+                default -> outcome = commit(player, key, transaction);
+            }
+        } finally {
+            inFlight.remove(player.getUniqueId());
+            metrics.recordCompleted(outcome, System.nanoTime() - started);
+            if (ledger != null) {
+                // What the player ended up paying: nothing unless the payment was taken and kept
+                double charged = outcome == Outcome.COMPLETED ? transaction.price() : 0;
+                ledger.append(player.getUniqueId(), transaction.kind(), transaction.petType(), charged, outcome);
+            }
+        }
+        
+        if (onSettled != null) {
+            onSettled.run();
+        }
+    }
+    
+    private Outcome commit(Player player, String key, Transaction transaction) {
+        // Per-player storage only holds pets of online players; committing to anything else would
+        // start them from an empty list and overwrite what is stored
+        if (!player.isOnline() || !plugin.getDataManager().isResident(player.getUniqueId())) {
+            plugin.getLogger().warning("Refunding " + transaction.kind() + " of " + transaction.target()
+                + " for " + player.getName() + ": they left before it completed");
+            refund(player, transaction);
+            return Outcome.REFUNDED;
+        }
+        
+        try {
+            transaction.commit().run();
+        } catch (RuntimeException e) {
+            plugin.getLogger().severe("Could not complete " + transaction.kind() + " of " + transaction.target()
+                + " for " + player.getName() + ": " + e.getMessage());
+            refund(player, transaction);
+            return Outcome.REFUNDED;
+        }
+        
+        recentlyCompleted.put(key, System.nanoTime());
+        transaction.onSuccess().run();
+        return Outcome.COMPLETED;
+    }
+    
+    private void refund(Player player, Transaction transaction) {
+        double amount = transaction.price();
+        if (amount <= 0) {
+            plugin.sendMessage(player, "messages.purchase-failed",
+                "{prefix}Failed to process payment! Please try again.");
+            return;
+        }
+        
+        IntegrationBridge integrations = plugin.getIntegrations();
+        Runnable deposit = () -> {
+            if (!integrations.deposit(player, amount)) {
+                plugin.getLogger().severe(String.format("REFUND FAILED: %s (%s) is owed $%.2f for %s of %s",
+                    player.getName(), player.getUniqueId(), amount, transaction.kind(), transaction.target()));
+            }
+        };
+        if (integrations.isAsyncSafe()) {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, deposit);
+        } else {
+            deposit.run();
+        }
+        
+        plugin.sendMessage(player, "messages.transaction-refunded",
+            "{prefix}Something went wrong, so you have been refunded &6${amount}&7.",
+            "amount", String.format("%.2f", amount));
+    }
+    
+    private void expireCompleted(long now) {
+        long idempotencyWindowNanos = plugin.getSettings().idempotencyWindowNanos();
+        Iterator<Long> completedAt = recentlyCompleted.values().iterator();
+        while (completedAt.hasNext() && now - completedAt.next() >= idempotencyWindowNanos) {
+            completedAt.remove();
+        }
+    }
+}
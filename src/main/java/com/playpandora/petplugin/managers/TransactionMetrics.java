@@ -0,0 +1,105 @@
+package com.playpandora.petplugin.managers;
+
+import java.util.Arrays;
+
+/**
+ * Outcome counters and latency percentiles for purchase and revive transactions, measured from
+ * submission to completion on the main thread. Percentiles and throughput cover the most recent
+ * {@value #WINDOW} transactions. Main thread only.
+ */
+public class TransactionMetrics {
+    
+    private static final int WINDOW = 1024;
+    private static final long MINUTE_NANOS = 60_000_000_000L;
+    
+    private final long[] latencies = new long[WINDOW];
+    private final long[] completedAt = new long[WINDOW];
+    private int recorded; // Up to WINDOW
+    private int next;
+    private long completed;
+    private long insufficient;
+    private long failed;
+    private long refunded;
+    private long busy;
+    private long duplicates;
+    
+    void recordCompleted(TransactionManager.Outcome outcome, long latencyNanos) {
+        switch (outcome) {
+            case COMPLETED -> completed++;
+            case INSUFFICIENT_FUNDS -> insufficient++;
+            case PAYMENT_FAILED -> failed++;
+            case REFUNDED -> refunded++;
+        }
+        latencies[next] = latencyNanos;
+        completedAt[next] = System.nanoTime();
+        next = (next + 1) % WINDOW;
+        recorded = Math.min(recorded + 1, WINDOW);
+    }
+    
+    void recordBusy() {
+        busy++;
+    }
+    
+    void recordDuplicate() {
+        duplicates++;
+    }
+    
+    public long getCompletedCount() {
+        return completed;
+    }
+    
+    public long getInsufficientCount() {
+        return insufficient;
+    }
+    
+    public long getFailedCount() {
+        return failed;
+    }
+    
+    public long getRefundedCount() {
+        return refunded;
+    }
+    
+    /**
+     * @return Submissions turned away because the player had a transaction in flight
+     */
+    public long getBusyCount() {
+        return busy;
+    }
+    
+    /**
+     * @return Repeats of a transaction that had just completed, ignored
+     */
+    public long getDuplicateCount() {
+        return duplicates;
+    }
+    
+    /**
+     * @return Transactions finished in the last minute
+     */
+    public int getPerMinute() {
+        long now = System.nanoTime();
+        int count = 0;
+        for (int i = 0; i < recorded; i++) {
+            if (now - completedAt[i] <= MINUTE_NANOS) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * @param percentile Between 0 and 100
+     * @return Latency in milliseconds, or 0 before the first transaction
+     */
+    public double getLatencyMillis(double percentile) {
+        if (recorded == 0) {
+            return 0.0;
+        }
+        
+        long[] sorted = Arrays.copyOf(latencies, recorded);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+}
@@ -1,5 +1,6 @@
 package com.playpandora.petplugin.models;
 
+import org.bukkit.Location;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
@@ -8,6 +9,7 @@ import java.util.UUID;
 
 public class Pet {
     
+    private final UUID petId;
     private final UUID ownerUUID;
     private final String petType;
     private final String generatedName;
@@ -17,8 +19,15 @@ public class Pet {
     private double maxHealth;
     private double currentHealth;
     private Long deathTimestamp; // When the pet died (null if alive)
+    private double lastSavedHealth = Double.NaN; // Health as of the last persisted record
+    private Location suspendedLocation; // Where the entity was when it left the world, null unless suspended
     
     public Pet(UUID ownerUUID, String petType, String generatedName) {
+        this(UUID.randomUUID(), ownerUUID, petType, generatedName);
+    }
+    
+    public Pet(UUID petId, UUID ownerUUID, String petType, String generatedName) {
+        this.petId = petId;
         this.ownerUUID = ownerUUID;
         this.petType = petType;
         this.generatedName = generatedName;
@@ -30,6 +39,13 @@ public class Pet {
         this.deathTimestamp = null;
     }
     
+    /**
+     * Stable identifier of this pet, independent of names and of the spawned entity
+     */
+    public UUID getPetId() {
+        return petId;
+    }
+    
     public UUID getOwnerUUID() {
         return ownerUUID;
     }
@@ -95,6 +111,29 @@ public class Pet {
         this.deathTimestamp = deathTimestamp;
     }
     
+    public double getLastSavedHealth() {
+        return lastSavedHealth;
+    }
+    
+    public void setLastSavedHealth(double lastSavedHealth) {
+        this.lastSavedHealth = lastSavedHealth;
+    }
+    
+    public Location getSuspendedLocation() {
+        return suspendedLocation;
+    }
+    
+    public void setSuspendedLocation(Location suspendedLocation) {
+        this.suspendedLocation = suspendedLocation;
+    }
+    
+    /**
+     * @return Whether the pet is still out but its entity was taken out of the world (e.g. chunk unloaded)
+     */
+    public boolean isSuspended() {
+        return suspendedLocation != null;
+    }
+    
     public boolean isDead() {
         return deathTimestamp != null;
     }
@@ -0,0 +1,117 @@
+package com.playpandora.petplugin.storage;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes snapshots on a dedicated background thread.
+ * Requests that arrive while a write is in flight are merged into one pending snapshot
+ * and written once when the writer gets to them. A snapshot that fails to write is merged
+ * back under anything newer and retried with the next submitted one, so a failed save
+ * never drops players' changes.
+ */
+public class AsyncSaveWriter {
+    
+    private final StorageBackend store;
+    private final SaveMetrics metrics;
+    private final Logger logger;
+    private final Consumer<StoreSnapshot> onWritten;
+    private final ExecutorService executor;
+    private final AtomicReference<StoreSnapshot> pending = new AtomicReference<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    
+    /**
+     * @param onWritten Called on the writer thread after a snapshot is safely on disk
+     */
+    public AsyncSaveWriter(StorageBackend store, SaveMetrics metrics, Logger logger, Consumer<StoreSnapshot> onWritten) {
+        this.store = store;
+        this.metrics = metrics;
+        this.logger = logger;
+        this.onWritten = onWritten;
+        // Non-daemon so a write that outlives the shutdown deadline still completes before the JVM exits
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PetPlugin-SaveWriter");
+            thread.setDaemon(false);
+            return thread;
+        });
+    }
+    
+    public void submit(StoreSnapshot snapshot) {
+        // Snapshots only carry changed players, so a superseded one is merged rather than dropped
+        StoreSnapshot merged = pending.accumulateAndGet(snapshot, StoreSnapshot::merge);
+        if (merged != snapshot) {
+            metrics.recordCoalesced();
+        }
+        if (drainScheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+    
+    private void drain() {
+        while (true) {
+            StoreSnapshot snapshot = pending.getAndSet(null);
+            if (snapshot != null && write(snapshot)) {
+                continue;
+            }
+            
+            // Empty, or the write failed: a failed snapshot waits for the next submit instead of retrying in a loop
+            drainScheduled.set(false);
+            // A submit may have slipped in between the empty check and the flag reset
+            if (snapshot != null || pending.get() == null || !drainScheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Writes a snapshot on the calling thread, recording it in the same metrics. On failure the
+     * snapshot is kept pending, under anything submitted since, for the next write.
+     * @return Whether the snapshot was written
+     */
+    public boolean write(StoreSnapshot snapshot) {
+        long start = System.nanoTime();
+        try {
+            long bytes = store.saveBatch(snapshot);
+            metrics.recordWrite(System.nanoTime() - start, bytes);
+            onWritten.accept(snapshot);
+            return true;
+        } catch (Exception e) {
+            metrics.recordFailure();
+            pending.accumulateAndGet(snapshot, (newer, failed) -> newer == null ? failed : StoreSnapshot.merge(failed, newer));
+            logger.log(Level.SEVERE, "Failed to save " + store.getDescription() + ": " + e.getMessage()
+                + "; keeping " + snapshot.pets().size() + " players for a retry with the next save", e);
+            return false;
+        }
+    }
+    
+    /**
+     * @return Whether a snapshot is waiting to be written, e.g. one whose write failed
+     */
+    public boolean hasPending() {
+        return pending.get() != null;
+    }
+    
+    /**
+     * Stops accepting work and waits for pending writes to finish
+     * @param timeoutMillis Maximum time to wait
+     * @param afterLastWrite Run on the writer thread once every pending write is done, even if that
+     *                       is after the deadline; used to release the store without racing a write
+     * @return true if everything was written before the deadline
+     */
+    public boolean close(long timeoutMillis, Runnable afterLastWrite) {
+        executor.execute(afterLastWrite);
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.playpandora.petplugin.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Versioned binary layout of the pet store.
+ *
+ * A file starts with a header ([int magic][byte version][byte flags]) followed by a stream of
+ * records, gzip-compressed when {@link #FLAG_GZIP} is set. Every record is [byte kind][int length][body],
+ * so readers can skip kinds they do not know, and the stream ends with an END record so a truncated
+ * file is detected. UUIDs are stored as two longs and pet types as ids declared by TYPE records
+ * before their first use, which lets both reading and writing stream one player at a time.
+ */
+public final class BinaryPetFormat {
+    
+    public static final int MAGIC = 0x50455453; // "PETS"
+    public static final byte VERSION = 1;
+    public static final byte FLAG_GZIP = 1;
+    
+    static final byte RECORD_END = 0;
+    static final byte RECORD_TYPE = 1;       // [short id][string name]
+    static final byte RECORD_CHECKPOINT = 2; // [long journal checkpoint]
+    static final byte RECORD_PLAYER = 3;     // [uuid owner][short count] then per pet, see Writer#encodePet
+    
+    private static final byte PET_CUSTOM_NAME = 1;
+    private static final byte PET_DEAD = 2;
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private BinaryPetFormat() {
+    }
+    
+    public record Player(UUID ownerUUID, List<PetSnapshot> pets) {
+    }
+    
+    /**
+     * Streams records to an output stream. Not thread-safe.
+     */
+    public static final class Writer implements Closeable {
+        
+        private final DataOutputStream out;
+        private final Map<String, Integer> typeIds = new HashMap<>();
+        private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(256);
+        private final DataOutputStream record = new DataOutputStream(recordBytes);
+        
+        public Writer(OutputStream stream, boolean compress) throws IOException {
+            DataOutputStream header = new DataOutputStream(stream);
+            header.writeInt(MAGIC);
+            header.writeByte(VERSION);
+            header.writeByte(compress ? FLAG_GZIP : 0);
+            header.flush();
+            
+            OutputStream body = compress ? new GZIPOutputStream(stream, BUFFER_SIZE) : stream;
+            this.out = new DataOutputStream(new BufferedOutputStream(body, BUFFER_SIZE));
+        }
+        
+        public void writeCheckpoint(long checkpoint) throws IOException {
+            record.writeLong(checkpoint);
+            emit(RECORD_CHECKPOINT);
+        }
+        
+        public void writePlayer(UUID ownerUUID, List<PetSnapshot> pets) throws IOException {
+            if (pets.size() > 0xFFFF) {
+                throw new IOException("Too many pets for " + ownerUUID + ": " + pets.size());
+            }
+            
+            // Declare new types first so the player record can refer to them by id
+            for (PetSnapshot pet : pets) {
+                internType(pet.petType());
+            }
+            
+            record.writeLong(ownerUUID.getMostSignificantBits());
+            record.writeLong(ownerUUID.getLeastSignificantBits());
+            record.writeShort(pets.size());
+            for (PetSnapshot pet : pets) {
+                encodePet(pet);
+            }
+            emit(RECORD_PLAYER);
+        }
+        
+        private void encodePet(PetSnapshot pet) throws IOException {
+            byte flags = 0;
+            if (pet.customName() != null) {
+                flags |= PET_CUSTOM_NAME;
+            }
+            if (pet.deathTimestamp() != null) {
+                flags |= PET_DEAD;
+            }
+            
+            record.writeLong(pet.petId().getMostSignificantBits());
+            record.writeLong(pet.petId().getLeastSignificantBits());
+            record.writeShort(typeIds.get(pet.petType()));
+            writeString(pet.generatedName());
+            record.writeByte(flags);
+            if (pet.customName() != null) {
+                writeString(pet.customName());
+            }
+            record.writeDouble(pet.maxHealth());
+            record.writeDouble(pet.currentHealth());
+            if (pet.deathTimestamp() != null) {
+                record.writeLong(pet.deathTimestamp());
+            }
+        }
+        
+        private void internType(String type) throws IOException {
+            if (typeIds.containsKey(type)) {
+                return;
+            }
+            
+            int id = typeIds.size();
+            if (id > 0xFFFF) {
+                throw new IOException("Too many distinct pet types");
+            }
+            typeIds.put(type, id);
+            record.writeShort(id);
+            writeString(type);
+            emit(RECORD_TYPE);
+        }
+        
+        private void writeString(String value) throws IOException {
+            byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) {
+                throw new IOException("String too long to store: " + bytes.length + " bytes");
+            }
+            record.writeShort(bytes.length);
+            record.write(bytes);
+        }
+        
+        private void emit(byte kind) throws IOException {
+            out.writeByte(kind);
+            out.writeInt(recordBytes.size());
+            recordBytes.writeTo(out);
+            recordBytes.reset();
+        }
+        
+        /**
+         * Writes the END record and closes the underlying stream
+         */
+        @Override
+        public void close() throws IOException {
+            emit(RECORD_END);
+            out.close();
+        }
+    }
+    
+    /**
+     * Streams records from an input stream. Not thread-safe.
+     */
+    public static final class Reader implements Closeable {
+        
+        private final DataInputStream in;
+        private final List<String> types = new ArrayList<>();
+        private byte[] buffer = new byte[1024];
+        private ByteBuffer body = ByteBuffer.wrap(buffer);
+        private long checkpoint = 0L;
+        
+        public Reader(InputStream stream) throws IOException {
+            DataInputStream header = new DataInputStream(stream);
+            if (header.readInt() != MAGIC) {
+                throw new IOException("Not a pet store file");
+            }
+            byte version = header.readByte();
+            if (version > VERSION) {
+                throw new IOException("Pet store version " + version + " is newer than supported version " + VERSION);
+            }
+            byte flags = header.readByte();
+            
+            InputStream records = (flags & FLAG_GZIP) != 0 ? new GZIPInputStream(stream, BUFFER_SIZE) : stream;
+            this.in = new DataInputStream(new BufferedInputStream(records, BUFFER_SIZE));
+        }
+        
+        /**
+         * @return The journal checkpoint of the last CHECKPOINT record read so far (0 if none)
+         */
+        public long getCheckpoint() {
+            return checkpoint;
+        }
+        
+        /**
+         * Reads records up to and including the next player
+         * @return The player, or null once the end of the store is reached
+         */
+        public Player nextPlayer() throws IOException {
+            while (true) {
+                byte kind = nextRecord();
+                if (kind == RECORD_END) {
+                    return null;
+                }
+                if (kind == RECORD_PLAYER) {
+                    try {
+                        return decodePlayer();
+                    } catch (BufferUnderflowException e) {
+                        throw new IOException("Corrupt player record", e);
+                    }
+                }
+            }
+        }
+        
+        /**
+         * Reads one record, applying TYPE and CHECKPOINT records directly
+         * @return The record kind
+         */
+        byte nextRecord() throws IOException {
+            int kind = in.read();
+            if (kind < 0) {
+                throw new EOFException("Pet store is truncated (missing end record)");
+            }
+            int length = in.readInt();
+            if (length < 0) {
+                throw new IOException("Corrupt record length " + length);
+            }
+            if (length > buffer.length) {
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+            }
+            in.readFully(buffer, 0, length);
+            body = ByteBuffer.wrap(buffer, 0, length);
+            
+            switch (kind) {
+                case RECORD_TYPE -> {
+                    int id = Short.toUnsignedInt(body.getShort());
+                    String name = readString();
+                    while (types.size() <= id) {
+                        types.add(null);
+                    }
+                    types.set(id, name);
+                }
+                case RECORD_CHECKPOINT -> checkpoint = body.getLong();
+                default -> {
+                    // Player records are decoded on demand; unknown kinds are skipped
+                }
+            }
+            return (byte) kind;
+        }
+        
+        private Player decodePlayer() throws IOException {
+            UUID ownerUUID = new UUID(body.getLong(), body.getLong());
+            int count = Short.toUnsignedInt(body.getShort());
+            PetSnapshot[] pets = new PetSnapshot[count];
+            for (int i = 0; i < count; i++) {
+                UUID petId = new UUID(body.getLong(), body.getLong());
+                int typeId = Short.toUnsignedInt(body.getShort());
+                if (typeId >= types.size() || types.get(typeId) == null) {
+                    throw new IOException("Undeclared pet type id " + typeId);
+                }
+                String generatedName = readString();
+                byte flags = body.get();
+                String customName = (flags & PET_CUSTOM_NAME) != 0 ? readString() : null;
+                double maxHealth = body.getDouble();
+                double currentHealth = body.getDouble();
+                Long deathTimestamp = (flags & PET_DEAD) != 0 ? body.getLong() : null;
+                pets[i] = new PetSnapshot(petId, ownerUUID, types.get(typeId), generatedName,
+                    customName, maxHealth, currentHealth, deathTimestamp);
+            }
+            return new Player(ownerUUID, List.of(pets));
+        }
+        
+        private String readString() {
+            int length = Short.toUnsignedInt(body.getShort());
+            String value = new String(buffer, body.position(), length, StandardCharsets.UTF_8);
+            body.position(body.position() + length);
+            return value;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.playpandora.petplugin.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Single-file backend in the {@link BinaryPetFormat} layout (pets.dat), all loaded at startup.
+ *
+ * Same model as the YAML backend: the writer thread keeps every player's last saved pets and
+ * rewrites the whole file from them, but encoding is a handful of fixed-width writes per pet
+ * instead of a YAML dump. The cache is primed from disk before the first incremental save.
+ */
+public class BinaryStorageBackend implements StorageBackend {
+    
+    private final File dataFile;
+    private final boolean compress;
+    private final Map<UUID, List<PetSnapshot>> players = new LinkedHashMap<>(); // Last saved state, writer thread only
+    private boolean primed = false;
+    
+    public BinaryStorageBackend(File dataFile, boolean compress) {
+        this.dataFile = dataFile;
+        this.compress = compress;
+    }
+    
+    public File getDataFile() {
+        return dataFile;
+    }
+    
+    public boolean isCompressed() {
+        return compress;
+    }
+    
+    @Override
+    public boolean loadsPerPlayer() {
+        return false;
+    }
+    
+    @Override
+    public String getDescription() {
+        return dataFile.getName();
+    }
+    
+    @Override
+    public boolean isEmpty() throws IOException {
+        if (!dataFile.exists()) {
+            return true;
+        }
+        try (BinaryPetFormat.Reader reader = new BinaryPetFormat.Reader(new FileInputStream(dataFile))) {
+            return reader.nextPlayer() == null;
+        }
+    }
+    
+    @Override
+    public Map<UUID, List<PetSnapshot>> loadAll() throws IOException {
+        Map<UUID, List<PetSnapshot>> loaded = new LinkedHashMap<>();
+        if (!dataFile.exists()) {
+            return loaded;
+        }
+        
+        try (BinaryPetFormat.Reader reader = new BinaryPetFormat.Reader(new FileInputStream(dataFile))) {
+            BinaryPetFormat.Player player;
+            while ((player = reader.nextPlayer()) != null) {
+                loaded.put(player.ownerUUID(), player.pets());
+            }
+        }
+        return loaded;
+    }
+    
+    /**
+     * Saves write the checkpoint ahead of the players, so this usually stops at the first record.
+     * Player records are skipped without being decoded.
+     */
+    @Override
+    public long readCheckpoint() throws IOException {
+        if (!dataFile.exists()) {
+            return 0L;
+        }
+        
+        try (BinaryPetFormat.Reader reader = new BinaryPetFormat.Reader(new FileInputStream(dataFile))) {
+            while (true) {
+                byte kind = reader.nextRecord();
+                if (kind == BinaryPetFormat.RECORD_CHECKPOINT || kind == BinaryPetFormat.RECORD_END) {
+                    return reader.getCheckpoint();
+                }
+            }
+        }
+    }
+    
+    @Override
+    public long saveBatch(StoreSnapshot snapshot) throws IOException {
+        if (snapshot.full()) {
+            players.clear();
+        } else if (!primed) {
+            // Players outside this snapshot must survive the rewrite
+            players.putAll(loadAll());
+        }
+        primed = true;
+        
+        for (Map.Entry<UUID, List<PetSnapshot>> entry : snapshot.pets().entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                players.remove(entry.getKey());
+            } else {
+                players.put(entry.getKey(), entry.getValue());
+            }
+        }
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + players.size() * 128);
+        try (BinaryPetFormat.Writer writer = new BinaryPetFormat.Writer(out, compress)) {
+            if (snapshot.journalCheckpoint() > 0) {
+                writer.writeCheckpoint(snapshot.journalCheckpoint());
+            }
+            for (Map.Entry<UUID, List<PetSnapshot>> entry : players.entrySet()) {
+                writer.writePlayer(entry.getKey(), entry.getValue());
+            }
+        }
+        
+        byte[] bytes = out.toByteArray();
+        StorageFiles.replaceFile(dataFile.toPath(), bytes);
+        return bytes.length;
+    }
+}
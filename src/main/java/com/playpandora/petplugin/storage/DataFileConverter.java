@@ -0,0 +1,187 @@
+package com.playpandora.petplugin.storage;
+
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.events.CollectionEndEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingEndEvent;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Converts data.yml into the binary pet store one player at a time, using SnakeYAML's event
+ * parser instead of building the whole document in memory.
+ *
+ * Also runnable without a server:
+ * java -cp PetPlugin.jar:snakeyaml.jar com.playpandora.petplugin.storage.DataFileConverter data.yml pets.dat [--gzip]
+ */
+public final class DataFileConverter {
+    
+    // Depth of the mappings inside "pets:" -> <player uuid> -> <petN> -> fields
+    private static final int ROOT_DEPTH = 1;
+    private static final int PETS_DEPTH = 2;
+    private static final int PLAYER_DEPTH = 3;
+    private static final int PET_DEPTH = 4;
+    
+    private DataFileConverter() {
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: DataFileConverter <data.yml> <pets.dat> [--gzip]");
+            System.exit(1);
+        }
+        
+        boolean compress = args.length > 2 && args[2].equals("--gzip");
+        long start = System.nanoTime();
+        int players = convert(new File(args[0]), new File(args[1]), compress, Logger.getLogger("PetPlugin"));
+        System.out.println("Converted " + players + " players in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+    }
+    
+    /**
+     * Streams the YAML data file into a binary store, replacing the target only once it is complete
+     * @return Number of players converted
+     */
+    public static int convert(File source, File target, boolean compress, Logger logger) throws IOException {
+        Path temp = StorageFiles.tempFileFor(target.toPath());
+        Files.createDirectories(temp.toAbsolutePath().getParent());
+        
+        try {
+            int players;
+            try (Reader reader = Files.newBufferedReader(source.toPath(), StandardCharsets.UTF_8);
+                 OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp));
+                 BinaryPetFormat.Writer writer = new BinaryPetFormat.Writer(out, compress)) {
+                players = stream(reader, writer, logger);
+            } catch (RuntimeException e) {
+                // Malformed YAML or field values
+                throw new IOException("Failed to convert " + source.getName() + ": " + e.getMessage(), e);
+            }
+            
+            StorageFiles.moveIntoPlace(temp, target.toPath());
+            return players;
+        } finally {
+            // Gone after a successful move; after any failure the target is untouched and the partial file goes
+            deleteQuietly(temp, logger);
+        }
+    }
+    
+    private static void deleteQuietly(Path temp, Logger logger) {
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            logger.warning("Failed to delete " + temp + ": " + e.getMessage());
+        }
+    }
+    
+    private static int stream(Reader reader, BinaryPetFormat.Writer writer, Logger logger) throws IOException {
+        // The default limit guards untrusted input; data files of large servers are far bigger
+        LoaderOptions options = new LoaderOptions();
+        options.setCodePointLimit(Integer.MAX_VALUE);
+        
+        int depth = 0;
+        int ignoredDepth = 0; // Nesting inside sequences or unexpected sections, which are skipped
+        String key = null;    // Key whose value comes next, null while a key is expected
+        boolean inPets = false;
+        UUID owner = null;
+        String petKey = null;
+        List<PetSnapshot> pets = new ArrayList<>();
+        Map<String, String> fields = new HashMap<>();
+        int players = 0;
+        
+        for (Event event : new Yaml(options).parse(reader)) {
+            if (ignoredDepth > 0) {
+                if (event instanceof CollectionStartEvent) {
+                    ignoredDepth++;
+                } else if (event instanceof CollectionEndEvent) {
+                    ignoredDepth--;
+                }
+                continue;
+            }
+            
+            if (event instanceof ScalarEvent scalar) {
+                if (key == null) {
+                    key = scalar.getValue();
+                    continue;
+                }
+                if (depth == ROOT_DEPTH && key.equals("journal-checkpoint")) {
+                    writer.writeCheckpoint(Long.parseLong(scalar.getValue()));
+                } else if (depth == PET_DEPTH && owner != null) {
+                    fields.put(key, scalar.getValue());
+                }
+                key = null;
+            } else if (event instanceof MappingStartEvent) {
+                depth++;
+                if (depth == PETS_DEPTH) {
+                    inPets = "pets".equals(key);
+                } else if (depth == PLAYER_DEPTH && inPets) {
+                    owner = parseOwner(key, logger);
+                } else if (depth == PET_DEPTH) {
+                    petKey = key;
+                    fields.clear();
+                }
+                key = null;
+            } else if (event instanceof MappingEndEvent) {
+                if (depth == PET_DEPTH && owner != null) {
+                    pets.add(toSnapshot(fields, owner, petKey));
+                } else if (depth == PLAYER_DEPTH && owner != null) {
+                    writer.writePlayer(owner, pets);
+                    pets.clear();
+                    owner = null;
+                    players++;
+                }
+                depth--;
+            } else if (event instanceof CollectionStartEvent) {
+                // A sequence; data.yml has none, so whatever it is, it is not pet data
+                ignoredDepth = 1;
+                key = null;
+            }
+        }
+        return players;
+    }
+    
+    private static UUID parseOwner(String key, Logger logger) {
+        try {
+            return UUID.fromString(key);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            logger.warning("Invalid UUID in data.yml: " + key);
+            return null;
+        }
+    }
+    
+    /**
+     * Same defaults as {@link PetYamlCodec#read}
+     */
+    private static PetSnapshot toSnapshot(Map<String, String> fields, UUID owner, String petKey) {
+        String petId = fields.get("id");
+        String maxHealth = fields.get("maxHealth");
+        String currentHealth = fields.get("currentHealth");
+        String deathTimestamp = fields.get("deathTimestamp");
+        double max = maxHealth != null ? Double.parseDouble(maxHealth) : 20.0;
+        
+        return new PetSnapshot(
+            petId != null ? UUID.fromString(petId) : PetYamlCodec.legacyPetId(owner, petKey),
+            owner,
+            fields.get("type"),
+            fields.get("generatedName"),
+            fields.get("customName"),
+            max,
+            currentHealth != null ? Double.parseDouble(currentHealth) : max,
+            deathTimestamp != null ? Long.parseLong(deathTimestamp) : null);
+    }
+}
@@ -1,181 +1,722 @@
 package com.playpandora.petplugin.storage;
 
 import com.playpandora.petplugin.PetPlugin;
+import com.playpandora.petplugin.config.StorageSettings;
+import com.playpandora.petplugin.managers.ReviveManager;
 import com.playpandora.petplugin.models.Pet;
-import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public class DataManager {
     
+    private static final int PARALLEL_LOAD_THRESHOLD = 256; // Players; below this the fork-join overhead dominates
+    private static final long PREFETCH_TTL_MILLIS = 60_000L; // Longer than any login takes to get from pre-login to join
+    
     private final PetPlugin plugin;
-    private File dataFile;
-    private FileConfiguration dataConfig;
     private final Map<UUID, List<Pet>> playerPets = new HashMap<>();
     private final Map<UUID, List<Pet>> deadPets = new HashMap<>(); // Player UUID -> Dead Pets
+    private final Map<UUID, PetIndex> indexes = new HashMap<>(); // Player UUID -> Lookups over both lists
+    private final Set<UUID> residentPlayers = new HashSet<>(); // Players whose stored pets have been published
     private BukkitTask autoSaveTask;
-    private boolean needsSave = false;
+    private final Set<UUID> dirtyPlayers = new HashSet<>(); // Players changed since the last snapshot
+    private boolean fullSnapshotPending; // The backend has no prior state from us until its first snapshot
+    private StoreSnapshot unsaved; // Sync writes only: a failed snapshot, retried with the next one
+    private double healthSaveThreshold;
+    private final SaveMetrics saveMetrics = new SaveMetrics();
+    private final boolean asyncSave;
+    private StorageBackend backend;
+    private final Map<UUID, Prefetched> prefetched = new ConcurrentHashMap<>(); // Loaded at pre-login, published on join
+    private final Map<UUID, List<PetSnapshot>> inFlight = new ConcurrentHashMap<>(); // Unloaded but not yet written
+    private AsyncSaveWriter saveWriter;
+    private PetJournal journal;
     
     public DataManager(PetPlugin plugin) {
         this.plugin = plugin;
-        loadData();
-        startAutoSave();
+        this.asyncSave = plugin.getSettings().storage().asyncSave();
+        this.healthSaveThreshold = plugin.getSettings().storage().healthSaveThreshold();
     }
     
+    /**
+     * Reads stored pets once at startup and makes them resident. Must be called on the main
+     * thread before commands and listeners are registered.
+     */
     public void loadData() {
-        dataFile = new File(plugin.getDataFolder(), "data.yml");
-        if (!dataFile.exists()) {
+        if (backend != null) {
+            plugin.getLogger().warning("Pet data is already loaded, ignoring repeated load");
+            return;
+        }
+        
+        long start = System.nanoTime();
+        try {
+            backend = createBackend();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to open pet storage, pets will not be saved: " + e.getMessage());
+            return;
+        }
+        if (asyncSave) {
+            saveWriter = new AsyncSaveWriter(backend, saveMetrics, plugin.getLogger(), this::onSnapshotWritten);
+        }
+        long opened = System.nanoTime();
+        
+        migrateDataFile();
+        long migrated = System.nanoTime();
+        
+        Map<UUID, List<PetSnapshot>> stored = new LinkedHashMap<>();
+        try {
+            if (backend.loadsPerPlayer()) {
+                // Only online players are resident; everyone else is loaded on login (see prefetchPlayer).
+                // Players already online (e.g. after a reload) never went through pre-login.
+                for (Player player : plugin.getServer().getOnlinePlayers()) {
+                    stored.put(player.getUniqueId(), backend.loadPlayer(player.getUniqueId()));
+                }
+            } else {
+                stored = backend.loadAll();
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to load pets from " + backend.getDescription() + ": " + e.getMessage());
+            return;
+        }
+        long read = System.nanoTime();
+        // Backends holding every player get one full snapshot first, built from what is resident.
+        // Only after a successful read: a full snapshot of nothing would wipe the store.
+        fullSnapshotPending = !backend.loadsPerPlayer();
+        
+        // Rebuilding Pet objects is independent per player, so large stores are split across the fork-join pool
+        List<Map.Entry<UUID, ResidentPets>> built = (stored.size() >= PARALLEL_LOAD_THRESHOLD
+                ? stored.entrySet().parallelStream() : stored.entrySet().stream())
+            .map(entry -> Map.entry(entry.getKey(), ResidentPets.of(entry.getValue())))
+            .toList();
+        long builtAt = System.nanoTime();
+        
+        for (Map.Entry<UUID, ResidentPets> entry : built) {
+            publish(entry.getKey(), entry.getValue());
+        }
+        startAutoSave();
+        long published = System.nanoTime();
+        
+        if (plugin.getSettings().storage().journalEnabled()) {
             try {
-                dataFile.getParentFile().mkdirs();
-                dataFile.createNewFile();
+                openJournal(backend.readCheckpoint());
             } catch (IOException e) {
-                plugin.getLogger().severe("Failed to create data.yml: " + e.getMessage());
+                plugin.getLogger().severe("Failed to read the journal checkpoint, journal disabled: " + e.getMessage());
+            }
+            
+            if (backend.loadsPerPlayer()) {
+                // Replay had to load offline players; write them back and let them go again
+                for (UUID uuid : new ArrayList<>(dirtyPlayers)) {
+                    if (plugin.getServer().getPlayer(uuid) == null) {
+                        unloadPlayer(uuid);
+                    }
+                }
+                saveDataSync();
+            }
+        }
+        // After replay, which still finds records for id-less pets under their derived ids
+        for (Map.Entry<UUID, ResidentPets> entry : built) {
+            remintLegacyIds(entry.getKey());
+        }
+        long replayed = System.nanoTime();
+        
+        int pets = 0;
+        for (Map.Entry<UUID, ResidentPets> entry : built) {
+            pets += entry.getValue().alive().size() + entry.getValue().dead().size();
+        }
+        plugin.getLogger().info("Loaded " + pets + " pets for " + built.size() + " players from " + backend.getDescription()
+            + " in " + millis(replayed - start) + "ms (open " + millis(opened - start)
+            + "ms, migrate " + millis(migrated - opened)
+            + "ms, read " + millis(read - migrated)
+            + "ms, build " + millis(builtAt - read)
+            + "ms, publish " + millis(published - builtAt)
+            + "ms, journal " + millis(replayed - published) + "ms)");
+    }
+    
+    private static long millis(long nanos) {
+        return nanos / 1_000_000L;
+    }
+    
+    /**
+     * Opens the backend selected by storage.backend (yaml, yaml-per-player, binary or sqlite)
+     */
+    private StorageBackend createBackend() throws IOException {
+        File dataFolder = plugin.getDataFolder();
+        StorageSettings storage = plugin.getSettings().storage();
+        switch (storage.backend()) {
+            case "yaml-per-player": {
+                File directory = new File(dataFolder, "players");
+                if (!directory.exists() && !directory.mkdirs()) {
+                    throw new IOException("Failed to create players directory");
+                }
+                return new PerPlayerYamlStorageBackend(directory);
+            }
+            case "binary": {
+                return new BinaryStorageBackend(new File(dataFolder, storage.binaryFile()), storage.binaryCompress());
+            }
+            case "sqlite": {
+                dataFolder.mkdirs();
+                return new SqliteStorageBackend(new File(dataFolder, storage.sqliteFile()), storage.sqlitePoolSize());
+            }
+            default: {
+                return new YamlStorageBackend(new File(dataFolder, "data.yml"), plugin.getLogger());
+            }
+        }
+    }
+    
+    /**
+     * A player's pets rebuilt from storage, split the way they are kept resident
+     */
+    private record ResidentPets(List<Pet> alive, List<Pet> dead) {
+        
+        static ResidentPets of(List<PetSnapshot> snapshots) {
+            List<Pet> alive = new ArrayList<>(snapshots.size());
+            List<Pet> dead = new ArrayList<>(0);
+            for (PetSnapshot snapshot : snapshots) {
+                Pet pet = snapshot.toPet();
+                if (pet.isDead()) {
+                    dead.add(pet);
+                } else {
+                    alive.add(pet);
+                }
+            }
+            return new ResidentPets(alive, dead);
+        }
+    }
+    
+    /**
+     * Makes a player's pets resident, replacing anything resident for them
+     */
+    private void publish(UUID uuid, ResidentPets pets) {
+        untrackDeadPets(uuid);
+        residentPlayers.add(uuid);
+        playerPets.put(uuid, pets.alive());
+        if (pets.dead().isEmpty()) {
+            deadPets.remove(uuid);
+        } else {
+            deadPets.put(uuid, pets.dead());
+        }
+        indexes.put(uuid, PetIndex.build(pets.alive(), pets.dead()));
+        
+        ReviveManager reviveManager = plugin.getReviveManager();
+        if (reviveManager != null) {
+            for (Pet pet : pets.dead()) {
+                reviveManager.track(uuid, pet);
+            }
+        }
+    }
+    
+    /**
+     * Gives pets that were stored without an id a random one. Their derived ids are only needed
+     * until journal records written against them have been replayed; the swap itself is journaled
+     * as a remove and an add, so later records still replay if we stop before the next save.
+     */
+    private void remintLegacyIds(UUID uuid) {
+        boolean changed = remintLegacyIds(uuid, playerPets.get(uuid));
+        changed |= remintLegacyIds(uuid, deadPets.get(uuid));
+        if (changed) {
+            reindex(uuid);
+            dirtyPlayers.add(uuid);
+        }
+    }
+    
+    private boolean remintLegacyIds(UUID uuid, List<Pet> pets) {
+        if (pets == null) {
+            return false;
+        }
+        
+        boolean changed = false;
+        for (ListIterator<Pet> iterator = pets.listIterator(); iterator.hasNext(); ) {
+            Pet legacy = iterator.next();
+            if (!PetYamlCodec.isLegacyPetId(legacy.getPetId())) {
+                continue;
+            }
+            
+            Pet pet = PetSnapshot.of(legacy).withPetId(UUID.randomUUID()).toPet();
+            iterator.set(pet);
+            if (pet.isDead() && plugin.getReviveManager() != null) {
+                plugin.getReviveManager().untrack(legacy);
+                plugin.getReviveManager().track(uuid, pet);
+            }
+            if (journal != null) {
+                journal.appendRemove(legacy);
+                journal.appendAdd(pet);
+            }
+            changed = true;
+        }
+        return changed;
+    }
+    
+    private void untrackDeadPets(UUID uuid) {
+        ReviveManager reviveManager = plugin.getReviveManager();
+        List<Pet> dead = deadPets.get(uuid);
+        if (reviveManager != null && dead != null) {
+            for (Pet pet : dead) {
+                reviveManager.untrack(pet);
+            }
+        }
+    }
+    
+    private void trackRevive(UUID uuid, Pet pet) {
+        ReviveManager reviveManager = plugin.getReviveManager();
+        if (reviveManager != null) {
+            if (pet.isDead()) {
+                reviveManager.track(uuid, pet);
+            } else {
+                reviveManager.untrack(pet);
+            }
+        }
+    }
+    
+    /**
+     * Rebuilds a player's lookups after their lists changed. Mutations are rare and lists
+     * short, so a rebuild is simpler than patching each map and cannot drift from the lists.
+     */
+    private void reindex(UUID uuid) {
+        List<Pet> alive = playerPets.get(uuid);
+        List<Pet> dead = deadPets.get(uuid);
+        if (alive == null && dead == null) {
+            indexes.remove(uuid);
+        } else {
+            indexes.put(uuid, PetIndex.build(alive != null ? alive : List.of(), dead != null ? dead : List.of()));
+        }
+    }
+    
+    private void publishPlayer(UUID uuid, List<PetSnapshot> snapshots) {
+        publish(uuid, ResidentPets.of(snapshots));
+    }
+    
+    /**
+     * One-time copy of an existing data.yml into a different, still empty backend
+     */
+    private void migrateDataFile() {
+        File legacyFile = new File(plugin.getDataFolder(), "data.yml");
+        if (backend instanceof YamlStorageBackend || !legacyFile.exists()) {
+            return;
+        }
+        
+        try {
+            if (!backend.isEmpty()) {
                 return;
             }
+            
+            int players;
+            if (backend instanceof BinaryStorageBackend binary) {
+                // Streamed, so large files are never held in memory as a whole
+                players = DataFileConverter.convert(legacyFile, binary.getDataFile(), binary.isCompressed(), plugin.getLogger());
+            } else {
+                YamlConfiguration legacy = YamlConfiguration.loadConfiguration(legacyFile);
+                Map<UUID, List<PetSnapshot>> loaded = YamlStorageBackend.readPlayers(legacy, plugin.getLogger());
+                // Keep the checkpoint so journal records written after the last data.yml save still replay
+                long checkpoint = legacy.getLong("journal-checkpoint", 0L);
+                backend.saveBatch(new StoreSnapshot(loaded, true, System.currentTimeMillis(), checkpoint));
+                players = loaded.size();
+            }
+            
+            File migrated = new File(plugin.getDataFolder(), "data.yml.migrated");
+            if (!legacyFile.renameTo(migrated)) {
+                plugin.getLogger().warning("Could not rename data.yml after migrating it to " + backend.getDescription());
+            }
+            plugin.getLogger().info("Migrated " + players + " players from data.yml to " + backend.getDescription());
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to migrate data.yml to " + backend.getDescription() + ": " + e.getMessage());
+        }
+    }
+    
+    private boolean loadsPerPlayer() {
+        return backend != null && backend.loadsPerPlayer();
+    }
+    
+    /**
+     * @return The player's stored pets, preferring data that is still queued for writing
+     * since it is newer than what the backend holds
+     */
+    private List<PetSnapshot> loadPlayer(UUID uuid) throws IOException {
+        List<PetSnapshot> pending = inFlight.get(uuid);
+        return pending != null ? pending : backend.loadPlayer(uuid);
+    }
+    
+    /**
+     * Pets read at pre-login, kept until the player joins
+     * @param loadedAt When they were read, so a login that never completes does not keep them forever
+     */
+    private record Prefetched(List<PetSnapshot> pets, long loadedAt) {
+    }
+    
+    /**
+     * Reads a joining player's pets ahead of time. Called from the async pre-login thread.
+     * @return False if the pets could not be loaded and the player should not join
+     */
+    public boolean prefetchPlayer(UUID uuid) {
+        if (!loadsPerPlayer()) {
+            return true;
         }
         
-        dataConfig = YamlConfiguration.loadConfiguration(dataFile);
-        
-        // Load player pets
-        if (dataConfig.contains("pets")) {
-            for (String uuidString : dataConfig.getConfigurationSection("pets").getKeys(false)) {
-                try {
-                    UUID uuid = UUID.fromString(uuidString);
-                    List<Pet> pets = new ArrayList<>();
-                    
-                    for (String petKey : dataConfig.getConfigurationSection("pets." + uuidString).getKeys(false)) {
-                        String path = "pets." + uuidString + "." + petKey;
-                        String petType = dataConfig.getString(path + ".type");
-                        String generatedName = dataConfig.getString(path + ".generatedName");
-                        String customName = dataConfig.getString(path + ".customName");
-                        Long deathTimestamp = dataConfig.contains(path + ".deathTimestamp") ? 
-                            dataConfig.getLong(path + ".deathTimestamp") : null;
-                        Double maxHealth = dataConfig.contains(path + ".maxHealth") ?
-                            dataConfig.getDouble(path + ".maxHealth") : null;
-                        Double currentHealth = dataConfig.contains(path + ".currentHealth") ?
-                            dataConfig.getDouble(path + ".currentHealth") : null;
-                        
-                        Pet pet = new Pet(uuid, petType, generatedName);
-                        if (customName != null) {
-                            pet.setCustomName(customName);
-                        }
-                        if (maxHealth != null) {
-                            pet.setMaxHealth(maxHealth);
-                        }
-                        if (currentHealth != null) {
-                            pet.setCurrentHealth(currentHealth);
-                        }
-                        if (deathTimestamp != null) {
-                            pet.setDeathTimestamp(deathTimestamp);
-                            deadPets.computeIfAbsent(uuid, k -> new ArrayList<>()).add(pet);
-                        } else {
-                            pets.add(pet);
-                        }
-                    }
-                    
-                    playerPets.put(uuid, pets);
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("Invalid UUID in data.yml: " + uuidString);
+        // Logins can be dropped between pre-login and join without any event reaching us
+        long now = System.currentTimeMillis();
+        prefetched.values().removeIf(entry -> now - entry.loadedAt() > PREFETCH_TTL_MILLIS);
+        try {
+            prefetched.put(uuid, new Prefetched(loadPlayer(uuid), now));
+            return true;
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to load pets for " + uuid + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Drops pets prefetched for a login that was refused after pre-login
+     */
+    public void discardPrefetch(UUID uuid) {
+        prefetched.remove(uuid);
+    }
+    
+    /**
+     * Publishes a joining player's prefetched pets. Called on the main thread.
+     * Without a prefetch the pets are read asynchronously and published once loaded.
+     */
+    public void handlePlayerJoin(UUID uuid) {
+        if (!loadsPerPlayer()) {
+            return;
+        }
+        
+        Prefetched entry = prefetched.remove(uuid);
+        if (isResident(uuid)) {
+            return; // Still resident, which is always at least as new as anything on disk
+        }
+        
+        if (entry != null) {
+            publishJoined(uuid, entry.pets());
+            return;
+        }
+        
+        plugin.getLogger().fine("Loading pets for " + uuid + " after join; pre-login prefetch was missing");
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            List<PetSnapshot> pets;
+            try {
+                pets = loadPlayer(uuid);
+            } catch (IOException e) {
+                plugin.getLogger().severe("Failed to load pets for " + uuid + " on join: " + e.getMessage());
+                return;
+            }
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                // They may have quit, or rejoined with a prefetch, while this was loading
+                if (plugin.getServer().getPlayer(uuid) != null && !isResident(uuid)) {
+                    publishJoined(uuid, pets);
+                }
+            });
+        });
+    }
+    
+    private void publishJoined(UUID uuid, List<PetSnapshot> pets) {
+        publishPlayer(uuid, pets);
+        remintLegacyIds(uuid);
+    }
+    
+    /**
+     * Writes back and drops a player's pets once they have quit. Called on the main thread.
+     */
+    public void unloadPlayer(UUID uuid) {
+        if (!loadsPerPlayer()) {
+            return;
+        }
+        
+        prefetched.remove(uuid);
+        boolean dirty = dirtyPlayers.remove(uuid);
+        List<PetSnapshot> pets = snapshotPlayer(uuid);
+        untrackDeadPets(uuid);
+        playerPets.remove(uuid);
+        deadPets.remove(uuid);
+        indexes.remove(uuid);
+        residentPlayers.remove(uuid);
+        
+        if (!dirty) {
+            return;
+        }
+        
+        StoreSnapshot snapshot = new StoreSnapshot(Map.of(uuid, pets), false, System.currentTimeMillis(), 0L);
+        if (saveWriter != null) {
+            // Keep the data reachable for a quick rejoin until the writer has it on disk
+            inFlight.put(uuid, pets);
+            saveWriter.submit(snapshot);
+        } else {
+            writeSnapshot(snapshot);
+        }
+    }
+    
+    /**
+     * Replays journal records written after the last snapshot, then starts appending to a new segment
+     */
+    private void openJournal(long checkpoint) {
+        if (journal == null) {
+            journal = new PetJournal(new File(plugin.getDataFolder(), "journal"), plugin.getLogger());
+        }
+        
+        int replayed = journal.replay(checkpoint, this::applyJournalEntry);
+        if (replayed > 0) {
+            plugin.getLogger().info("Replayed " + replayed + " journal records since the last save");
+        }
+        
+        if (journal.isOpen()) {
+            return;
+        }
+        try {
+            journal.open(checkpoint, plugin.getSettings().storage().journalSyncIntervalMillis());
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to open pet journal, falling back to immediate saves: " + e.getMessage());
+            journal = null;
+        }
+    }
+    
+    private void applyJournalEntry(JournalEntry entry) {
+        UUID uuid = entry.ownerUUID();
+        if (loadsPerPlayer() && !playerPets.containsKey(uuid) && !deadPets.containsKey(uuid)) {
+            try {
+                publishPlayer(uuid, loadPlayer(uuid));
+            } catch (IOException e) {
+                plugin.getLogger().severe("Skipping journal record for " + uuid + ", their pets could not be loaded: " + e.getMessage());
+                return;
+            }
+        }
+        dirtyPlayers.add(uuid);
+        if (entry.op() == PetJournal.ADD) {
+            if (findPet(uuid, entry.petId()) == null) {
+                Pet pet = entry.pet().toPet();
+                if (pet.isDead()) {
+                    deadPets.computeIfAbsent(uuid, k -> new ArrayList<>()).add(pet);
+                    playerPets.computeIfAbsent(uuid, k -> new ArrayList<>());
+                } else {
+                    playerPets.computeIfAbsent(uuid, k -> new ArrayList<>()).add(pet);
                 }
+                reindex(uuid);
+                trackRevive(uuid, pet);
             }
+            return;
         }
         
-        plugin.getLogger().info("Loaded data for " + playerPets.size() + " players with pets");
+        Pet pet = findPet(uuid, entry.petId());
+        if (pet == null) {
+            return; // Already folded into the snapshot or removed
+        }
+        
+        switch (entry.op()) {
+            case PetJournal.REMOVE -> {
+                getPlayerPets(uuid).remove(pet);
+                removeDeadPet(uuid, pet);
+                if (plugin.getReviveManager() != null) {
+                    plugin.getReviveManager().untrack(pet);
+                }
+            }
+            case PetJournal.DEATH -> {
+                if (!pet.isDead()) {
+                    getPlayerPets(uuid).remove(pet);
+                    deadPets.computeIfAbsent(uuid, k -> new ArrayList<>()).add(pet);
+                }
+                pet.setDeathTimestamp(entry.timestamp());
+            }
+            case PetJournal.REVIVE -> {
+                if (pet.isDead()) {
+                    removeDeadPet(uuid, pet);
+                    pet.revive();
+                    playerPets.computeIfAbsent(uuid, k -> new ArrayList<>()).add(pet);
+                }
+            }
+            case PetJournal.RENAME -> pet.setCustomName(entry.customName());
+            case PetJournal.HEALTH -> {
+                pet.setMaxHealth(entry.maxHealth());
+                pet.setCurrentHealth(entry.currentHealth());
+                pet.setLastSavedHealth(pet.getCurrentHealth());
+            }
+            default -> plugin.getLogger().warning("Unknown journal operation " + entry.op());
+        }
+        reindex(uuid);
+        if (entry.op() != PetJournal.REMOVE) {
+            trackRevive(uuid, pet);
+        }
+    }
+    
+    private Pet findPet(UUID uuid, UUID petId) {
+        for (Pet pet : getPlayerPets(uuid)) {
+            if (pet.getPetId().equals(petId)) {
+                return pet;
+            }
+        }
+        for (Pet pet : getDeadPets(uuid)) {
+            if (pet.getPetId().equals(petId)) {
+                return pet;
+            }
+        }
+        return null;
+    }
+    
+    private void removeDeadPet(UUID uuid, Pet pet) {
+        List<Pet> dead = deadPets.get(uuid);
+        if (dead != null) {
+            dead.remove(pet);
+            if (dead.isEmpty()) {
+                deadPets.remove(uuid);
+            }
+        }
     }
     
     private void startAutoSave() {
-        // Auto-save every 60 seconds (1200 ticks)
-        autoSaveTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, () -> {
-            if (needsSave) {
+        // Auto-save every 60 seconds (1200 ticks); the snapshot must be taken on the main thread
+        autoSaveTask = plugin.getServer().getScheduler().runTaskTimer(plugin, () -> {
+            if (fullSnapshotPending || !dirtyPlayers.isEmpty() || unsaved != null
+                    || (saveWriter != null && saveWriter.hasPending())) {
                 saveDataSync();
-                needsSave = false;
             }
         }, 1200L, 1200L); // Every 60 seconds
         
-        plugin.getLogger().info("Auto-save enabled (every 60 seconds)");
+        plugin.getLogger().info("Auto-save enabled (every 60 seconds, " + (asyncSave ? "async" : "sync") + " writes)");
     }
     
     public void saveData() {
-        // Mark as needing save and trigger immediate save
-        needsSave = true;
+        // Trigger an immediate save of everything changed so far
         saveDataSync();
     }
     
+    /**
+     * Snapshots changed players' pets on the main thread, then writes them either on the
+     * background writer (async-save) or right here
+     */
     private void saveDataSync() {
-        // Ensure we're on the main thread for file operations
+        // Ensure we're on the main thread so the snapshot sees a consistent view
         if (!plugin.getServer().isPrimaryThread()) {
             plugin.getServer().getScheduler().runTask(plugin, this::saveDataSync);
             return;
         }
         
-        if (dataConfig == null || dataFile == null) {
+        if (backend == null) {
             return;
         }
         
-        // Clear existing data
-        dataConfig.set("pets", null);
+        long start = System.nanoTime();
+        StoreSnapshot snapshot = captureSnapshot();
+        saveMetrics.recordSnapshot(System.nanoTime() - start, snapshot.pets().size());
         
-        // Save player pets (alive and dead)
-        for (Map.Entry<UUID, List<Pet>> entry : playerPets.entrySet()) {
-            UUID uuid = entry.getKey();
-            List<Pet> pets = entry.getValue();
-            
-            int index = 0;
-            for (Pet pet : pets) {
-                String path = "pets." + uuid.toString() + ".pet" + index;
-                dataConfig.set(path + ".type", pet.getPetType());
-                dataConfig.set(path + ".generatedName", pet.getGeneratedName());
-                if (pet.getCustomName() != null) {
-                    dataConfig.set(path + ".customName", pet.getCustomName());
-                }
-                dataConfig.set(path + ".maxHealth", pet.getMaxHealth());
-                dataConfig.set(path + ".currentHealth", pet.getCurrentHealth());
-                if (pet.getDeathTimestamp() != null) {
-                    dataConfig.set(path + ".deathTimestamp", pet.getDeathTimestamp());
-                }
-                index++;
-            }
+        if (saveWriter != null) {
+            saveWriter.submit(snapshot);
+        } else {
+            writeSnapshot(snapshot);
         }
+    }
+    
+    private StoreSnapshot captureSnapshot() {
+        // Everything journaled so far is in the snapshot, so new records go to a fresh segment
+        long checkpoint = journal != null ? journal.rollover() : 0L;
+        boolean full = fullSnapshotPending;
         
-        // Save dead pets
-        for (Map.Entry<UUID, List<Pet>> entry : deadPets.entrySet()) {
-            UUID uuid = entry.getKey();
-            List<Pet> pets = entry.getValue();
-            
-            int startIndex = playerPets.getOrDefault(uuid, new ArrayList<>()).size();
-            for (int i = 0; i < pets.size(); i++) {
-                Pet pet = pets.get(i);
-                String path = "pets." + uuid.toString() + ".pet" + (startIndex + i);
-                dataConfig.set(path + ".type", pet.getPetType());
-                dataConfig.set(path + ".generatedName", pet.getGeneratedName());
-                if (pet.getCustomName() != null) {
-                    dataConfig.set(path + ".customName", pet.getCustomName());
-                }
-                dataConfig.set(path + ".maxHealth", pet.getMaxHealth());
-                dataConfig.set(path + ".currentHealth", pet.getCurrentHealth());
-                if (pet.getDeathTimestamp() != null) {
-                    dataConfig.set(path + ".deathTimestamp", pet.getDeathTimestamp());
-                }
-            }
+        Set<UUID> players;
+        if (full) {
+            players = new LinkedHashSet<>(playerPets.keySet());
+            players.addAll(deadPets.keySet());
+        } else {
+            players = dirtyPlayers;
+        }
+        
+        Map<UUID, List<PetSnapshot>> pets = new LinkedHashMap<>();
+        for (UUID uuid : players) {
+            pets.put(uuid, snapshotPlayer(uuid));
+        }
+        
+        dirtyPlayers.clear();
+        fullSnapshotPending = false;
+        return new StoreSnapshot(Collections.unmodifiableMap(pets), full, System.currentTimeMillis(), checkpoint);
+    }
+    
+    /**
+     * @return Immutable copy of a player's pets, alive first and then dead, matching the load order
+     */
+    private List<PetSnapshot> snapshotPlayer(UUID uuid) {
+        List<Pet> alive = playerPets.getOrDefault(uuid, Collections.emptyList());
+        List<Pet> dead = deadPets.getOrDefault(uuid, Collections.emptyList());
+        PetSnapshot[] snapshots = new PetSnapshot[alive.size() + dead.size()];
+        int index = 0;
+        for (Pet pet : alive) {
+            snapshots[index++] = PetSnapshot.of(pet);
+        }
+        for (Pet pet : dead) {
+            snapshots[index++] = PetSnapshot.of(pet);
+        }
+        return List.of(snapshots);
+    }
+    
+    private void writeSnapshot(StoreSnapshot snapshot) {
+        // Players from a failed write go out again, under anything newer
+        if (unsaved != null) {
+            snapshot = StoreSnapshot.merge(unsaved, snapshot);
+            unsaved = null;
         }
         
+        long start = System.nanoTime();
         try {
-            dataConfig.save(dataFile);
+            long bytes = backend.saveBatch(snapshot);
+            saveMetrics.recordWrite(System.nanoTime() - start, bytes);
+            onSnapshotWritten(snapshot);
             plugin.getLogger().fine("Data saved successfully");
         } catch (IOException e) {
-            plugin.getLogger().severe("Failed to save data.yml: " + e.getMessage());
+            // Journal segments stay until a snapshot covering these players is written
+            unsaved = snapshot;
+            for (Map.Entry<UUID, List<PetSnapshot>> entry : snapshot.pets().entrySet()) {
+                // Players who left meanwhile must still load this data, not the stale copy on disk
+                if (!playerPets.containsKey(entry.getKey()) && !deadPets.containsKey(entry.getKey())) {
+                    inFlight.put(entry.getKey(), entry.getValue());
+                }
+            }
+            saveMetrics.recordFailure();
+            plugin.getLogger().severe("Failed to save " + backend.getDescription() + ": " + e.getMessage()
+                + "; keeping " + snapshot.pets().size() + " players for a retry with the next save");
             e.printStackTrace();
         }
     }
     
+    private void onSnapshotWritten(StoreSnapshot snapshot) {
+        // A rejoining player can now read these straight from disk
+        for (Map.Entry<UUID, List<PetSnapshot>> entry : snapshot.pets().entrySet()) {
+            inFlight.remove(entry.getKey(), entry.getValue());
+        }
+        
+        // Journal segments before the checkpoint are now part of the saved data
+        PetJournal current = journal;
+        if (current != null && snapshot.journalCheckpoint() > 0) {
+            current.deleteSegmentsBefore(snapshot.journalCheckpoint());
+        }
+    }
+    
+    /**
+     * Records a mutation durably: as a journal append when the journal is enabled
+     * (folded into the backend on the next auto-save), otherwise as an immediate full save
+     */
+    private void commitMutation(UUID uuid, Consumer<PetJournal> record) {
+        dirtyPlayers.add(uuid);
+        if (journal != null) {
+            record.accept(journal);
+        } else {
+            saveData(); // Immediate save for important operations
+        }
+    }
+    
+    /**
+     * @return Whether the player's stored pets are loaded, so changes build on them rather than
+     * replacing them; always true for backends that load everyone at startup
+     */
+    public boolean isResident(UUID uuid) {
+        return !loadsPerPlayer() || residentPlayers.contains(uuid);
+    }
+    
+    public SaveMetrics getSaveMetrics() {
+        return saveMetrics;
+    }
+    
     public void addPet(UUID uuid, Pet pet) {
         playerPets.computeIfAbsent(uuid, k -> new ArrayList<>()).add(pet);
-        needsSave = true;
-        saveData(); // Immediate save for important operations
+        reindex(uuid);
+        commitMutation(uuid, journal -> journal.appendAdd(pet));
     }
     
     public List<Pet> getPlayerPets(UUID uuid) {
@@ -183,16 +724,32 @@ public class DataManager {
     }
     
     public boolean hasPetType(UUID uuid, String petType) {
-        List<Pet> pets = getPlayerPets(uuid);
-        return pets.stream().anyMatch(pet -> pet.getPetType().equalsIgnoreCase(petType));
+        return getPetByType(uuid, petType) != null;
+    }
+    
+    /**
+     * @return The player's first alive pet of the type (case-insensitive), or null
+     */
+    public Pet getPetByType(UUID uuid, String petType) {
+        PetIndex index = indexes.get(uuid);
+        return index != null ? index.aliveByType(petType) : null;
     }
     
     public Pet getPetByGeneratedName(UUID uuid, String generatedName) {
-        List<Pet> pets = getPlayerPets(uuid);
-        return pets.stream()
-                .filter(pet -> pet.getGeneratedName().equalsIgnoreCase(generatedName))
-                .findFirst()
-                .orElse(null);
+        PetIndex index = indexes.get(uuid);
+        return index != null ? index.aliveByGeneratedName(generatedName) : null;
+    }
+    
+    /**
+     * @return The player's alive pet with this generated name, or else this display name (case-insensitive)
+     */
+    public Pet getPetByName(UUID uuid, String name) {
+        PetIndex index = indexes.get(uuid);
+        if (index == null) {
+            return null;
+        }
+        Pet pet = index.aliveByGeneratedName(name);
+        return pet != null ? pet : index.aliveByDisplayName(name);
     }
     
     public void removePet(UUID uuid, Pet pet) {
@@ -212,8 +769,11 @@ public class DataManager {
             playerPets.remove(uuid);
             deadPets.remove(uuid);
         }
-        needsSave = true;
-        saveData(); // Immediate save for important operations
+        reindex(uuid);
+        if (plugin.getReviveManager() != null) {
+            plugin.getReviveManager().untrack(pet);
+        }
+        commitMutation(uuid, journal -> journal.appendRemove(pet));
     }
     
     public void markPetAsDead(UUID uuid, Pet pet) {
@@ -224,9 +784,10 @@ public class DataManager {
         // Add to dead pets with timestamp
         pet.setDeathTimestamp(System.currentTimeMillis());
         deadPets.computeIfAbsent(uuid, k -> new ArrayList<>()).add(pet);
+        reindex(uuid);
+        trackRevive(uuid, pet);
         
-        needsSave = true;
-        saveData(); // Immediate save for important operations
+        commitMutation(uuid, journal -> journal.appendDeath(pet));
     }
     
     public List<Pet> getDeadPets(UUID uuid) {
@@ -234,12 +795,8 @@ public class DataManager {
     }
     
     public Pet getDeadPetByName(UUID uuid, String petName) {
-        List<Pet> dead = getDeadPets(uuid);
-        return dead.stream()
-                .filter(pet -> pet.getDisplayName().equalsIgnoreCase(petName) || 
-                             pet.getGeneratedName().equalsIgnoreCase(petName))
-                .findFirst()
-                .orElse(null);
+        PetIndex index = indexes.get(uuid);
+        return index != null ? index.deadByName(petName) : null;
     }
     
     public void revivePet(UUID uuid, Pet pet) {
@@ -255,14 +812,47 @@ public class DataManager {
         // Revive and add back to alive pets
         pet.revive();
         playerPets.computeIfAbsent(uuid, k -> new ArrayList<>()).add(pet);
+        reindex(uuid);
+        trackRevive(uuid, pet);
         
-        needsSave = true;
-        saveData(); // Immediate save for important operations
+        commitMutation(uuid, journal -> journal.appendRevive(pet));
+    }
+    
+    /**
+     * Removes a dead pet whose revive window has closed
+     * @return False if the pet is no longer among the player's dead pets
+     */
+    public boolean expireDeadPet(UUID uuid, Pet pet) {
+        List<Pet> dead = deadPets.get(uuid);
+        if (dead == null || !dead.contains(pet)) {
+            return false;
+        }
+        removePet(uuid, pet);
+        return true;
+    }
+    
+    public void renamePet(UUID uuid, Pet pet, String newName) {
+        pet.setCustomName(newName);
+        reindex(uuid);
+        commitMutation(uuid, journal -> journal.appendRename(pet));
     }
     
     public void updatePetHealth(UUID uuid, Pet pet) {
-        // Update pet health in memory (will be saved on next auto-save or explicit save)
-        needsSave = true;
+        // Health ticks below the threshold stay in memory only; reaching full health is always recorded
+        double current = pet.getCurrentHealth();
+        double lastSaved = pet.getLastSavedHealth();
+        boolean significant = Double.isNaN(lastSaved)
+            || Math.abs(current - lastSaved) >= healthSaveThreshold
+            || (current >= pet.getMaxHealth() && lastSaved < pet.getMaxHealth());
+        if (!significant) {
+            return;
+        }
+        
+        pet.setLastSavedHealth(current);
+        dirtyPlayers.add(uuid);
+        if (journal != null) {
+            journal.appendHealth(pet);
+        }
     }
     
     public void close() {
@@ -273,7 +863,37 @@ public class DataManager {
         
         // Final save of all data
         saveDataSync();
-        plugin.getLogger().info("All data saved on plugin disable");
+        
+        boolean flushed = true;
+        PetJournal openJournal = journal;
+        if (saveWriter != null) {
+            long timeout = plugin.getSettings().storage().shutdownFlushTimeoutMillis();
+            // The writer closes the backend and the journal after its last write, so a late write
+            // never runs against a closed store or checkpoints a closed journal
+            StorageBackend store = backend;
+            flushed = saveWriter.close(timeout, () -> {
+                store.close();
+                if (openJournal != null) {
+                    openJournal.close();
+                }
+            });
+            if (!flushed) {
+                // The journal still holds every mutation, so it is replayed on next start
+                plugin.getLogger().warning("Pending pet data writes did not finish within " + timeout
+                    + "ms; they keep going in the background and " + store.getDescription() + " is closed after them");
+            }
+        } else {
+            if (backend != null) {
+                backend.close();
+            }
+            if (openJournal != null) {
+                openJournal.close();
+            }
+        }
+        
+        if (flushed) {
+            plugin.getLogger().info("All data saved on plugin disable");
+        }
     }
 }
 
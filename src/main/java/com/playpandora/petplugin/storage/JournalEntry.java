@@ -0,0 +1,20 @@
+package com.playpandora.petplugin.storage;
+
+import java.util.UUID;
+
+/**
+ * One decoded journal record. Only the fields relevant to the operation are set.
+ * @param op One of the {@link PetJournal} operation codes
+ * @param pet Full pet state for ADD records, null otherwise
+ * @param customName New custom name for RENAME records (null clears it)
+ * @param timestamp Death time for DEATH records
+ */
+public record JournalEntry(byte op,
+                           UUID ownerUUID,
+                           UUID petId,
+                           PetSnapshot pet,
+                           String customName,
+                           double currentHealth,
+                           double maxHealth,
+                           long timestamp) {
+}
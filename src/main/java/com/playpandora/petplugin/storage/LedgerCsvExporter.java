@@ -0,0 +1,113 @@
+package com.playpandora.petplugin.storage;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Streams the transaction ledger to CSV, one row per record, oldest first.
+ *
+ * Runnable without a server, also while the server is running:
+ * java -cp PetPlugin.jar com.playpandora.petplugin.storage.LedgerCsvExporter plugins/PetPlugin/ledger ledger.csv [player uuid]
+ */
+public final class LedgerCsvExporter {
+    
+    private static final String HEADER = "timestamp,time,player,kind,pet_type,amount,outcome";
+    
+    private LedgerCsvExporter() {
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: LedgerCsvExporter <ledger directory> <out.csv> [player uuid]");
+            System.exit(1);
+        }
+        
+        UUID player = args.length > 2 ? UUID.fromString(args[2]) : null;
+        long start = System.nanoTime();
+        long rows = export(new File(args[0]), new File(args[1]), player);
+        System.out.println("Exported " + rows + " ledger records in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+    }
+    
+    /**
+     * Writes the ledger as CSV, replacing the target only once it is complete
+     * @param playerUUID Only export this player's records, or null for all
+     * @return Number of rows written
+     */
+    public static long export(File ledgerDirectory, File target, UUID playerUUID) throws IOException {
+        Path temp = StorageFiles.tempFileFor(target.toPath());
+        Files.createDirectories(temp.toAbsolutePath().getParent());
+        
+        long[] rows = new long[1];
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            out.write('\n');
+            TransactionLedger.read(ledgerDirectory, entry -> {
+                if (playerUUID != null && !playerUUID.equals(entry.playerUUID())) {
+                    return;
+                }
+                try {
+                    writeRow(out, entry);
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new ExportFailedException(e);
+                }
+            });
+        } catch (ExportFailedException e) {
+            Files.deleteIfExists(temp);
+            throw e.getCause();
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        
+        StorageFiles.moveIntoPlace(temp, target.toPath());
+        return rows[0];
+    }
+    
+    private static void writeRow(Writer out, LedgerEntry entry) throws IOException {
+        out.write(Long.toString(entry.timestamp()));
+        out.write(',');
+        out.write(Instant.ofEpochMilli(entry.timestamp()).toString());
+        out.write(',');
+        out.write(entry.playerUUID().toString());
+        out.write(',');
+        out.write(entry.kind().name());
+        out.write(',');
+        out.write(quote(entry.petType()));
+        out.write(',');
+        out.write(String.format(Locale.ROOT, "%.2f", entry.amount()));
+        out.write(',');
+        out.write(entry.outcome().name());
+        out.write('\n');
+    }
+    
+    private static String quote(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+    
+    /**
+     * Carries a write failure out of the ledger callback
+     */
+    private static final class ExportFailedException extends RuntimeException {
+        
+        ExportFailedException(IOException cause) {
+            super(cause);
+        }
+        
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.playpandora.petplugin.storage;
+
+import com.playpandora.petplugin.managers.TransactionManager;
+
+import java.util.UUID;
+
+/**
+ * One decoded ledger record
+ * @param timestamp When the transaction finished, epoch milliseconds
+ * @param petType Pet type id, truncated to what fits in a record
+ * @param amount What the player was charged: the price if completed, otherwise 0 (refunds included)
+ */
+public record LedgerEntry(long timestamp,
+                          UUID playerUUID,
+                          TransactionManager.Kind kind,
+                          String petType,
+                          double amount,
+                          TransactionManager.Outcome outcome) {
+}
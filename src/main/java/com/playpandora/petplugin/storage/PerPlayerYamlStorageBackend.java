@@ -0,0 +1,122 @@
+package com.playpandora.petplugin.storage;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-player backend: one YAML file per player UUID under players/, loaded on login.
+ * Loads are safe from any thread; a file is only ever replaced atomically, so a concurrent
+ * reader sees either the old or the new contents.
+ */
+public class PerPlayerYamlStorageBackend implements StorageBackend {
+    
+    private static final String CHECKPOINT_FILE = "checkpoint.yml";
+    
+    private final File directory;
+    
+    public PerPlayerYamlStorageBackend(File directory) {
+        this.directory = directory;
+    }
+    
+    @Override
+    public boolean loadsPerPlayer() {
+        return true;
+    }
+    
+    @Override
+    public String getDescription() {
+        return directory.getName() + "/";
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        String[] names = directory.list((dir, name) -> name.endsWith(".yml") && !name.equals(CHECKPOINT_FILE));
+        return names == null || names.length == 0;
+    }
+    
+    /**
+     * Reads every player file. Only used for migrations and scanning queries.
+     */
+    @Override
+    public Map<UUID, List<PetSnapshot>> loadAll() {
+        Map<UUID, List<PetSnapshot>> players = new LinkedHashMap<>();
+        String[] names = directory.list((dir, name) -> name.endsWith(".yml") && !name.equals(CHECKPOINT_FILE));
+        if (names == null) {
+            return players;
+        }
+        
+        for (String name : names) {
+            try {
+                UUID uuid = UUID.fromString(name.substring(0, name.length() - 4));
+                players.put(uuid, loadPlayer(uuid));
+            } catch (IllegalArgumentException ignored) {
+                // Not a player file
+            }
+        }
+        return players;
+    }
+    
+    @Override
+    public List<PetSnapshot> loadPlayer(UUID uuid) {
+        File file = playerFile(uuid);
+        if (!file.exists()) {
+            return List.of();
+        }
+        
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        return List.copyOf(PetYamlCodec.readPlayer(config.getConfigurationSection("pets"), uuid));
+    }
+    
+    @Override
+    public long readCheckpoint() {
+        File file = new File(directory, CHECKPOINT_FILE);
+        return file.exists() ? YamlConfiguration.loadConfiguration(file).getLong("journal-checkpoint", 0L) : 0L;
+    }
+    
+    /**
+     * Writes each player in the snapshot to their own file. Players not in the snapshot are
+     * left untouched, so full and incremental snapshots are written the same way.
+     */
+    @Override
+    public long saveBatch(StoreSnapshot snapshot) throws IOException {
+        long bytesWritten = 0;
+        for (Map.Entry<UUID, List<PetSnapshot>> entry : snapshot.pets().entrySet()) {
+            File file = playerFile(entry.getKey());
+            if (entry.getValue().isEmpty()) {
+                Files.deleteIfExists(file.toPath());
+                continue;
+            }
+            
+            YamlConfiguration config = new YamlConfiguration();
+            List<PetSnapshot> pets = entry.getValue();
+            for (int i = 0; i < pets.size(); i++) {
+                PetYamlCodec.write(config, "pets.pet" + i, pets.get(i));
+            }
+            byte[] bytes = config.saveToString().getBytes(StandardCharsets.UTF_8);
+            StorageFiles.replaceFile(file.toPath(), bytes);
+            bytesWritten += bytes.length;
+        }
+        
+        // Written last, so the checkpoint never covers player files that are not on disk yet
+        if (snapshot.journalCheckpoint() > 0) {
+            YamlConfiguration checkpoint = new YamlConfiguration();
+            checkpoint.set("journal-checkpoint", snapshot.journalCheckpoint());
+            byte[] bytes = checkpoint.saveToString().getBytes(StandardCharsets.UTF_8);
+            StorageFiles.replaceFile(new File(directory, CHECKPOINT_FILE).toPath(), bytes);
+            bytesWritten += bytes.length;
+        }
+        return bytesWritten;
+    }
+    
+    private File playerFile(UUID uuid) {
+        return new File(directory, uuid + ".yml");
+    }
+}
@@ -0,0 +1,71 @@
+package com.playpandora.petplugin.storage;
+
+import com.playpandora.petplugin.models.Pet;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lookup tables over one player's pets, keyed by lower-cased type and names.
+ * Where several pets share a key the first one in list order wins, matching the
+ * linear searches these replace.
+ */
+final class PetIndex {
+    
+    private final Map<String, Pet> aliveByType;
+    private final Map<String, Pet> aliveByGeneratedName;
+    private final Map<String, Pet> aliveByDisplayName;
+    private final Map<String, Pet> deadByName; // Display name first, then generated name
+    
+    private PetIndex(int alive, int dead) {
+        this.aliveByType = new HashMap<>(capacity(alive));
+        this.aliveByGeneratedName = new HashMap<>(capacity(alive));
+        this.aliveByDisplayName = new HashMap<>(capacity(alive));
+        this.deadByName = new HashMap<>(capacity(dead * 2));
+    }
+    
+    static PetIndex build(List<Pet> alive, List<Pet> dead) {
+        PetIndex index = new PetIndex(alive.size(), dead.size());
+        for (Pet pet : alive) {
+            index.aliveByType.putIfAbsent(key(pet.getPetType()), pet);
+            index.aliveByGeneratedName.putIfAbsent(key(pet.getGeneratedName()), pet);
+            index.aliveByDisplayName.putIfAbsent(key(pet.getDisplayName()), pet);
+        }
+        for (Pet pet : dead) {
+            index.deadByName.putIfAbsent(key(pet.getDisplayName()), pet);
+        }
+        for (Pet pet : dead) {
+            index.deadByName.putIfAbsent(key(pet.getGeneratedName()), pet);
+        }
+        return index;
+    }
+    
+    Pet aliveByType(String petType) {
+        return aliveByType.get(key(petType));
+    }
+    
+    Pet aliveByGeneratedName(String generatedName) {
+        return aliveByGeneratedName.get(key(generatedName));
+    }
+    
+    Pet aliveByDisplayName(String displayName) {
+        return aliveByDisplayName.get(key(displayName));
+    }
+    
+    Pet deadByName(String name) {
+        return deadByName.get(key(name));
+    }
+    
+    /**
+     * Lower-cases for case-insensitive lookups; already lower-case input is returned as is
+     */
+    static String key(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+    
+    private static int capacity(int entries) {
+        return Math.max(2, (int) (entries / 0.75f) + 1);
+    }
+}
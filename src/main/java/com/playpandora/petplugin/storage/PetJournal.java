@@ -0,0 +1,452 @@
+package com.playpandora.petplugin.storage;
+
+import com.playpandora.petplugin.models.Pet;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of pet mutations.
+ *
+ * Records are encoded into an in-memory buffer on the calling thread and written plus fsynced
+ * in groups by a background flusher. The journal is split into numbered segments; taking a
+ * snapshot rolls over to a new segment, and once that snapshot is on disk every older segment
+ * is folded into it and can be deleted. On startup, segments at or after the snapshot's
+ * checkpoint are replayed on top of it.
+ *
+ * Record layout: [int length][byte op][owner uuid][pet uuid][op payload][int crc32]
+ */
+public class PetJournal {
+    
+    public static final byte ADD = 1;
+    public static final byte REMOVE = 2;
+    public static final byte DEATH = 3;
+    public static final byte REVIVE = 4;
+    public static final byte RENAME = 5;
+    public static final byte HEALTH = 6;
+    
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int MAX_RECORD_LENGTH = 1 << 16;
+    
+    private final File directory;
+    private final Logger logger;
+    private final Object bufferLock = new Object();
+    private final Object ioLock = new Object();
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(256);
+    private final DataOutputStream record = new DataOutputStream(recordBytes);
+    private final CRC32 crc = new CRC32();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream(4096);
+    private ByteArrayOutputStream spare = new ByteArrayOutputStream(4096);
+    private FileChannel channel;
+    private long generation;
+    private ScheduledExecutorService flusher;
+    
+    public PetJournal(File directory, Logger logger) {
+        this.directory = directory;
+        this.logger = logger;
+    }
+    
+    /**
+     * Replays every complete record in segments at or after the checkpoint, oldest first.
+     * A torn or corrupt record ends its segment, since nothing after it can be trusted.
+     * @return Number of records replayed
+     */
+    public int replay(long checkpoint, Consumer<JournalEntry> handler) {
+        int replayed = 0;
+        for (long segment : listSegments()) {
+            if (segment < checkpoint) {
+                continue;
+            }
+            
+            File file = segmentFile(segment);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                while (true) {
+                    JournalEntry entry = readEntry(in);
+                    if (entry == null) {
+                        break;
+                    }
+                    handler.accept(entry);
+                    replayed++;
+                }
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to replay journal segment " + file.getName() + ": " + e.getMessage(), e);
+            }
+        }
+        return replayed;
+    }
+    
+    /**
+     * Opens a fresh segment after all existing ones and starts the group-commit flusher
+     * @param syncIntervalMillis How often buffered records are written and fsynced
+     */
+    public void open(long checkpoint, long syncIntervalMillis) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Could not create journal directory " + directory);
+        }
+        
+        long next = checkpoint;
+        for (long segment : listSegments()) {
+            next = Math.max(next, segment + 1);
+        }
+        
+        synchronized (ioLock) {
+            generation = next;
+            channel = openSegment(generation);
+        }
+        
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PetPlugin-JournalFlusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    public boolean isOpen() {
+        synchronized (ioLock) {
+            return channel != null;
+        }
+    }
+    
+    public void appendAdd(Pet pet) {
+        synchronized (bufferLock) {
+            try {
+                begin(ADD, pet.getOwnerUUID(), pet.getPetId());
+                record.writeUTF(pet.getPetType());
+                record.writeUTF(pet.getGeneratedName());
+                writeNullableString(pet.getCustomName());
+                record.writeDouble(pet.getMaxHealth());
+                record.writeDouble(pet.getCurrentHealth());
+                record.writeLong(pet.getDeathTimestamp() != null ? pet.getDeathTimestamp() : -1L);
+                commit();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+    
+    public void appendRemove(Pet pet) {
+        appendSimple(REMOVE, pet);
+    }
+    
+    public void appendDeath(Pet pet) {
+        synchronized (bufferLock) {
+            try {
+                begin(DEATH, pet.getOwnerUUID(), pet.getPetId());
+                record.writeLong(pet.getDeathTimestamp() != null ? pet.getDeathTimestamp() : System.currentTimeMillis());
+                commit();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+    
+    public void appendRevive(Pet pet) {
+        appendSimple(REVIVE, pet);
+    }
+    
+    public void appendRename(Pet pet) {
+        synchronized (bufferLock) {
+            try {
+                begin(RENAME, pet.getOwnerUUID(), pet.getPetId());
+                writeNullableString(pet.getCustomName());
+                commit();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+    
+    public void appendHealth(Pet pet) {
+        synchronized (bufferLock) {
+            try {
+                begin(HEALTH, pet.getOwnerUUID(), pet.getPetId());
+                record.writeDouble(pet.getCurrentHealth());
+                record.writeDouble(pet.getMaxHealth());
+                commit();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+    
+    /**
+     * Closes the current segment and starts a new one. Everything appended before this call
+     * lives in segments older than the returned generation.
+     * @return The checkpoint to store alongside a snapshot taken right now
+     */
+    public long rollover() {
+        synchronized (ioLock) {
+            FileChannel previous = channel;
+            try {
+                writePending();
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to write journal segment " + generation + ": " + e.getMessage(), e);
+            }
+            
+            generation++;
+            try {
+                channel = openSegment(generation);
+            } catch (IOException e) {
+                channel = null;
+                logger.log(Level.SEVERE, "Failed to open journal segment " + generation + ": " + e.getMessage(), e);
+            }
+            
+            // Leave the fsync of the finished segment to the flusher instead of the caller
+            if (previous != null) {
+                if (flusher != null && !flusher.isShutdown()) {
+                    flusher.execute(() -> forceAndClose(previous));
+                } else {
+                    forceAndClose(previous);
+                }
+            }
+            return generation;
+        }
+    }
+    
+    /**
+     * Deletes segments that a snapshot written with this checkpoint has absorbed
+     */
+    public void deleteSegmentsBefore(long checkpoint) {
+        for (long segment : listSegments()) {
+            if (segment < checkpoint && !segmentFile(segment).delete()) {
+                logger.warning("Failed to delete folded journal segment " + segment);
+            }
+        }
+    }
+    
+    /**
+     * Writes and fsyncs everything appended so far
+     */
+    public void flush() throws IOException {
+        synchronized (ioLock) {
+            if (writePending() && channel != null) {
+                channel.force(false);
+            }
+        }
+    }
+    
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        synchronized (ioLock) {
+            try {
+                flush();
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Failed to close journal: " + e.getMessage(), e);
+            }
+        }
+    }
+    
+    private void forceAndClose(FileChannel segment) {
+        try {
+            segment.force(false);
+            segment.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to close journal segment: " + e.getMessage(), e);
+        }
+    }
+    
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to flush journal: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Swaps out the append buffer and writes it to the current segment. Caller holds ioLock.
+     * @return true if anything was written
+     */
+    private boolean writePending() throws IOException {
+        ByteArrayOutputStream toWrite;
+        synchronized (bufferLock) {
+            if (pending.size() == 0) {
+                return false;
+            }
+            toWrite = pending;
+            pending = spare;
+            spare = toWrite;
+        }
+        
+        // Only this thread touches the swapped-out buffer until it is reset below
+        if (channel != null) {
+            ByteBuffer buffer = ByteBuffer.wrap(toWrite.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        toWrite.reset();
+        return true;
+    }
+    
+    private void appendSimple(byte op, Pet pet) {
+        synchronized (bufferLock) {
+            try {
+                begin(op, pet.getOwnerUUID(), pet.getPetId());
+                commit();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+    
+    private void begin(byte op, UUID ownerUUID, UUID petId) throws IOException {
+        recordBytes.reset();
+        record.writeByte(op);
+        writeUUID(ownerUUID);
+        writeUUID(petId);
+    }
+    
+    private void commit() {
+        byte[] bytes = recordBytes.toByteArray();
+        crc.reset();
+        crc.update(bytes, 0, bytes.length);
+        
+        writeInt(pending, bytes.length);
+        pending.write(bytes, 0, bytes.length);
+        writeInt(pending, (int) crc.getValue());
+    }
+    
+    private void fail(IOException e) {
+        // Encoding into memory only fails on malformed input such as oversized names
+        logger.log(Level.SEVERE, "Failed to encode journal record: " + e.getMessage(), e);
+    }
+    
+    private JournalEntry readEntry(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length <= 0 || length > MAX_RECORD_LENGTH) {
+            return null;
+        }
+        
+        byte[] bytes = new byte[length];
+        int checksum;
+        try {
+            in.readFully(bytes);
+            checksum = in.readInt();
+        } catch (EOFException e) {
+            return null; // Torn tail from a crash mid-write
+        }
+        
+        crc.reset();
+        crc.update(bytes, 0, bytes.length);
+        if ((int) crc.getValue() != checksum) {
+            logger.warning("Journal record checksum mismatch; ignoring the rest of the segment");
+            return null;
+        }
+        
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(bytes));
+        byte op = data.readByte();
+        UUID ownerUUID = readUUID(data);
+        UUID petId = readUUID(data);
+        
+        return switch (op) {
+            case ADD -> {
+                String petType = data.readUTF();
+                String generatedName = data.readUTF();
+                String customName = readNullableString(data);
+                double maxHealth = data.readDouble();
+                double currentHealth = data.readDouble();
+                long deathTimestamp = data.readLong();
+                PetSnapshot pet = new PetSnapshot(petId, ownerUUID, petType, generatedName, customName,
+                    maxHealth, currentHealth, deathTimestamp >= 0 ? deathTimestamp : null);
+                yield new JournalEntry(op, ownerUUID, petId, pet, null, 0, 0, 0);
+            }
+            case DEATH -> new JournalEntry(op, ownerUUID, petId, null, null, 0, 0, data.readLong());
+            case RENAME -> new JournalEntry(op, ownerUUID, petId, null, readNullableString(data), 0, 0, 0);
+            case HEALTH -> {
+                double currentHealth = data.readDouble();
+                double maxHealth = data.readDouble();
+                yield new JournalEntry(op, ownerUUID, petId, null, null, currentHealth, maxHealth, 0);
+            }
+            default -> new JournalEntry(op, ownerUUID, petId, null, null, 0, 0, 0);
+        };
+    }
+    
+    private List<Long> listSegments() {
+        List<Long> segments = new ArrayList<>();
+        String[] names = directory.list();
+        if (names == null) {
+            return segments;
+        }
+        
+        for (String name : names) {
+            if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                try {
+                    segments.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException ignored) {
+                    // Not one of ours
+                }
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+    
+    private File segmentFile(long segment) {
+        return new File(directory, SEGMENT_PREFIX + segment + SEGMENT_SUFFIX);
+    }
+    
+    private FileChannel openSegment(long segment) throws IOException {
+        return FileChannel.open(segmentFile(segment).toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+    
+    private void writeUUID(UUID uuid) throws IOException {
+        record.writeLong(uuid.getMostSignificantBits());
+        record.writeLong(uuid.getLeastSignificantBits());
+    }
+    
+    private static UUID readUUID(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+    
+    private void writeNullableString(String value) throws IOException {
+        record.writeBoolean(value != null);
+        if (value != null) {
+            record.writeUTF(value);
+        }
+    }
+    
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+    
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+}
@@ -0,0 +1,41 @@
+package com.playpandora.petplugin.storage;
+
+import com.playpandora.petplugin.models.Pet;
+
+import java.util.UUID;
+
+/**
+ * Immutable copy of a pet's persistent fields, safe to hand to another thread.
+ */
+public record PetSnapshot(UUID petId,
+                          UUID ownerUUID,
+                          String petType,
+                          String generatedName,
+                          String customName,
+                          double maxHealth,
+                          double currentHealth,
+                          Long deathTimestamp) {
+    
+    public static PetSnapshot of(Pet pet) {
+        return new PetSnapshot(pet.getPetId(), pet.getOwnerUUID(), pet.getPetType(), pet.getGeneratedName(),
+            pet.getCustomName(), pet.getMaxHealth(), pet.getCurrentHealth(), pet.getDeathTimestamp());
+    }
+    
+    public PetSnapshot withPetId(UUID petId) {
+        return new PetSnapshot(petId, ownerUUID, petType, generatedName, customName, maxHealth, currentHealth, deathTimestamp);
+    }
+    
+    public Pet toPet() {
+        Pet pet = new Pet(petId, ownerUUID, petType, generatedName);
+        if (customName != null) {
+            pet.setCustomName(customName);
+        }
+        pet.setMaxHealth(maxHealth);
+        pet.setCurrentHealth(currentHealth);
+        if (deathTimestamp != null) {
+            pet.setDeathTimestamp(deathTimestamp);
+        }
+        pet.setLastSavedHealth(currentHealth);
+        return pet;
+    }
+}
@@ -0,0 +1,82 @@
+package com.playpandora.petplugin.storage;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads and writes the per-pet YAML layout shared by data.yml and the per-player files
+ */
+public final class PetYamlCodec {
+    
+    private PetYamlCodec() {
+    }
+    
+    public static void write(ConfigurationSection config, String path, PetSnapshot pet) {
+        config.set(path + ".id", pet.petId().toString());
+        config.set(path + ".type", pet.petType());
+        config.set(path + ".generatedName", pet.generatedName());
+        if (pet.customName() != null) {
+            config.set(path + ".customName", pet.customName());
+        }
+        config.set(path + ".maxHealth", pet.maxHealth());
+        config.set(path + ".currentHealth", pet.currentHealth());
+        if (pet.deathTimestamp() != null) {
+            config.set(path + ".deathTimestamp", pet.deathTimestamp());
+        }
+    }
+    
+    /**
+     * Reads every pet below a player section (pet0, pet1, ...)
+     */
+    public static List<PetSnapshot> readPlayer(ConfigurationSection playerSection, UUID ownerUUID) {
+        List<PetSnapshot> pets = new ArrayList<>();
+        if (playerSection == null) {
+            return pets;
+        }
+        
+        for (String petKey : playerSection.getKeys(false)) {
+            ConfigurationSection petSection = playerSection.getConfigurationSection(petKey);
+            if (petSection != null) {
+                pets.add(read(petSection, ownerUUID));
+            }
+        }
+        return pets;
+    }
+    
+    public static PetSnapshot read(ConfigurationSection section, UUID ownerUUID) {
+        String petId = section.getString("id");
+        double maxHealth = section.contains("maxHealth") ? section.getDouble("maxHealth") : 20.0;
+        double currentHealth = section.contains("currentHealth") ? section.getDouble("currentHealth") : maxHealth;
+        Long deathTimestamp = section.contains("deathTimestamp") ? section.getLong("deathTimestamp") : null;
+        
+        return new PetSnapshot(
+            petId != null ? UUID.fromString(petId) : legacyPetId(ownerUUID, section.getName()),
+            ownerUUID,
+            section.getString("type"),
+            section.getString("generatedName"),
+            section.getString("customName"),
+            maxHealth,
+            currentHealth,
+            deathTimestamp);
+    }
+    
+    /**
+     * Id for a pet saved before pets had ids. Derived from the owner and the pet's key, so reading
+     * the same file twice gives the same id; random ids would not match journal records written
+     * against the first read.
+     */
+    public static UUID legacyPetId(UUID ownerUUID, String petKey) {
+        return UUID.nameUUIDFromBytes(("PetPlugin:" + ownerUUID + ":" + petKey).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * @return Whether the id came from {@link #legacyPetId}, i.e. the pet was first saved without one
+     */
+    public static boolean isLegacyPetId(UUID petId) {
+        return petId.version() == 3; // Stored ids are random (version 4)
+    }
+}
@@ -0,0 +1,100 @@
+package com.playpandora.petplugin.storage;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for the save pipeline. Snapshot timings are recorded on the main thread,
+ * write timings on the writer thread.
+ */
+public class SaveMetrics {
+    
+    private final LongAdder snapshots = new LongAdder();
+    private final LongAdder snapshotNanos = new LongAdder();
+    private final AtomicLong maxSnapshotNanos = new AtomicLong();
+    private final AtomicLong lastSnapshotPlayers = new AtomicLong();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder writeNanos = new LongAdder();
+    private final AtomicLong maxWriteNanos = new AtomicLong();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final AtomicLong lastBytesWritten = new AtomicLong();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    
+    public void recordSnapshot(long nanos, int players) {
+        snapshots.increment();
+        lastSnapshotPlayers.set(players);
+        snapshotNanos.add(nanos);
+        maxSnapshotNanos.accumulateAndGet(nanos, Math::max);
+    }
+    
+    public void recordWrite(long nanos, long bytes) {
+        writes.increment();
+        writeNanos.add(nanos);
+        maxWriteNanos.accumulateAndGet(nanos, Math::max);
+        bytesWritten.add(bytes);
+        lastBytesWritten.set(bytes);
+    }
+    
+    public void recordCoalesced() {
+        coalesced.increment();
+    }
+    
+    public void recordFailure() {
+        failures.increment();
+    }
+    
+    public long getSnapshotCount() {
+        return snapshots.sum();
+    }
+    
+    public double getAverageSnapshotMillis() {
+        long count = snapshots.sum();
+        return count == 0 ? 0.0 : snapshotNanos.sum() / (double) count / 1_000_000.0;
+    }
+    
+    public double getMaxSnapshotMillis() {
+        return maxSnapshotNanos.get() / 1_000_000.0;
+    }
+    
+    /**
+     * @return How many players' records the last snapshot had to copy and re-serialize
+     */
+    public long getLastSnapshotPlayers() {
+        return lastSnapshotPlayers.get();
+    }
+    
+    public long getWriteCount() {
+        return writes.sum();
+    }
+    
+    public double getAverageWriteMillis() {
+        long count = writes.sum();
+        return count == 0 ? 0.0 : writeNanos.sum() / (double) count / 1_000_000.0;
+    }
+    
+    public double getMaxWriteMillis() {
+        return maxWriteNanos.get() / 1_000_000.0;
+    }
+    
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+    
+    public long getAverageBytesPerWrite() {
+        long count = writes.sum();
+        return count == 0 ? 0 : bytesWritten.sum() / count;
+    }
+    
+    public long getLastBytesWritten() {
+        return lastBytesWritten.get();
+    }
+    
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+    
+    public long getFailureCount() {
+        return failures.sum();
+    }
+}
@@ -0,0 +1,89 @@
+package com.playpandora.petplugin.storage;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-size pool of JDBC connections to one embedded database.
+ * Connections are opened eagerly and handed out one caller at a time.
+ */
+public class SqlConnectionPool implements AutoCloseable {
+    
+    private final BlockingQueue<Connection> idle;
+    private final List<Connection> all = new ArrayList<>();
+    private final long borrowTimeoutMillis;
+    
+    public SqlConnectionPool(String url, int size, long borrowTimeoutMillis, ConnectionInitializer initializer) throws SQLException {
+        this.idle = new ArrayBlockingQueue<>(size);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        try {
+            for (int i = 0; i < size; i++) {
+                Connection connection = DriverManager.getConnection(url);
+                initializer.initialize(connection);
+                all.add(connection);
+                idle.add(connection);
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Borrows a connection; close the returned lease to give it back
+     */
+    public Lease borrow() throws SQLException {
+        try {
+            Connection connection = idle.poll(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+            if (connection == null) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + "ms waiting for a database connection");
+            }
+            return new Lease(connection);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+    }
+    
+    @Override
+    public void close() {
+        for (Connection connection : all) {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // Shutting down anyway
+            }
+        }
+        all.clear();
+        idle.clear();
+    }
+    
+    @FunctionalInterface
+    public interface ConnectionInitializer {
+        void initialize(Connection connection) throws SQLException;
+    }
+    
+    public final class Lease implements AutoCloseable {
+        
+        private final Connection connection;
+        
+        private Lease(Connection connection) {
+            this.connection = connection;
+        }
+        
+        public Connection connection() {
+            return connection;
+        }
+        
+        @Override
+        public void close() {
+            idle.offer(connection);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.playpandora.petplugin.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Embedded SQLite backend. Players are loaded on login with an indexed lookup by owner,
+ * and batch saves replace each player's rows inside a single transaction using batched
+ * prepared statements. Uses the SQLite JDBC driver bundled with the server.
+ */
+public class SqliteStorageBackend implements StorageBackend {
+    
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS pets ("
+            + "pet_id TEXT PRIMARY KEY, "
+            + "owner TEXT NOT NULL, "
+            + "slot INTEGER NOT NULL, "
+            + "type TEXT NOT NULL, "
+            + "generated_name TEXT NOT NULL, "
+            + "custom_name TEXT, "
+            + "max_health REAL NOT NULL, "
+            + "current_health REAL NOT NULL, "
+            + "death_timestamp INTEGER)",
+        "CREATE INDEX IF NOT EXISTS idx_pets_owner ON pets (owner, slot)",
+        "CREATE INDEX IF NOT EXISTS idx_pets_type ON pets (type)",
+        "CREATE INDEX IF NOT EXISTS idx_pets_death ON pets (death_timestamp) WHERE death_timestamp IS NOT NULL",
+        "CREATE TABLE IF NOT EXISTS meta (key TEXT PRIMARY KEY, value INTEGER NOT NULL)"
+    };
+    
+    private static final String COLUMNS = "pet_id, owner, type, generated_name, custom_name, max_health, current_health, death_timestamp";
+    private static final String SELECT_PLAYER = "SELECT " + COLUMNS + " FROM pets WHERE owner = ? ORDER BY slot";
+    private static final String SELECT_ALL = "SELECT " + COLUMNS + " FROM pets ORDER BY owner, slot";
+    private static final String SELECT_DEAD_BEFORE = "SELECT " + COLUMNS + " FROM pets "
+        + "WHERE death_timestamp IS NOT NULL AND death_timestamp < ? ORDER BY death_timestamp LIMIT ?";
+    private static final String COUNT_BY_TYPE = "SELECT type, COUNT(*) FROM pets GROUP BY type ORDER BY type";
+    private static final String DELETE_PLAYER = "DELETE FROM pets WHERE owner = ?";
+    private static final String DELETE_PET = "DELETE FROM pets WHERE owner = ? AND pet_id = ?";
+    private static final String INSERT_PET = "INSERT OR REPLACE INTO pets "
+        + "(pet_id, owner, slot, type, generated_name, custom_name, max_health, current_health, death_timestamp) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPSERT_META = "INSERT OR REPLACE INTO meta (key, value) VALUES (?, ?)";
+    private static final String SELECT_META = "SELECT value FROM meta WHERE key = ?";
+    
+    // Rough on-disk size of one row, reported as bytes written since SQLite does not expose it
+    private static final int ESTIMATED_ROW_BYTES = 160;
+    
+    private final File databaseFile;
+    private final SqlConnectionPool pool;
+    
+    public SqliteStorageBackend(File databaseFile, int poolSize) throws IOException {
+        this.databaseFile = databaseFile;
+        try {
+            Class.forName("org.sqlite.JDBC");
+            this.pool = new SqlConnectionPool("jdbc:sqlite:" + databaseFile.getAbsolutePath(), poolSize, 5000L,
+                SqliteStorageBackend::initializeConnection);
+            try (SqlConnectionPool.Lease lease = pool.borrow(); Statement statement = lease.connection().createStatement()) {
+                for (String sql : SCHEMA) {
+                    statement.execute(sql);
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            throw new IOException("SQLite JDBC driver not found on the server", e);
+        } catch (SQLException e) {
+            throw new IOException("Failed to open " + databaseFile.getName() + ": " + e.getMessage(), e);
+        }
+    }
+    
+    private static void initializeConnection(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // WAL lets login-time reads proceed while the save writer commits
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            statement.execute("PRAGMA busy_timeout=5000");
+        }
+    }
+    
+    @Override
+    public boolean loadsPerPlayer() {
+        return true;
+    }
+    
+    @Override
+    public String getDescription() {
+        return databaseFile.getName();
+    }
+    
+    @Override
+    public boolean isEmpty() throws IOException {
+        try (SqlConnectionPool.Lease lease = pool.borrow();
+             Statement statement = lease.connection().createStatement();
+             ResultSet result = statement.executeQuery("SELECT 1 FROM pets LIMIT 1")) {
+            return !result.next();
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public Map<UUID, List<PetSnapshot>> loadAll() throws IOException {
+        Map<UUID, List<PetSnapshot>> players = new LinkedHashMap<>();
+        try (SqlConnectionPool.Lease lease = pool.borrow();
+             PreparedStatement statement = lease.connection().prepareStatement(SELECT_ALL);
+             ResultSet result = statement.executeQuery()) {
+            while (result.next()) {
+                PetSnapshot pet = readPet(result);
+                players.computeIfAbsent(pet.ownerUUID(), k -> new ArrayList<>()).add(pet);
+            }
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        return players;
+    }
+    
+    @Override
+    public List<PetSnapshot> loadPlayer(UUID uuid) throws IOException {
+        try (SqlConnectionPool.Lease lease = pool.borrow();
+             PreparedStatement statement = lease.connection().prepareStatement(SELECT_PLAYER)) {
+            statement.setString(1, uuid.toString());
+            try (ResultSet result = statement.executeQuery()) {
+                return readPets(result);
+            }
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public long saveBatch(StoreSnapshot snapshot) throws IOException {
+        long rows = 0;
+        try (SqlConnectionPool.Lease lease = pool.borrow()) {
+            Connection connection = lease.connection();
+            connection.setAutoCommit(false);
+            try (PreparedStatement delete = connection.prepareStatement(snapshot.full() ? "DELETE FROM pets" : DELETE_PLAYER);
+                 PreparedStatement insert = connection.prepareStatement(INSERT_PET);
+                 PreparedStatement meta = connection.prepareStatement(UPSERT_META)) {
+                if (snapshot.full()) {
+                    delete.executeUpdate();
+                } else {
+                    for (UUID uuid : snapshot.pets().keySet()) {
+                        delete.setString(1, uuid.toString());
+                        delete.addBatch();
+                    }
+                    delete.executeBatch();
+                }
+                
+                for (Map.Entry<UUID, List<PetSnapshot>> entry : snapshot.pets().entrySet()) {
+                    List<PetSnapshot> pets = entry.getValue();
+                    for (int slot = 0; slot < pets.size(); slot++) {
+                        bindPet(insert, pets.get(slot), slot);
+                        insert.addBatch();
+                        rows++;
+                    }
+                }
+                insert.executeBatch();
+                
+                if (snapshot.journalCheckpoint() > 0) {
+                    meta.setString(1, "journal-checkpoint");
+                    meta.setLong(2, snapshot.journalCheckpoint());
+                    meta.executeUpdate();
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackFailure) {
+                    e.addSuppressed(rollbackFailure); // Report why the batch failed, not just the rollback
+                }
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        return rows * ESTIMATED_ROW_BYTES;
+    }
+    
+    @Override
+    public void deletePet(UUID ownerUUID, UUID petId) throws IOException {
+        try (SqlConnectionPool.Lease lease = pool.borrow();
+             PreparedStatement statement = lease.connection().prepareStatement(DELETE_PET)) {
+            statement.setString(1, ownerUUID.toString());
+            statement.setString(2, petId.toString());
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public List<PetSnapshot> findDeadPetsBefore(long cutoff, int limit) throws IOException {
+        try (SqlConnectionPool.Lease lease = pool.borrow();
+             PreparedStatement statement = lease.connection().prepareStatement(SELECT_DEAD_BEFORE)) {
+            statement.setLong(1, cutoff);
+            statement.setInt(2, limit);
+            try (ResultSet result = statement.executeQuery()) {
+                return readPets(result);
+            }
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public Map<String, Integer> countPetsByType() throws IOException {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        try (SqlConnectionPool.Lease lease = pool.borrow();
+             PreparedStatement statement = lease.connection().prepareStatement(COUNT_BY_TYPE);
+             ResultSet result = statement.executeQuery()) {
+            while (result.next()) {
+                counts.put(result.getString(1), result.getInt(2));
+            }
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        return counts;
+    }
+    
+    @Override
+    public long readCheckpoint() throws IOException {
+        try (SqlConnectionPool.Lease lease = pool.borrow();
+             PreparedStatement statement = lease.connection().prepareStatement(SELECT_META)) {
+            statement.setString(1, "journal-checkpoint");
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() ? result.getLong(1) : 0L;
+            }
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public void close() {
+        pool.close();
+    }
+    
+    private static void bindPet(PreparedStatement statement, PetSnapshot pet, int slot) throws SQLException {
+        statement.setString(1, pet.petId().toString());
+        statement.setString(2, pet.ownerUUID().toString());
+        statement.setInt(3, slot);
+        statement.setString(4, pet.petType());
+        statement.setString(5, pet.generatedName());
+        if (pet.customName() != null) {
+            statement.setString(6, pet.customName());
+        } else {
+            statement.setNull(6, Types.VARCHAR);
+        }
+        statement.setDouble(7, pet.maxHealth());
+        statement.setDouble(8, pet.currentHealth());
+        if (pet.deathTimestamp() != null) {
+            statement.setLong(9, pet.deathTimestamp());
+        } else {
+            statement.setNull(9, Types.BIGINT);
+        }
+    }
+    
+    private static List<PetSnapshot> readPets(ResultSet result) throws SQLException {
+        List<PetSnapshot> pets = new ArrayList<>();
+        while (result.next()) {
+            pets.add(readPet(result));
+        }
+        return pets;
+    }
+    
+    private static PetSnapshot readPet(ResultSet result) throws SQLException {
+        long deathTimestamp = result.getLong(8);
+        boolean alive = result.wasNull();
+        return new PetSnapshot(
+            UUID.fromString(result.getString(1)),
+            UUID.fromString(result.getString(2)),
+            result.getString(3),
+            result.getString(4),
+            result.getString(5),
+            result.getDouble(6),
+            result.getDouble(7),
+            alive ? null : deathTimestamp);
+    }
+}
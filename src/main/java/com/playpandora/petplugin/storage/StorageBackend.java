@@ -0,0 +1,104 @@
+package com.playpandora.petplugin.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Where DataManager persists pets.
+ *
+ * Loads may be called from any thread. Writes (save, batch save, delete) are only issued by one
+ * thread at a time: the background save writer, or the main thread when async saving is off.
+ * The default query implementations scan every player and are meant to be overridden by
+ * backends that can answer them directly.
+ */
+public interface StorageBackend {
+    
+    /**
+     * @return Whether players should be loaded individually on login instead of all at startup
+     */
+    boolean loadsPerPlayer();
+    
+    /**
+     * @return Whether the backend holds no pets at all (used to decide on migrating data.yml)
+     */
+    boolean isEmpty() throws IOException;
+    
+    /**
+     * @return Every player's pets (alive first, then dead)
+     */
+    Map<UUID, List<PetSnapshot>> loadAll() throws IOException;
+    
+    /**
+     * @return The player's pets (alive first, then dead), or an empty list if they have none
+     */
+    default List<PetSnapshot> loadPlayer(UUID uuid) throws IOException {
+        return loadAll().getOrDefault(uuid, List.of());
+    }
+    
+    /**
+     * Persists every player in the snapshot, replacing what was stored for them.
+     * An empty pet list deletes the player. Players not in the snapshot are untouched
+     * unless the snapshot is full.
+     * @return Number of bytes written, or an estimate where the backend cannot tell
+     */
+    long saveBatch(StoreSnapshot snapshot) throws IOException;
+    
+    default void savePlayer(UUID uuid, List<PetSnapshot> pets) throws IOException {
+        saveBatch(new StoreSnapshot(Map.of(uuid, pets), false, System.currentTimeMillis(), 0L));
+    }
+    
+    default void deletePet(UUID ownerUUID, UUID petId) throws IOException {
+        List<PetSnapshot> remaining = new ArrayList<>(loadPlayer(ownerUUID));
+        if (remaining.removeIf(pet -> pet.petId().equals(petId))) {
+            savePlayer(ownerUUID, List.copyOf(remaining));
+        }
+    }
+    
+    /**
+     * @return Dead pets that died before the cutoff, oldest first
+     */
+    default List<PetSnapshot> findDeadPetsBefore(long cutoff, int limit) throws IOException {
+        List<PetSnapshot> dead = new ArrayList<>();
+        for (List<PetSnapshot> pets : loadAll().values()) {
+            for (PetSnapshot pet : pets) {
+                if (pet.deathTimestamp() != null && pet.deathTimestamp() < cutoff) {
+                    dead.add(pet);
+                }
+            }
+        }
+        dead.sort(Comparator.comparingLong(PetSnapshot::deathTimestamp));
+        return dead.size() > limit ? List.copyOf(dead.subList(0, limit)) : dead;
+    }
+    
+    /**
+     * @return Pet type -> Number of stored pets of that type
+     */
+    default Map<String, Integer> countPetsByType() throws IOException {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (List<PetSnapshot> pets : loadAll().values()) {
+            for (PetSnapshot pet : pets) {
+                counts.merge(pet.petType(), 1, Integer::sum);
+            }
+        }
+        return new LinkedHashMap<>(counts);
+    }
+    
+    /**
+     * @return The journal checkpoint stored with the last batch save (0 if none)
+     */
+    long readCheckpoint() throws IOException;
+    
+    /**
+     * @return Short human-readable name of where data goes, for log messages
+     */
+    String getDescription();
+    
+    default void close() {
+    }
+}
@@ -0,0 +1,45 @@
+package com.playpandora.petplugin.storage;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * File helpers shared by the file-based backends. Free of Bukkit types so the offline
+ * converter can use them too.
+ */
+final class StorageFiles {
+    
+    private StorageFiles() {
+    }
+    
+    /**
+     * @return The sibling temporary file a replacement is written to before being moved into place
+     */
+    static Path tempFileFor(Path target) {
+        return target.resolveSibling(target.getFileName() + ".tmp");
+    }
+    
+    /**
+     * Writes to a sibling temporary file and moves it into place
+     */
+    static void replaceFile(Path target, byte[] bytes) throws IOException {
+        Path temp = tempFileFor(target);
+        Files.createDirectories(target.getParent());
+        Files.write(temp, bytes);
+        moveIntoPlace(temp, target);
+    }
+    
+    /**
+     * Moves a fully written temporary file over the target, atomically where the file system allows
+     */
+    static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
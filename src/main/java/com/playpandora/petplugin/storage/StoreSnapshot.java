@@ -0,0 +1,30 @@
+package com.playpandora.petplugin.storage;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Point-in-time copy of changed players' pets (alive first, then dead), captured on the main thread.
+ * @param pets Player UUID -> Pets, in the order they are written; an empty list means the player has no pets left
+ * @param full Whether pets covers every player rather than just those changed since the last snapshot
+ * @param capturedAt When the snapshot was taken (epoch millis)
+ * @param journalCheckpoint First journal segment not folded into this snapshot (0 without a journal)
+ */
+public record StoreSnapshot(Map<UUID, List<PetSnapshot>> pets, boolean full, long capturedAt, long journalCheckpoint) {
+    
+    /**
+     * Combines two snapshots that were never written, newer player data winning
+     */
+    public static StoreSnapshot merge(StoreSnapshot older, StoreSnapshot newer) {
+        if (older == null || newer.full()) {
+            return newer;
+        }
+        
+        Map<UUID, List<PetSnapshot>> pets = new LinkedHashMap<>(older.pets());
+        pets.putAll(newer.pets());
+        return new StoreSnapshot(pets, older.full(), newer.capturedAt(),
+            Math.max(older.journalCheckpoint(), newer.journalCheckpoint()));
+    }
+}
@@ -0,0 +1,374 @@
+package com.playpandora.petplugin.storage;
+
+import com.playpandora.petplugin.managers.TransactionManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only ledger of every purchase and revive, whether or not money changed hands.
+ *
+ * Records have a fixed size and are written straight into a memory-mapped segment, so an
+ * append is a handful of puts with no system call; a background thread forces dirty pages to
+ * disk every {@code ledger.sync-interval-ms}. A full segment is rotated to a new numbered file.
+ * On open, appending resumes after the last valid record of the newest segment, unless a torn or
+ * corrupt record sits before valid ones; then that segment is left alone and a new one is started.
+ *
+ * Segment layout: [int magic][short version][short record size][int capacity][int reserved], then
+ * records of [long timestamp][player uuid][byte kind][byte outcome][short type length][double amount]
+ * [pet type, zero padded][int crc32]. Kind and outcome are stored as their codes. Readers skip
+ * slots that are zero or fail their checksum.
+ */
+public class TransactionLedger {
+    
+    public static final int RECORD_SIZE = 80;
+    
+    private static final int MAGIC = 0x5045544C; // "PETL"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int TYPE_BYTES = 40;
+    private static final int CRC_OFFSET = RECORD_SIZE - 4;
+    private static final String SEGMENT_PREFIX = "ledger-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+    
+    private final File directory;
+    private final Logger logger;
+    private final int segmentRecords;
+    private final CRC32 crc = new CRC32();
+    private MappedByteBuffer segment; // Guarded by this
+    private long generation;
+    private boolean dirty;
+    private long appended;
+    private ScheduledExecutorService flusher;
+    
+    /**
+     * @param segmentRecords Records per segment file before rotating to the next
+     */
+    public TransactionLedger(File directory, Logger logger, int segmentRecords) {
+        this.directory = directory;
+        this.logger = logger;
+        this.segmentRecords = Math.max(1, segmentRecords);
+    }
+    
+    /**
+     * Maps the newest segment, or a first one, and starts the background flusher
+     * @param syncIntervalMillis How often appended records are forced to disk
+     */
+    public synchronized void open(long syncIntervalMillis) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Could not create ledger directory " + directory);
+        }
+        
+        List<Long> segments = listSegments(directory);
+        segment = mapAppendableSegment(segments.isEmpty() ? 0 : segments.get(segments.size() - 1));
+        
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PetPlugin-LedgerFlusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    public synchronized boolean isOpen() {
+        return segment != null;
+    }
+    
+    /**
+     * Records a finished transaction. Does nothing if the ledger is closed.
+     */
+    public synchronized void append(UUID playerUUID, TransactionManager.Kind kind, String petType, double amount,
+                                    TransactionManager.Outcome outcome) {
+        if (segment == null) {
+            return;
+        }
+        if (segment.remaining() < RECORD_SIZE && !rotate()) {
+            return;
+        }
+        
+        byte[] type = encodeType(petType);
+        int start = segment.position();
+        segment.putLong(System.currentTimeMillis());
+        segment.putLong(playerUUID.getMostSignificantBits());
+        segment.putLong(playerUUID.getLeastSignificantBits());
+        segment.put((byte) kind.getCode());
+        segment.put((byte) outcome.getCode());
+        segment.putShort((short) type.length);
+        segment.putDouble(amount);
+        segment.put(type);
+        segment.position(start + CRC_OFFSET);
+        segment.putInt(checksum(segment, start));
+        dirty = true;
+        appended++;
+    }
+    
+    /**
+     * @return Records appended since the ledger was opened
+     */
+    public synchronized long getAppendedCount() {
+        return appended;
+    }
+    
+    public synchronized long getGeneration() {
+        return generation;
+    }
+    
+    public File getDirectory() {
+        return directory;
+    }
+    
+    /**
+     * Forces everything appended so far to disk
+     */
+    public synchronized void flush() {
+        if (segment != null && dirty) {
+            segment.force();
+            dirty = false;
+        }
+    }
+    
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            flush();
+            segment = null; // Unmapped once collected
+        }
+    }
+    
+    /**
+     * Streams every record in the ledger directory, oldest first. Safe while the ledger is open.
+     */
+    public static void read(File directory, Consumer<LedgerEntry> handler) throws IOException {
+        for (long generation : listSegments(directory)) {
+            ByteBuffer buffer = readSegment(segmentFile(directory, generation));
+            if (buffer == null) {
+                continue;
+            }
+            for (int position = HEADER_SIZE; position + RECORD_SIZE <= buffer.limit(); position += RECORD_SIZE) {
+                LedgerEntry entry = decode(buffer, position);
+                if (entry != null) {
+                    handler.accept(entry);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Scans the ledger newest segment first. Safe while the ledger is open.
+     * @param playerUUID Player to look for, or null for everyone
+     * @param limit Most entries to return
+     * @return The player's latest entries, newest first
+     */
+    public static List<LedgerEntry> recent(File directory, UUID playerUUID, int limit) throws IOException {
+        List<LedgerEntry> found = new ArrayList<>();
+        List<Long> segments = listSegments(directory);
+        for (int i = segments.size() - 1; i >= 0 && found.size() < limit; i--) {
+            ByteBuffer buffer = readSegment(segmentFile(directory, segments.get(i)));
+            if (buffer == null) {
+                continue;
+            }
+            
+            Deque<LedgerEntry> matches = new ArrayDeque<>(); // Newest first
+            for (int position = HEADER_SIZE; position + RECORD_SIZE <= buffer.limit(); position += RECORD_SIZE) {
+                LedgerEntry entry = decode(buffer, position);
+                if (entry != null && (playerUUID == null || playerUUID.equals(entry.playerUUID()))) {
+                    matches.addFirst(entry);
+                    if (matches.size() > limit) {
+                        matches.removeLast();
+                    }
+                }
+            }
+            for (LedgerEntry entry : matches) {
+                if (found.size() >= limit) {
+                    break;
+                }
+                found.add(entry);
+            }
+        }
+        return found;
+    }
+    
+    private boolean rotate() {
+        MappedByteBuffer previous = segment;
+        try {
+            segment = mapAppendableSegment(generation + 1);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to open ledger segment " + (generation + 1) + ", transactions are not recorded: " + e.getMessage(), e);
+            return false;
+        }
+        
+        // Leave the final force of the full segment to the flusher instead of the caller
+        if (flusher != null && !flusher.isShutdown()) {
+            flusher.execute(previous::force);
+        } else {
+            previous.force();
+        }
+        return true;
+    }
+    
+    /**
+     * Maps the first segment from the given generation on that can be appended to, and makes it current
+     */
+    private MappedByteBuffer mapAppendableSegment(long first) throws IOException {
+        long candidate = first;
+        MappedByteBuffer buffer;
+        while ((buffer = mapSegment(candidate)) == null) {
+            logger.warning("Ledger segment " + segmentFile(directory, candidate).getName()
+                + " has a damaged record before valid ones; it is kept as is and appending continues in a new segment");
+            candidate++;
+        }
+        generation = candidate;
+        return buffer;
+    }
+    
+    /**
+     * Maps a segment read-write, creating it with a header if needed, positioned after its last valid record
+     * @return The segment, or null if a bad slot is followed by valid records, which appending would overwrite
+     */
+    private MappedByteBuffer mapSegment(long generation) throws IOException {
+        File file = segmentFile(directory, generation);
+        boolean created = !file.exists();
+        long size = HEADER_SIZE + (long) segmentRecords * RECORD_SIZE;
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (!created) {
+                // Keep the capacity the segment was created with
+                size = Math.max(HEADER_SIZE, channel.size());
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (created) {
+                buffer.putInt(MAGIC);
+                buffer.putShort(VERSION);
+                buffer.putShort((short) RECORD_SIZE);
+                buffer.putInt(segmentRecords);
+                buffer.putInt(0);
+            } else if (buffer.getInt(0) != MAGIC || buffer.getShort(6) != RECORD_SIZE) {
+                throw new IOException(file.getName() + " is not a ledger segment of this version");
+            }
+            
+            int position = HEADER_SIZE;
+            while (position + RECORD_SIZE <= buffer.limit() && decode(buffer, position) != null) {
+                position += RECORD_SIZE;
+            }
+            for (int later = position + RECORD_SIZE; later + RECORD_SIZE <= buffer.limit(); later += RECORD_SIZE) {
+                if (decode(buffer, later) != null) {
+                    return null;
+                }
+            }
+            buffer.position(position);
+            return buffer;
+        }
+    }
+    
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Failed to sync transaction ledger: " + e.getMessage(), e);
+        }
+    }
+    
+    private int checksum(ByteBuffer buffer, int start) {
+        crc.reset();
+        crc.update(buffer.duplicate().position(start).limit(start + CRC_OFFSET));
+        return (int) crc.getValue();
+    }
+    
+    private static LedgerEntry decode(ByteBuffer buffer, int position) {
+        long timestamp = buffer.getLong(position);
+        if (timestamp == 0) {
+            return null;
+        }
+        
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(position).limit(position + CRC_OFFSET));
+        if ((int) crc.getValue() != buffer.getInt(position + CRC_OFFSET)) {
+            return null;
+        }
+        
+        TransactionManager.Kind kind = TransactionManager.Kind.fromCode(buffer.get(position + 24));
+        TransactionManager.Outcome outcome = TransactionManager.Outcome.fromCode(buffer.get(position + 25));
+        int typeLength = buffer.getShort(position + 26);
+        if (kind == null || outcome == null || typeLength < 0 || typeLength > TYPE_BYTES) {
+            return null;
+        }
+        
+        byte[] type = new byte[typeLength];
+        buffer.get(position + 36, type);
+        return new LedgerEntry(timestamp,
+            new UUID(buffer.getLong(position + 8), buffer.getLong(position + 16)),
+            kind,
+            new String(type, StandardCharsets.UTF_8),
+            buffer.getDouble(position + 28),
+            outcome);
+    }
+    
+    /**
+     * @return The pet type as UTF-8, cut at a character boundary to fit a record
+     */
+    private static byte[] encodeType(String petType) {
+        String type = petType != null ? petType : "";
+        byte[] bytes = type.getBytes(StandardCharsets.UTF_8);
+        while (bytes.length > TYPE_BYTES) {
+            type = type.substring(0, type.length() - 1);
+            bytes = type.getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+    
+    private static ByteBuffer readSegment(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return null;
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return buffer.getInt(0) == MAGIC && buffer.getShort(6) == RECORD_SIZE ? buffer : null;
+        }
+    }
+    
+    private static List<Long> listSegments(File directory) {
+        List<Long> segments = new ArrayList<>();
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) {
+            return segments;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            try {
+                segments.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+            } catch (NumberFormatException ignored) {
+                // Not one of ours
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+    
+    private static File segmentFile(File directory, long generation) {
+        return new File(directory, SEGMENT_PREFIX + String.format("%08d", generation) + SEGMENT_SUFFIX);
+    }
+}
@@ -0,0 +1,177 @@
+package com.playpandora.petplugin.storage;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Single-file backend: every player's pets in data.yml, all loaded at startup.
+ *
+ * Each player's section is serialized into a cached text fragment, and only players present in
+ * a snapshot are re-serialized; the file is then assembled from the fragments. The cache is
+ * primed from the pets returned by the last load before the first incremental save, so it holds
+ * exactly what the caller has in memory.
+ */
+public class YamlStorageBackend implements StorageBackend {
+    
+    private static final int PARALLEL_READ_THRESHOLD = 256; // Players
+    
+    private final File dataFile;
+    private final Logger logger;
+    private final Map<UUID, String> fragments = new LinkedHashMap<>(); // Player UUID -> Serialized section
+    private boolean primed = false;
+    private Map<UUID, List<PetSnapshot>> loaded; // Last load, kept until the fragments are primed
+    private volatile Long loadedCheckpoint; // Checkpoint as of the last load or save, spares parsing the file again
+    
+    public YamlStorageBackend(File dataFile, Logger logger) {
+        this.dataFile = dataFile;
+        this.logger = logger;
+    }
+    
+    @Override
+    public boolean loadsPerPlayer() {
+        return false;
+    }
+    
+    @Override
+    public String getDescription() {
+        return dataFile.getName();
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return !dataFile.exists() || !YamlConfiguration.loadConfiguration(dataFile).isConfigurationSection("pets");
+    }
+    
+    @Override
+    public Map<UUID, List<PetSnapshot>> loadAll() {
+        if (!dataFile.exists()) {
+            loadedCheckpoint = 0L;
+            return new LinkedHashMap<>();
+        }
+        
+        FileConfiguration config = YamlConfiguration.loadConfiguration(dataFile);
+        loadedCheckpoint = config.getLong("journal-checkpoint", 0L);
+        Map<UUID, List<PetSnapshot>> players = readPlayers(config, logger);
+        if (!primed) {
+            loaded = players;
+        }
+        return players;
+    }
+    
+    @Override
+    public long readCheckpoint() {
+        Long checkpoint = loadedCheckpoint;
+        if (checkpoint != null) {
+            return checkpoint;
+        }
+        return dataFile.exists() ? YamlConfiguration.loadConfiguration(dataFile).getLong("journal-checkpoint", 0L) : 0L;
+    }
+    
+    /**
+     * Reads the top-level "pets" section of a data.yml-style file. The document is already parsed,
+     * so player sections are read in parallel (read-only access to the section tree).
+     */
+    public static Map<UUID, List<PetSnapshot>> readPlayers(FileConfiguration config, Logger logger) {
+        Map<UUID, List<PetSnapshot>> players = new LinkedHashMap<>();
+        ConfigurationSection petsSection = config.getConfigurationSection("pets");
+        if (petsSection == null) {
+            return players;
+        }
+        
+        List<String> keys = new ArrayList<>(petsSection.getKeys(false));
+        List<Map.Entry<UUID, List<PetSnapshot>>> parsed = (keys.size() >= PARALLEL_READ_THRESHOLD ? keys.parallelStream() : keys.stream())
+            .map(uuidString -> {
+                try {
+                    UUID uuid = UUID.fromString(uuidString);
+                    return Map.entry(uuid, PetYamlCodec.readPlayer(petsSection.getConfigurationSection(uuidString), uuid));
+                } catch (IllegalArgumentException e) {
+                    logger.warning("Invalid UUID in data.yml: " + uuidString);
+                    return null;
+                }
+            })
+            .filter(Objects::nonNull)
+            .toList();
+        
+        for (Map.Entry<UUID, List<PetSnapshot>> entry : parsed) {
+            players.put(entry.getKey(), entry.getValue());
+        }
+        return players;
+    }
+    
+    /**
+     * Writes the snapshot to a temporary file and moves it over data.yml,
+     * so a crash mid-write never leaves a truncated file behind.
+     * @return Number of bytes written
+     */
+    @Override
+    public long saveBatch(StoreSnapshot snapshot) throws IOException {
+        if (snapshot.full()) {
+            fragments.clear();
+        } else if (!primed) {
+            // Players outside this snapshot must survive the rewrite
+            Map<UUID, List<PetSnapshot>> players = loaded != null ? loaded : loadAll();
+            for (Map.Entry<UUID, List<PetSnapshot>> entry : players.entrySet()) {
+                fragments.put(entry.getKey(), serializePlayer(entry.getKey(), entry.getValue()));
+            }
+        }
+        primed = true;
+        loaded = null;
+        
+        for (Map.Entry<UUID, List<PetSnapshot>> entry : snapshot.pets().entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                fragments.remove(entry.getKey());
+            } else {
+                fragments.put(entry.getKey(), serializePlayer(entry.getKey(), entry.getValue()));
+            }
+        }
+        
+        StringBuilder out = new StringBuilder(64 + fragments.size() * 512);
+        if (snapshot.journalCheckpoint() > 0) {
+            out.append("journal-checkpoint: ").append(snapshot.journalCheckpoint()).append('\n');
+        }
+        if (!fragments.isEmpty()) {
+            out.append("pets:\n");
+            for (String fragment : fragments.values()) {
+                out.append(fragment);
+            }
+        }
+        
+        byte[] bytes = out.toString().getBytes(StandardCharsets.UTF_8);
+        StorageFiles.replaceFile(dataFile.toPath(), bytes);
+        loadedCheckpoint = snapshot.journalCheckpoint();
+        return bytes.length;
+    }
+    
+    /**
+     * Serializes one player's pets as a section nested under "pets:"
+     */
+    private String serializePlayer(UUID uuid, List<PetSnapshot> pets) {
+        YamlConfiguration config = new YamlConfiguration();
+        String playerPath = uuid.toString();
+        for (int i = 0; i < pets.size(); i++) {
+            PetYamlCodec.write(config, playerPath + ".pet" + i, pets.get(i));
+        }
+        
+        // Indent the standalone document one level so it nests under the top-level key
+        String yaml = config.saveToString();
+        StringBuilder fragment = new StringBuilder(yaml.length() + 64);
+        for (String line : yaml.split("\n")) {
+            if (!line.isEmpty()) {
+                fragment.append("  ").append(line).append('\n');
+            }
+        }
+        return fragment.toString();
+    }
+}
@@ -0,0 +1,153 @@
+package com.playpandora.petplugin.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of primitive ints.
+ * Uses linear probing with backward-shift deletion, so lookups never box and never allocate.
+ * Not thread-safe; intended for main-thread bookkeeping.
+ */
+public class IntHashSet {
+    
+    private static final int FREE = 0;
+    private static final float LOAD_FACTOR = 0.5f;
+    
+    private int[] keys;
+    private int mask;
+    private int size;
+    private boolean containsFree; // FREE marks empty buckets, so the value itself is tracked separately
+    private int resizeThreshold;
+    
+    public IntHashSet() {
+        this(16);
+    }
+    
+    public IntHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+    
+    public boolean contains(int key) {
+        if (key == FREE) {
+            return containsFree;
+        }
+        
+        int index = mix(key) & mask;
+        int current;
+        while ((current = keys[index]) != FREE) {
+            if (current == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+    
+    public boolean add(int key) {
+        if (key == FREE) {
+            if (containsFree) {
+                return false;
+            }
+            containsFree = true;
+            size++;
+            return true;
+        }
+        
+        int index = mix(key) & mask;
+        int current;
+        while ((current = keys[index]) != FREE) {
+            if (current == key) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        
+        keys[index] = key;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+    
+    public boolean remove(int key) {
+        if (key == FREE) {
+            if (!containsFree) {
+                return false;
+            }
+            containsFree = false;
+            size--;
+            return true;
+        }
+        
+        int index = mix(key) & mask;
+        int current;
+        while ((current = keys[index]) != FREE) {
+            if (current == key) {
+                keys[index] = FREE;
+                size--;
+                shiftBack(index);
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        containsFree = false;
+        size = 0;
+    }
+    
+    /**
+     * Closes the gap left by a removal so that later probe chains stay unbroken.
+     */
+    private void shiftBack(int gap) {
+        int index = (gap + 1) & mask;
+        int current;
+        while ((current = keys[index]) != FREE) {
+            int home = mix(current) & mask;
+            // Move the entry into the gap if its home bucket is not between the gap and its slot
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = current;
+                keys[index] = FREE;
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+    
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        allocate(newCapacity);
+        for (int key : oldKeys) {
+            if (key != FREE) {
+                int index = mix(key) & mask;
+                while (keys[index] != FREE) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+    
+    private static int mix(int key) {
+        // Entity ids are sequential, so spread them before masking
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,159 @@
+package com.playpandora.petplugin.util;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: four levels of 64 slots, each level's slot spanning 64 slots of the
+ * level below. Scheduling and cancelling are O(1); advancing touches one slot per elapsed tick,
+ * plus an occasional cascade of a higher-level slot into the levels below it.
+ * Deadlines further out than the wheel spans wait in the top level and are re-placed as it turns.
+ * Not thread-safe; intended for main-thread bookkeeping.
+ */
+public class TimingWheel<T> {
+    
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+    
+    private final long tickMillis;
+    private final Timer<T>[][] slots; // Sentinel heads of circular doubly-linked lists
+    private long currentTick;
+    private int size;
+    
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        this.slots = new Timer[LEVELS][SLOTS];
+        for (Timer<T>[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                Timer<T> head = new Timer<>(null, 0L);
+                head.prev = head;
+                head.next = head;
+                level[i] = head;
+            }
+        }
+    }
+    
+    /**
+     * Schedules an item. It fires on the first advance at or after the deadline (never early);
+     * deadlines already past fire on the next tick.
+     * @return Handle for {@link #cancel}
+     */
+    public Timer<T> schedule(T item, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        Timer<T> timer = new Timer<>(item, Math.max(deadlineTick, currentTick + 1));
+        place(timer);
+        size++;
+        return timer;
+    }
+    
+    /**
+     * @return Whether the timer was still pending
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (timer.next == null) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+    
+    /**
+     * Moves the wheel up to the given time, handing every item whose deadline has passed to the consumer
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            
+            Timer<T> head = slots[0][(int) (currentTick & SLOT_MASK)];
+            while (head.next != head) {
+                Timer<T> timer = head.next;
+                unlink(timer);
+                size--;
+                expired.accept(timer.item);
+            }
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * When a lower level wraps around, redistributes the next slot of the level above it
+     */
+    private void cascade() {
+        int level = 0;
+        while (level < LEVELS - 1 && ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK) == 0) {
+            level++;
+        }
+        // Highest level first, so timers can fall through several levels in one tick
+        for (int l = level; l >= 1; l--) {
+            Timer<T> head = slots[l][(int) ((currentTick >>> (SLOT_BITS * l)) & SLOT_MASK)];
+            Timer<T> timer = head.next;
+            head.next = head;
+            head.prev = head;
+            while (timer != head) {
+                Timer<T> next = timer.next;
+                timer.next = null;
+                timer.prev = null;
+                place(timer);
+                timer = next;
+            }
+        }
+    }
+    
+    private void place(Timer<T> timer) {
+        long delta = timer.deadlineTick - currentTick;
+        long slotTick = timer.deadlineTick;
+        if (delta > MAX_DELTA) {
+            // Park at the far edge of the wheel; it is re-placed when that slot cascades
+            delta = MAX_DELTA;
+            slotTick = currentTick + MAX_DELTA;
+        }
+        
+        int level = 0;
+        if (delta > 0) {
+            level = (63 - Long.numberOfLeadingZeros(delta)) / SLOT_BITS;
+        }
+        Timer<T> head = slots[level][(int) ((slotTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+        timer.prev = head.prev;
+        timer.next = head;
+        head.prev.next = timer;
+        head.prev = timer;
+    }
+    
+    private void unlink(Timer<T> timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+    }
+    
+    public static final class Timer<T> {
+        
+        private final T item;
+        private final long deadlineTick;
+        private Timer<T> prev;
+        private Timer<T> next;
+        
+        private Timer(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+        
+        public T getItem() {
+            return item;
+        }
+        
+        public boolean isPending() {
+            return next != null;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.playpandora.petplugin.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadGovernorSettingsTest {
+    
+    @Test
+    void missingSectionUsesDefaultsWithoutProblems() {
+        ConfigProblems problems = new ConfigProblems();
+        LoadGovernorSettings settings = LoadGovernorSettings.compile(TestConfig.of(Map.of()), problems);
+        
+        assertTrue(problems.isEmpty());
+        assertTrue(settings.enabled());
+        assertEquals(List.of(40.0, 45.0, 50.0, 60.0), settings.thresholds());
+        assertEquals(20, settings.sampleTicks());
+        assertEquals(6, settings.shedChunkPets());
+    }
+    
+    @Test
+    void outOfRangeValuesAreReportedAndReplaced() {
+        ConfigProblems problems = new ConfigProblems();
+        LoadGovernorSettings settings = LoadGovernorSettings.compile(TestConfig.of(Map.of(
+            "load-governor.sample-ticks", 0,
+            "load-governor.recover-margin", -1.0,
+            "load-governor.tick-slowdown", 3)), problems);
+        
+        assertEquals(2, problems.getProblems().size());
+        assertEquals(20, settings.sampleTicks());
+        assertEquals(5.0, settings.recoverMargin(), 0.0);
+        assertEquals(3, settings.slowdown());
+    }
+    
+    @Test
+    void thresholdsMustBeFourAscendingValues() {
+        ConfigProblems problems = new ConfigProblems();
+        LoadGovernorSettings settings = LoadGovernorSettings.compile(TestConfig.of(Map.of(
+            "load-governor.enabled", false,
+            "load-governor.level-thresholds", List.of(50.0, 40.0, 60.0, 70.0))), problems);
+        
+        assertFalse(settings.enabled());
+        assertEquals(1, problems.getProblems().size());
+        assertEquals(List.of(40.0, 45.0, 50.0, 60.0), settings.thresholds());
+        
+        problems = new ConfigProblems();
+        settings = LoadGovernorSettings.compile(TestConfig.of(Map.of(
+            "load-governor.level-thresholds", List.of(30.0, 35.0, 35.0, 45.0))), problems);
+        assertTrue(problems.isEmpty());
+        assertEquals(List.of(30.0, 35.0, 35.0, 45.0), settings.thresholds());
+    }
+}
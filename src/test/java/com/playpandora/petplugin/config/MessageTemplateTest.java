@@ -0,0 +1,55 @@
+package com.playpandora.petplugin.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageTemplateTest {
+    
+    private static final String PREFIX = "&ePandora ";
+    
+    @Test
+    void prefixAndColorsAreAppliedUpFront() {
+        MessageTemplate template = MessageTemplate.compile("{prefix}&7Saved.", PREFIX);
+        assertTrue(template.isConstant());
+        assertEquals("§ePandora §7Saved.", template.render());
+    }
+    
+    @Test
+    void fillsPlaceholdersInOrder() {
+        MessageTemplate template = MessageTemplate.compile("&a{pet} took {damage} damage from {pet}'s foe", PREFIX);
+        assertFalse(template.isConstant());
+        assertEquals("§aRex took 4.5 damage from Rex's foe", template.render("damage", "4.5", "pet", "Rex"));
+    }
+    
+    @Test
+    void missingValuesStayAsWritten() {
+        MessageTemplate template = MessageTemplate.compile("Need {amount} more", PREFIX);
+        assertEquals("Need {amount} more", template.render());
+        assertEquals("Need {amount} more", template.render("other", "1"));
+    }
+    
+    @Test
+    void onlyValuesWithColorCodesAreTranslated() {
+        MessageTemplate template = MessageTemplate.compile("Pet: {name}", PREFIX);
+        assertEquals("Pet: §cRed", template.render("name", "&cRed"));
+        assertEquals("Pet: 100%", template.render("name", "100%"));
+    }
+    
+    @Test
+    void bracesThatAreNotPlaceholdersAreKept() {
+        MessageTemplate template = MessageTemplate.compile("{} {not one} {{pet}} {open", PREFIX);
+        assertEquals("{} {not one} {Rex} {open", template.render("pet", "Rex"));
+    }
+    
+    @Test
+    void renderDoesNotLeakBetweenCalls() {
+        MessageTemplate template = MessageTemplate.compile("[{a}]", PREFIX);
+        String first = template.render("a", "long value");
+        String second = template.render("a", "x");
+        assertEquals("[long value]", first);
+        assertEquals("[x]", second);
+    }
+}
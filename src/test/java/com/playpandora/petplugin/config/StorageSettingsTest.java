@@ -0,0 +1,73 @@
+package com.playpandora.petplugin.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StorageSettingsTest {
+    
+    @Test
+    void missingSectionUsesDefaultsWithoutProblems() {
+        ConfigProblems problems = new ConfigProblems();
+        StorageSettings settings = StorageSettings.compile(TestConfig.of(Map.of()), problems);
+        
+        assertTrue(problems.isEmpty());
+        assertEquals("yaml", settings.backend());
+        assertEquals(2, settings.sqlitePoolSize());
+        assertEquals(10000L, settings.shutdownFlushTimeoutMillis());
+        assertEquals(50L, settings.journalSyncIntervalMillis());
+    }
+    
+    @Test
+    void unknownBackendAndOutOfRangeValuesAreReportedAndReplaced() {
+        ConfigProblems problems = new ConfigProblems();
+        StorageSettings settings = StorageSettings.compile(TestConfig.of(Map.of(
+            "storage.backend", "MongoDB",
+            "storage.sqlite.pool-size", 0,
+            "storage.shutdown-flush-timeout", -1L,
+            "storage.journal.sync-interval-ms", 0L,
+            "storage.health-save-threshold", 0.5)), problems);
+        
+        assertEquals(4, problems.getProblems().size());
+        assertEquals("yaml", settings.backend());
+        assertEquals(2, settings.sqlitePoolSize());
+        assertEquals(10000L, settings.shutdownFlushTimeoutMillis());
+        assertEquals(50L, settings.journalSyncIntervalMillis());
+        assertEquals(0.5, settings.healthSaveThreshold(), 0.0);
+    }
+    
+    @Test
+    void backendIsCaseInsensitive() {
+        ConfigProblems problems = new ConfigProblems();
+        StorageSettings settings = StorageSettings.compile(TestConfig.of(Map.of("storage.backend", "SQLite")), problems);
+        
+        assertTrue(problems.isEmpty());
+        assertEquals("sqlite", settings.backend());
+    }
+    
+    @Test
+    void tickAndReviveSettingsAreValidated() {
+        ConfigProblems problems = new ConfigProblems();
+        PluginSettings settings = PluginSettings.compile(TestConfig.of(Map.of(
+            "pets.tick-buckets", 0,
+            "pets.tick-budget-nanos", 0L,
+            "revive.time-limit-hours", 1.0,
+            "revive.reminder-minutes", List.of(10, 90, 30, 0),
+            "revive.purge-batch-size", -5)), problems);
+        
+        assertEquals(20, settings.tickBuckets());
+        assertEquals(0L, settings.tickBudgetNanos()); // Unlimited
+        assertEquals(3_600_000L, settings.reviveWindowMillis());
+        assertEquals(List.of(30, 10), settings.reviveReminderMinutes());
+        assertEquals(50, settings.revivePurgeBatchSize());
+        
+        List<String> reported = problems.getProblems();
+        assertTrue(reported.stream().anyMatch(problem -> problem.startsWith("pets.tick-buckets")));
+        assertEquals(2, reported.stream().filter(problem -> problem.startsWith("revive.reminder-minutes")).count());
+        assertTrue(reported.stream().anyMatch(problem -> problem.startsWith("revive.purge-batch-size")));
+    }
+}
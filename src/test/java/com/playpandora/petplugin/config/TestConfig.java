@@ -0,0 +1,33 @@
+package com.playpandora.petplugin.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flat key -> value config; typed getters fall back to the given default like Bukkit's do
+ */
+final class TestConfig {
+    
+    private TestConfig() {
+    }
+    
+    static ConfigurationSection of(Map<String, Object> values) {
+        return (ConfigurationSection) Proxy.newProxyInstance(ConfigurationSection.class.getClassLoader(),
+            new Class<?>[]{ConfigurationSection.class}, (proxy, method, args) -> {
+                Object value = args != null && args.length > 0 ? values.get((String) args[0]) : null;
+                return switch (method.getName()) {
+                    case "getBoolean" -> value != null ? value : args.length > 1 && (Boolean) args[1];
+                    case "getInt" -> value != null ? ((Number) value).intValue() : args.length > 1 ? args[1] : 0;
+                    case "getLong" -> value != null ? ((Number) value).longValue() : args.length > 1 ? args[1] : 0L;
+                    case "getDouble" -> value != null ? ((Number) value).doubleValue() : args.length > 1 ? args[1] : 0.0;
+                    case "getString" -> value != null ? value : args.length > 1 ? args[1] : null;
+                    case "getDoubleList", "getIntegerList" -> value != null ? value : List.of();
+                    case "contains", "isSet" -> value != null;
+                    default -> value;
+                };
+            });
+    }
+}
@@ -0,0 +1,134 @@
+package com.playpandora.petplugin.integration;
+
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntegrationBridgeTest {
+    
+    private final Player player = player(UUID.randomUUID());
+    
+    @Test
+    void balanceIsCachedUntilOurOwnWithdrawal() {
+        CountingEconomy economy = new CountingEconomy(100.0);
+        IntegrationBridge bridge = new IntegrationBridge(economy, () -> null, 60_000L, false);
+        
+        assertEquals(100.0, bridge.getBalance(player), 0.0);
+        assertEquals(100.0, bridge.getBalance(player), 0.0);
+        assertEquals(1, economy.reads.get());
+        
+        assertTrue(bridge.withdraw(player, 40.0));
+        assertEquals(60.0, bridge.getBalance(player), 0.0);
+        assertEquals(2, economy.reads.get());
+        assertEquals(1L, bridge.getBalanceHits());
+    }
+    
+    @Test
+    void refreshAlwaysAsksTheEconomy() {
+        CountingEconomy economy = new CountingEconomy(10.0);
+        IntegrationBridge bridge = new IntegrationBridge(economy, () -> null, 60_000L, false);
+        
+        bridge.getBalance(player);
+        bridge.refreshBalance(player);
+        assertEquals(2, economy.reads.get());
+    }
+    
+    @Test
+    void asyncSafetyFollowsTheProviderOrConfig() {
+        assertTrue(new IntegrationBridge(new FakeEconomyProvider(0.0), () -> null, 0L, false).isAsyncSafe());
+        assertFalse(new IntegrationBridge(new CountingEconomy(0.0), () -> null, 0L, false).isAsyncSafe());
+        assertTrue(new IntegrationBridge(new CountingEconomy(0.0), () -> null, 0L, true).isAsyncSafe());
+        assertFalse(new IntegrationBridge(null, () -> null, 0L, true).isAsyncSafe());
+    }
+    
+    @Test
+    void levelsBindOnFirstUseAndRebindOnRequest() {
+        AtomicInteger lookups = new AtomicInteger();
+        LevelProvider[] available = {null};
+        IntegrationBridge bridge = new IntegrationBridge(null, () -> {
+            lookups.incrementAndGet();
+            return available[0];
+        }, 0L, false);
+        assertEquals(0, lookups.get());
+        
+        // Not enabled yet: looked up once, then not again until the retry interval
+        assertEquals(0, bridge.getLevel(player));
+        assertEquals(0, bridge.getLevel(player));
+        assertEquals(1, lookups.get());
+        
+        LevelProvider levels = new FixedLevels(7);
+        available[0] = levels;
+        bridge.rebindLevels();
+        assertEquals(7, bridge.getLevel(player));
+        assertSame(levels, bridge.getLevels());
+        assertEquals(2, lookups.get());
+        
+        available[0] = null;
+        bridge.rebindLevels();
+        assertNull(bridge.getLevels());
+    }
+    
+    private static Player player(UUID uuid) {
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[]{Player.class}, (proxy, method, args) ->
+            switch (method.getName()) {
+                case "getUniqueId" -> uuid;
+                case "getName" -> "Tester";
+                case "hashCode" -> uuid.hashCode();
+                case "equals" -> proxy == args[0];
+                default -> null;
+            });
+    }
+    
+    private static final class CountingEconomy implements EconomyProvider {
+        
+        private final FakeEconomyProvider balances;
+        private final AtomicInteger reads = new AtomicInteger();
+        
+        private CountingEconomy(double startingBalance) {
+            this.balances = new FakeEconomyProvider(startingBalance);
+        }
+        
+        @Override
+        public String getName() {
+            return "Counting";
+        }
+        
+        @Override
+        public double getBalance(Player player) {
+            reads.incrementAndGet();
+            return balances.getBalance(player);
+        }
+        
+        @Override
+        public boolean withdraw(Player player, double amount) {
+            return balances.withdraw(player, amount);
+        }
+        
+        @Override
+        public boolean deposit(Player player, double amount) {
+            return balances.deposit(player, amount);
+        }
+    }
+    
+    private record FixedLevels(int level) implements LevelProvider {
+        
+        @Override
+        public String getName() {
+            return "Fixed";
+        }
+        
+        @Override
+        public int getLevel(Player player) {
+            return level;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.playpandora.petplugin.managers;
+
+import com.playpandora.petplugin.PetPlugin;
+import com.playpandora.petplugin.config.ConfigProblems;
+import com.playpandora.petplugin.config.PluginSettings;
+import com.playpandora.petplugin.listeners.PetListener;
+import com.playpandora.petplugin.models.Pet;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerMoveEvent;
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+/**
+ * Plain timing harness (not run by the test suite) for the owner move handler, per move event.
+ * "before" is the old handler body, which no longer exists: pet lookup, config read and
+ * Location.distance on a fresh location copy for every event. "after" drives the real
+ * PetListener.onPlayerMove and PetManager.handleOwnerMove with default settings. The event stream
+ * is mostly head turns and steps within a block, as on a live server; pets stay within the
+ * teleport distance so no teleports are started. Players and pets are proxies on both sides.
+ * Run with
+ * java -cp target/classes:target/test-classes:&lt;paper-api&gt; com.playpandora.petplugin.managers.OwnerMoveFilterBenchmark
+ */
+public final class OwnerMoveFilterBenchmark {
+    
+    private static final int OWNERS = 200;
+    private static final int EVENTS = 4_000_000;
+    
+    private OwnerMoveFilterBenchmark() {
+    }
+    
+    public static void main(String[] args) throws ReflectiveOperationException {
+        PluginSettings settings = PluginSettings.compile(new YamlConfiguration(), new ConfigProblems());
+        PetPlugin plugin = plugin(settings);
+        PetManager petManager = new PetManager(plugin);
+        setField(plugin, "petManager", petManager);
+        PetListener listener = new PetListener(plugin);
+        
+        World world = TestEntities.world(UUID.randomUUID());
+        Random random = new Random(1L);
+        Player[] owners = new Player[OWNERS];
+        Map<UUID, Entity> pets = new HashMap<>();
+        Map<String, Object> config = new HashMap<>(); // Stands in for the YAML-backed plugin config
+        config.put("pets.teleport-distance", settings.teleportDistance());
+        for (int i = 0; i < OWNERS; i++) {
+            UUID owner = UUID.randomUUID();
+            owners[i] = TestEntities.player(owner);
+            Location home = new Location(world, (i % 20) * 30.0 + 0.5, 64, (i / 20) * 30.0 + 0.5);
+            LivingEntity entity = TestEntities.entity(i, UUID.randomUUID(), home);
+            pets.put(owner, entity);
+            petManager.getTickEngine().add(owner, new Pet(owner, "cat", "Cat" + i), entity);
+        }
+        
+        // Moves near each owner's pet: 70% head turns, 25% steps within a block, 5% block changes
+        PlayerMoveEvent[] events = new PlayerMoveEvent[4096];
+        for (int i = 0; i < events.length; i++) {
+            Player owner = owners[i % OWNERS];
+            Location pet = pets.get(owner.getUniqueId()).getLocation();
+            double x = pet.getX() + random.nextInt(20) - 10;
+            double z = pet.getZ() + random.nextInt(20) - 10;
+            int kind = random.nextInt(100);
+            double step = kind < 70 ? 0.0 : kind < 95 ? 0.3 : 1.0;
+            events[i] = new PlayerMoveEvent(owner, new Location(world, x, 64, z), new Location(world, x + step, 64, z));
+        }
+        
+        for (int round = 0; round < 3; round++) {
+            long beforeNanos = time(() -> {
+                int teleports = 0;
+                for (int i = 0; i < EVENTS; i++) {
+                    PlayerMoveEvent event = events[i & 4095];
+                    Entity pet = pets.get(event.getPlayer().getUniqueId());
+                    double teleportDistance = (Double) config.get("pets.teleport-distance");
+                    Location target = event.getTo();
+                    Location petLoc = pet.getLocation();
+                    if (petLoc.getWorld() != target.getWorld() || petLoc.distance(target) > teleportDistance) {
+                        teleports++;
+                    }
+                }
+                return teleports;
+            });
+            long afterNanos = time(() -> {
+                for (int i = 0; i < EVENTS; i++) {
+                    listener.onPlayerMove(events[i & 4095]);
+                }
+                return petManager.getTeleporter().getPendingCount();
+            });
+            if (round == 2) {
+                System.out.printf("before %6.1f ns/event, after %6.1f ns/event%n",
+                    (double) beforeNanos / EVENTS, (double) afterNanos / EVENTS);
+            }
+        }
+    }
+    
+    /**
+     * A plugin instance holding only the given settings; JavaPlugin refuses to be constructed
+     * outside a server, so the constructor is skipped
+     */
+    private static PetPlugin plugin(PluginSettings settings) throws ReflectiveOperationException {
+        Field theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        PetPlugin plugin = (PetPlugin) ((Unsafe) theUnsafe.get(null)).allocateInstance(PetPlugin.class);
+        setField(plugin, "settings", settings);
+        return plugin;
+    }
+    
+    private static void setField(PetPlugin plugin, String name, Object value) throws ReflectiveOperationException {
+        Field field = PetPlugin.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(plugin, value);
+    }
+    
+    private static long time(IntSupplier work) {
+        long start = System.nanoTime();
+        int result = work.getAsInt();
+        long elapsed = System.nanoTime() - start;
+        if (result < 0) {
+            System.out.println(result); // Keeps the loop from being optimized away
+        }
+        return elapsed;
+    }
+}
@@ -0,0 +1,88 @@
+package com.playpandora.petplugin.managers;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+/**
+ * Plain timing harness (not run by the test suite) for the damage/death event owner lookup:
+ * the old linear scan over active pets against {@link PetEntityRegistry}, for event streams that
+ * are mostly ordinary mobs. Run with
+ * java -cp target/classes:target/test-classes:&lt;paper-api&gt; com.playpandora.petplugin.managers.PetEntityRegistryBenchmark
+ */
+public final class PetEntityRegistryBenchmark {
+    
+    private static final int EVENTS = 2_000_000;
+    private static final int PET_EVERY = 50; // One event in 50 hits a pet
+    
+    private PetEntityRegistryBenchmark() {
+    }
+    
+    public static void main(String[] args) {
+        for (int owners : new int[]{30, 300, 3000}) {
+            run(owners);
+        }
+    }
+    
+    private static void run(int owners) {
+        Location origin = new Location(null, 0, 0, 0);
+        Map<UUID, UUID> activePets = new HashMap<>(); // Owner -> Pet entity UUID, as PetManager kept them
+        PetEntityRegistry registry = new PetEntityRegistry();
+        Entity[] pets = new Entity[owners];
+        for (int i = 0; i < owners; i++) {
+            UUID owner = UUID.randomUUID();
+            pets[i] = TestEntities.entity(i * 2, UUID.randomUUID(), origin);
+            activePets.put(owner, pets[i].getUniqueId());
+            registry.register(pets[i], owner);
+        }
+        Entity[] mobs = new Entity[1024];
+        for (int i = 0; i < mobs.length; i++) {
+            mobs[i] = TestEntities.entity(i * 2 + 1_000_001, UUID.randomUUID(), origin);
+        }
+        
+        for (int round = 0; round < 3; round++) {
+            long scanNanos = time(() -> {
+                int found = 0;
+                for (int i = 0; i < EVENTS; i++) {
+                    Entity entity = i % PET_EVERY == 0 ? pets[i % pets.length] : mobs[i & 1023];
+                    UUID entityUUID = entity.getUniqueId();
+                    for (Map.Entry<UUID, UUID> entry : activePets.entrySet()) {
+                        if (entry.getValue().equals(entityUUID)) {
+                            found++;
+                            break;
+                        }
+                    }
+                }
+                return found;
+            });
+            long registryNanos = time(() -> {
+                int found = 0;
+                for (int i = 0; i < EVENTS; i++) {
+                    Entity entity = i % PET_EVERY == 0 ? pets[i % pets.length] : mobs[i & 1023];
+                    if (registry.getOwner(entity) != null) {
+                        found++;
+                    }
+                }
+                return found;
+            });
+            if (round == 2) {
+                System.out.printf("%5d pets: linear scan %8.1f ns/event, registry %6.1f ns/event%n",
+                    owners, (double) scanNanos / EVENTS, (double) registryNanos / EVENTS);
+            }
+        }
+    }
+    
+    private static long time(IntSupplier work) {
+        long start = System.nanoTime();
+        int result = work.getAsInt();
+        long elapsed = System.nanoTime() - start;
+        if (result < 0) {
+            System.out.println(result); // Keeps the loop from being optimized away
+        }
+        return elapsed;
+    }
+}
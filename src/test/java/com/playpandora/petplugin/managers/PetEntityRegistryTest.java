@@ -0,0 +1,78 @@
+package com.playpandora.petplugin.managers;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PetEntityRegistryTest {
+    
+    private static final Location ORIGIN = new Location(null, 0, 0, 0);
+    
+    @Test
+    void registeredEntityMapsToItsOwner() {
+        PetEntityRegistry registry = new PetEntityRegistry();
+        UUID owner = UUID.randomUUID();
+        Entity pet = TestEntities.entity(17, UUID.randomUUID(), ORIGIN);
+        registry.register(pet, owner);
+        
+        assertTrue(registry.isPetEntity(17));
+        assertEquals(owner, registry.getOwner(pet));
+        assertEquals(owner, registry.getOwner(pet.getUniqueId()));
+        assertEquals(1, registry.size());
+    }
+    
+    @Test
+    void otherEntitiesAreNotPets() {
+        PetEntityRegistry registry = new PetEntityRegistry();
+        registry.register(TestEntities.entity(17, UUID.randomUUID(), ORIGIN), UUID.randomUUID());
+        
+        Entity zombie = TestEntities.entity(18, UUID.randomUUID(), ORIGIN);
+        assertFalse(registry.isPetEntity(18));
+        assertNull(registry.getOwner(zombie));
+    }
+    
+    @Test
+    void unregisterForgetsBothKeys() {
+        PetEntityRegistry registry = new PetEntityRegistry();
+        Entity pet = TestEntities.entity(17, UUID.randomUUID(), ORIGIN);
+        registry.register(pet, UUID.randomUUID());
+        registry.unregister(pet.getUniqueId());
+        registry.unregister(null);
+        
+        assertFalse(registry.isPetEntity(17));
+        assertNull(registry.getOwner(pet));
+        assertEquals(0, registry.size());
+    }
+    
+    @Test
+    void reRegisteringWithNewEntityIdDropsTheOldId() {
+        // An entity keeps its UUID but gets a new numeric id when it is recreated, e.g. after a world change
+        PetEntityRegistry registry = new PetEntityRegistry();
+        UUID uuid = UUID.randomUUID();
+        UUID owner = UUID.randomUUID();
+        registry.register(TestEntities.entity(17, uuid, ORIGIN), owner);
+        registry.register(TestEntities.entity(99, uuid, ORIGIN), owner);
+        
+        assertFalse(registry.isPetEntity(17));
+        assertTrue(registry.isPetEntity(99));
+        assertEquals(1, registry.size());
+    }
+    
+    @Test
+    void clearForgetsEverything() {
+        PetEntityRegistry registry = new PetEntityRegistry();
+        Entity pet = TestEntities.entity(17, UUID.randomUUID(), ORIGIN);
+        registry.register(pet, UUID.randomUUID());
+        registry.clear();
+        
+        assertFalse(registry.isPetEntity(17));
+        assertNull(registry.getOwner(pet.getUniqueId()));
+    }
+}
@@ -0,0 +1,100 @@
+package com.playpandora.petplugin.managers;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+/**
+ * Plain timing harness (not run by the test suite) for "which pets are near here?" at 1k and 10k
+ * pets: a scan of every active pet calling getLocation() on each, as PetManager had to, against
+ * {@link PetSpatialIndex#getOwnersNear}, plus the cost of the per-visit index update. Pets are
+ * spread over a 4000x4000 block area; queries use a 32 block radius. Run with
+ * java -cp target/classes:target/test-classes:&lt;paper-api&gt; com.playpandora.petplugin.managers.PetSpatialIndexBenchmark
+ */
+public final class PetSpatialIndexBenchmark {
+    
+    private static final int QUERIES = 20_000;
+    private static final double RADIUS = 32.0;
+    private static final double AREA = 4_000.0;
+    
+    private PetSpatialIndexBenchmark() {
+    }
+    
+    public static void main(String[] args) {
+        for (int pets : new int[]{1_000, 10_000}) {
+            run(pets);
+        }
+    }
+    
+    private static void run(int count) {
+        Random random = new Random(3L);
+        World world = TestEntities.world(UUID.randomUUID());
+        Map<UUID, Entity> activePets = new HashMap<>();
+        PetSpatialIndex index = new PetSpatialIndex();
+        List<UUID> owners = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UUID owner = UUID.randomUUID();
+            Location location = new Location(world, random.nextDouble() * AREA, 64, random.nextDouble() * AREA);
+            Entity entity = TestEntities.entity(i, UUID.randomUUID(), location);
+            activePets.put(owner, entity);
+            index.update(owner, entity);
+            owners.add(owner);
+        }
+        Location[] centers = new Location[1024];
+        for (int i = 0; i < centers.length; i++) {
+            centers[i] = new Location(world, random.nextDouble() * AREA, 64, random.nextDouble() * AREA);
+        }
+        
+        for (int round = 0; round < 3; round++) {
+            long scanNanos = time(() -> {
+                int found = 0;
+                for (int i = 0; i < QUERIES; i++) {
+                    Location center = centers[i & 1023];
+                    for (Entity entity : activePets.values()) {
+                        Location location = entity.getLocation();
+                        if (location.getWorld() == center.getWorld() && location.distanceSquared(center) <= RADIUS * RADIUS) {
+                            found++;
+                        }
+                    }
+                }
+                return found;
+            });
+            long indexNanos = time(() -> {
+                int found = 0;
+                for (int i = 0; i < QUERIES; i++) {
+                    found += index.getOwnersNear(centers[i & 1023], RADIUS).size();
+                }
+                return found;
+            });
+            long updateNanos = time(() -> {
+                for (int i = 0; i < QUERIES; i++) {
+                    UUID owner = owners.get(i % count);
+                    index.update(owner, activePets.get(owner));
+                }
+                return count;
+            });
+            if (round == 2) {
+                System.out.printf("%6d pets: scan %10.1f ns/query, index %8.1f ns/query, update %6.1f ns/pet%n",
+                    count, (double) scanNanos / QUERIES, (double) indexNanos / QUERIES, (double) updateNanos / QUERIES);
+            }
+        }
+    }
+    
+    private static long time(IntSupplier work) {
+        long start = System.nanoTime();
+        int result = work.getAsInt();
+        long elapsed = System.nanoTime() - start;
+        if (result < 0) {
+            System.out.println(result); // Keeps the loop from being optimized away
+        }
+        return elapsed;
+    }
+}
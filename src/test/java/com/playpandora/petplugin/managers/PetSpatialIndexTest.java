@@ -0,0 +1,120 @@
+package com.playpandora.petplugin.managers;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PetSpatialIndexTest {
+    
+    private final World world = TestEntities.world(UUID.randomUUID());
+    private final World nether = TestEntities.world(UUID.randomUUID());
+    private final PetSpatialIndex index = new PetSpatialIndex();
+    
+    @Test
+    void findsPetsWithinTheRadiusAcrossChunkBorders() {
+        UUID inside = track(new Location(world, 17.0, 64, 0.0));    // Chunk (1, 0)
+        UUID border = track(new Location(world, -1.0, 64, -1.0));   // Chunk (-1, -1)
+        UUID outside = track(new Location(world, 40.0, 64, 0.0));
+        UUID otherWorld = track(new Location(nether, 0.0, 64, 0.0));
+        
+        Set<UUID> near = new HashSet<>(index.getOwnersNear(new Location(world, 8.0, 64, 0.0), 10.0));
+        assertEquals(Set.of(inside, border), near);
+        assertFalse(near.contains(outside) || near.contains(otherWorld));
+    }
+    
+    @Test
+    void radiusIsSphericalNotASquare() {
+        track(new Location(world, 7.0, 64, 7.0)); // sqrt(98) ~ 9.9 from the origin
+        track(new Location(world, 8.0, 64, 8.0)); // sqrt(128) ~ 11.3
+        assertEquals(1, index.getOwnersNear(new Location(world, 0.0, 64, 0.0), 10.0).size());
+    }
+    
+    @Test
+    void leashCheckUsesTheRecordedPosition() {
+        UUID owner = track(new Location(world, 10.0, 64, 0.0));
+        assertTrue(index.isWithin(owner, new Location(world, 0.0, 64, 0.0), 10.0));
+        assertFalse(index.isWithin(owner, new Location(world, -0.5, 64, 0.0), 10.0));
+        assertFalse(index.isWithin(owner, new Location(nether, 10.0, 64, 0.0), 10.0));
+        assertFalse(index.isWithin(UUID.randomUUID(), new Location(world, 10.0, 64, 0.0), 10.0));
+    }
+    
+    @Test
+    void movesBetweenChunksAndWorlds() {
+        UUID owner = UUID.randomUUID();
+        Location location = new Location(world, 1.0, 64, 1.0);
+        Entity entity = TestEntities.entity(1, UUID.randomUUID(), location);
+        index.update(owner, entity);
+        assertEquals(1, index.countInChunk(world, 0, 0));
+        
+        location.setX(-20.0);
+        index.update(owner, entity);
+        assertEquals(0, index.countInChunk(world, 0, 0));
+        assertEquals(1, index.countInChunk(world, -2, 0));
+        assertEquals(1, index.getOccupiedChunkCount());
+        
+        location.setWorld(nether);
+        index.update(owner, entity);
+        assertEquals(0, index.countInChunk(world, -2, 0));
+        assertEquals(1, index.countInChunk(nether, -2, 0));
+        
+        index.remove(owner);
+        assertEquals(0, index.size());
+        assertEquals(0, index.getOccupiedChunkCount());
+    }
+    
+    @Test
+    void denseChunksComeMostCrowdedFirst() {
+        UUID lone = track(new Location(world, 100.0, 64, 100.0));
+        UUID a = track(new Location(world, 1.0, 64, 1.0));
+        UUID b = track(new Location(world, 2.0, 64, 2.0));
+        UUID c = track(new Location(world, 33.0, 64, 1.0));
+        UUID d = track(new Location(world, 34.0, 64, 1.0));
+        UUID e = track(new Location(world, 35.0, 64, 1.0));
+        
+        List<UUID> owners = index.getOwnersInDenseChunks(2);
+        assertEquals(Set.of(c, d, e), new HashSet<>(owners.subList(0, 3)));
+        assertEquals(Set.of(a, b), new HashSet<>(owners.subList(3, 5)));
+        assertFalse(owners.contains(lone));
+    }
+    
+    @Test
+    void matchesABruteForceScan() {
+        Random random = new Random(7L);
+        Location[] locations = new Location[2_000];
+        UUID[] owners = new UUID[locations.length];
+        for (int i = 0; i < locations.length; i++) {
+            locations[i] = new Location(random.nextBoolean() ? world : nether,
+                random.nextDouble() * 1_000 - 500, 64, random.nextDouble() * 1_000 - 500);
+            owners[i] = track(locations[i]);
+        }
+        
+        for (int query = 0; query < 200; query++) {
+            Location center = new Location(world, random.nextDouble() * 1_000 - 500, 64, random.nextDouble() * 1_000 - 500);
+            double radius = random.nextDouble() * 300;
+            Set<UUID> expected = new HashSet<>();
+            for (int i = 0; i < locations.length; i++) {
+                if (locations[i].getWorld() == world && locations[i].distanceSquared(center) <= radius * radius) {
+                    expected.add(owners[i]);
+                }
+            }
+            assertEquals(expected, new HashSet<>(index.getOwnersNear(center, radius)));
+        }
+    }
+    
+    private UUID track(Location location) {
+        UUID owner = UUID.randomUUID();
+        index.update(owner, TestEntities.entity(owner.hashCode(), UUID.randomUUID(), location));
+        return owner;
+    }
+}
@@ -0,0 +1,88 @@
+package com.playpandora.petplugin.managers;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+
+/**
+ * Minimal stand-ins for Bukkit worlds and entities; only the methods the managers under test call
+ * are answered, everything else returns a default.
+ */
+final class TestEntities {
+    
+    private TestEntities() {
+    }
+    
+    static World world(UUID id) {
+        return (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[]{World.class}, (proxy, method, args) ->
+            switch (method.getName()) {
+                case "getUID" -> id;
+                case "hashCode" -> id.hashCode();
+                case "equals" -> proxy == args[0];
+                case "toString" -> "World[" + id + "]";
+                default -> defaultValue(method.getReturnType());
+            });
+    }
+    
+    /**
+     * @param location Read on every call, so moving it moves the entity
+     */
+    static LivingEntity entity(int entityId, UUID uuid, Location location) {
+        return (LivingEntity) Proxy.newProxyInstance(LivingEntity.class.getClassLoader(), new Class<?>[]{LivingEntity.class}, (proxy, method, args) ->
+            switch (method.getName()) {
+                case "getEntityId" -> entityId;
+                case "getUniqueId" -> uuid;
+                case "getLocation" -> copyInto(location, args != null && args.length == 1 ? (Location) args[0] : null);
+                case "isValid" -> true;
+                case "hashCode" -> uuid.hashCode();
+                case "equals" -> proxy == args[0];
+                case "toString" -> "Entity[" + entityId + "]";
+                default -> defaultValue(method.getReturnType());
+            });
+    }
+    
+    static Player player(UUID uuid) {
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[]{Player.class}, (proxy, method, args) ->
+            switch (method.getName()) {
+                case "getUniqueId" -> uuid;
+                case "hashCode" -> uuid.hashCode();
+                case "equals" -> proxy == args[0];
+                case "toString" -> "Player[" + uuid + "]";
+                default -> defaultValue(method.getReturnType());
+            });
+    }
+    
+    private static Location copyInto(Location source, Location target) {
+        if (target == null) {
+            return source.clone();
+        }
+        target.setWorld(source.getWorld());
+        target.setX(source.getX());
+        target.setY(source.getY());
+        target.setZ(source.getZ());
+        return target;
+    }
+    
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == float.class) {
+            return 0.0f;
+        }
+        return null;
+    }
+}
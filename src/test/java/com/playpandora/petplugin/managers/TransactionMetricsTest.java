@@ -0,0 +1,59 @@
+package com.playpandora.petplugin.managers;
+
+import com.playpandora.petplugin.managers.TransactionManager.Outcome;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TransactionMetricsTest {
+    
+    private static final long MILLI = 1_000_000L;
+    
+    @Test
+    void countsEachOutcome() {
+        TransactionMetrics metrics = new TransactionMetrics();
+        metrics.recordCompleted(Outcome.COMPLETED, MILLI);
+        metrics.recordCompleted(Outcome.COMPLETED, MILLI);
+        metrics.recordCompleted(Outcome.INSUFFICIENT_FUNDS, MILLI);
+        metrics.recordCompleted(Outcome.PAYMENT_FAILED, MILLI);
+        metrics.recordCompleted(Outcome.REFUNDED, MILLI);
+        metrics.recordBusy();
+        metrics.recordDuplicate();
+        
+        assertEquals(2L, metrics.getCompletedCount());
+        assertEquals(1L, metrics.getInsufficientCount());
+        assertEquals(1L, metrics.getFailedCount());
+        assertEquals(1L, metrics.getRefundedCount());
+        assertEquals(1L, metrics.getBusyCount());
+        assertEquals(1L, metrics.getDuplicateCount());
+        assertEquals(5, metrics.getPerMinute());
+    }
+    
+    @Test
+    void percentilesUseNearestRank() {
+        TransactionMetrics metrics = new TransactionMetrics();
+        assertEquals(0.0, metrics.getLatencyMillis(50), 0.0);
+        
+        for (int i = 100; i >= 1; i--) {
+            metrics.recordCompleted(Outcome.COMPLETED, i * MILLI);
+        }
+        assertEquals(50.0, metrics.getLatencyMillis(50), 0.0);
+        assertEquals(99.0, metrics.getLatencyMillis(99), 0.0);
+        assertEquals(100.0, metrics.getLatencyMillis(100), 0.0);
+        assertEquals(1.0, metrics.getLatencyMillis(0), 0.0);
+    }
+    
+    @Test
+    void percentilesOnlyCoverTheRecentWindow() {
+        TransactionMetrics metrics = new TransactionMetrics();
+        for (int i = 0; i < 1024; i++) {
+            metrics.recordCompleted(Outcome.COMPLETED, 500 * MILLI);
+        }
+        for (int i = 0; i < 1024; i++) {
+            metrics.recordCompleted(Outcome.COMPLETED, MILLI);
+        }
+        
+        assertEquals(1.0, metrics.getLatencyMillis(100), 0.0);
+        assertEquals(2048L, metrics.getCompletedCount());
+    }
+}
@@ -0,0 +1,136 @@
+package com.playpandora.petplugin.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncSaveWriterTest {
+    
+    private final FlakyBackend backend = new FlakyBackend();
+    private final SaveMetrics metrics = new SaveMetrics();
+    private final List<StoreSnapshot> written = new CopyOnWriteArrayList<>();
+    private final AsyncSaveWriter writer = new AsyncSaveWriter(backend, metrics, quietLogger(), written::add);
+    
+    @Test
+    void failedBatchIsRetriedWithTheNextSubmit() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        backend.failures = 1;
+        
+        assertFalse(writer.write(snapshot(first, 3L)));
+        assertTrue(writer.hasPending());
+        assertEquals(1L, metrics.getFailureCount());
+        
+        writer.submit(snapshot(second, 5L));
+        assertTrue(writer.close(1000L, () -> { }));
+        
+        assertEquals(1, written.size());
+        StoreSnapshot retried = written.get(0);
+        assertTrue(retried.pets().containsKey(first));
+        assertTrue(retried.pets().containsKey(second));
+        assertEquals(5L, retried.journalCheckpoint());
+        assertFalse(writer.hasPending());
+    }
+    
+    @Test
+    void newerDataWinsOverTheFailedBatch() {
+        UUID player = UUID.randomUUID();
+        backend.failures = 1;
+        
+        writer.write(new StoreSnapshot(Map.of(player, List.of()), false, 1L, 7L));
+        writer.submit(snapshot(player, 2L));
+        writer.close(1000L, () -> { });
+        
+        StoreSnapshot retried = written.get(0);
+        assertEquals(1, retried.pets().size());
+        assertEquals(7L, retried.journalCheckpoint());
+    }
+    
+    @Test
+    void failedAsyncWriteIsKeptUntilTheNextSubmit() {
+        UUID player = UUID.randomUUID();
+        backend.failures = 1;
+        
+        writer.submit(snapshot(player, 1L));
+        waitUntil(() -> metrics.getFailureCount() == 1L);
+        assertTrue(writer.hasPending());
+        assertTrue(written.isEmpty());
+        
+        writer.submit(snapshot(UUID.randomUUID(), 2L));
+        writer.close(1000L, () -> { });
+        assertEquals(1, written.size());
+        assertTrue(written.get(0).pets().containsKey(player));
+    }
+    
+    private static StoreSnapshot snapshot(UUID player, long checkpoint) {
+        return new StoreSnapshot(Map.of(player, List.of()), false, System.currentTimeMillis(), checkpoint);
+    }
+    
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 1000L;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Timed out waiting for the writer");
+            }
+            Thread.onSpinWait();
+        }
+    }
+    
+    private static Logger quietLogger() {
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        return logger;
+    }
+    
+    /**
+     * Fails the next {@code failures} batches, then accepts everything
+     */
+    private static class FlakyBackend implements StorageBackend {
+        
+        private volatile int failures;
+        
+        @Override
+        public boolean loadsPerPlayer() {
+            return false;
+        }
+        
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+        
+        @Override
+        public Map<UUID, List<PetSnapshot>> loadAll() {
+            return Map.of();
+        }
+        
+        @Override
+        public long saveBatch(StoreSnapshot snapshot) throws IOException {
+            if (failures > 0) {
+                failures--;
+                throw new IOException("disk full");
+            }
+            return snapshot.pets().size();
+        }
+        
+        @Override
+        public long readCheckpoint() {
+            return 0L;
+        }
+        
+        @Override
+        public String getDescription() {
+            return "flaky test backend";
+        }
+    }
+}
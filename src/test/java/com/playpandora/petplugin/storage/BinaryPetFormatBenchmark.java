@@ -0,0 +1,83 @@
+package com.playpandora.petplugin.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Plain timing harness (not run by the test suite) for a full save and a cold load of the pet
+ * store: data.yml against the binary format, plain and gzip. Pet counts default to 10k and 100k;
+ * pass others (e.g. 1000000) as arguments. Run with
+ * java -cp target/classes:target/test-classes:&lt;paper-api&gt; com.playpandora.petplugin.storage.BinaryPetFormatBenchmark
+ */
+public final class BinaryPetFormatBenchmark {
+    
+    private static final int PETS_PER_PLAYER = 4;
+    private static final String[] TYPES = {"cat", "wolf", "parrot", "fox", "axolotl"};
+    
+    private BinaryPetFormatBenchmark() {
+    }
+    
+    public static void main(String[] args) throws IOException {
+        int[] counts = args.length > 0 ? new int[args.length] : new int[]{10_000, 100_000};
+        for (int i = 0; i < args.length; i++) {
+            counts[i] = Integer.parseInt(args[i]);
+        }
+        
+        Path directory = Files.createTempDirectory("petstore-bench");
+        Logger logger = Logger.getLogger("BinaryPetFormatBenchmark");
+        for (int pets : counts) {
+            StoreSnapshot snapshot = snapshot(pets);
+            File yaml = directory.resolve("data-" + pets + ".yml").toFile();
+            File binary = directory.resolve("pets-" + pets + ".dat").toFile();
+            File gzip = directory.resolve("pets-" + pets + ".dat.gz").toFile();
+            
+            run(pets, "yaml", snapshot, () -> new YamlStorageBackend(yaml, logger), yaml);
+            run(pets, "binary", snapshot, () -> new BinaryStorageBackend(binary, false), binary);
+            run(pets, "binary+gzip", snapshot, () -> new BinaryStorageBackend(gzip, true), gzip);
+        }
+    }
+    
+    private interface BackendFactory {
+        StorageBackend open();
+    }
+    
+    private static void run(int pets, String name, StoreSnapshot snapshot, BackendFactory factory, File file) throws IOException {
+        long saveNanos = Long.MAX_VALUE;
+        long loadNanos = Long.MAX_VALUE;
+        int loaded = 0;
+        // Best of three, each with a fresh backend so nothing is cached between rounds
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            factory.open().saveBatch(snapshot);
+            saveNanos = Math.min(saveNanos, System.nanoTime() - start);
+            
+            start = System.nanoTime();
+            loaded = factory.open().loadAll().size();
+            loadNanos = Math.min(loadNanos, System.nanoTime() - start);
+        }
+        System.out.printf("%8d pets %-12s save %8.1f ms  load %8.1f ms  %10d bytes  (%d players)%n",
+            pets, name, saveNanos / 1e6, loadNanos / 1e6, file.length(), loaded);
+    }
+    
+    private static StoreSnapshot snapshot(int pets) {
+        Map<UUID, List<PetSnapshot>> players = new LinkedHashMap<>();
+        for (int i = 0; i < pets; i += PETS_PER_PLAYER) {
+            UUID owner = UUID.randomUUID();
+            PetSnapshot[] owned = new PetSnapshot[Math.min(PETS_PER_PLAYER, pets - i)];
+            for (int j = 0; j < owned.length; j++) {
+                boolean dead = (i + j) % 10 == 0;
+                owned[j] = new PetSnapshot(UUID.randomUUID(), owner, TYPES[(i + j) % TYPES.length], "Pet" + (i + j),
+                    j == 0 ? "Buddy" : null, 20.0, dead ? 0.0 : 20.0, dead ? 1_700_000_000_000L + i : null);
+            }
+            players.put(owner, List.of(owned));
+        }
+        return new StoreSnapshot(players, true, System.currentTimeMillis(), 0L);
+    }
+}
@@ -0,0 +1,102 @@
+package com.playpandora.petplugin.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinaryPetFormatTest {
+    
+    @Test
+    void roundTripsEveryField() throws IOException {
+        roundTrip(false);
+    }
+    
+    @Test
+    void roundTripsCompressed() throws IOException {
+        roundTrip(true);
+    }
+    
+    @Test
+    void unknownRecordKindsAreSkipped() throws IOException {
+        UUID owner = UUID.randomUUID();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BinaryPetFormat.Writer writer = new BinaryPetFormat.Writer(out, false)) {
+            writer.writePlayer(owner, List.of(pet(owner, "cat", null, null)));
+        }
+        
+        // Splice a record of an unknown kind in front of the first one, right after the 6-byte header
+        byte[] bytes = out.toByteArray();
+        byte[] unknown = {42, 0, 0, 0, 3, 1, 2, 3};
+        byte[] spliced = new byte[bytes.length + unknown.length];
+        System.arraycopy(bytes, 0, spliced, 0, 6);
+        System.arraycopy(unknown, 0, spliced, 6, unknown.length);
+        System.arraycopy(bytes, 6, spliced, 6 + unknown.length, bytes.length - 6);
+        
+        try (BinaryPetFormat.Reader reader = new BinaryPetFormat.Reader(new ByteArrayInputStream(spliced))) {
+            assertEquals(owner, reader.nextPlayer().ownerUUID());
+            assertNull(reader.nextPlayer());
+        }
+    }
+    
+    @Test
+    void truncatedFileIsDetected() throws IOException {
+        UUID owner = UUID.randomUUID();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BinaryPetFormat.Writer writer = new BinaryPetFormat.Writer(out, false)) {
+            writer.writePlayer(owner, List.of(pet(owner, "cat", null, null)));
+        }
+        byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() - 5); // Drops the end record
+        
+        try (BinaryPetFormat.Reader reader = new BinaryPetFormat.Reader(new ByteArrayInputStream(truncated))) {
+            reader.nextPlayer();
+            assertThrows(EOFException.class, reader::nextPlayer);
+        }
+    }
+    
+    @Test
+    void rejectsOtherFilesAndNewerVersions() {
+        byte[] yaml = "players:\n".getBytes();
+        assertThrows(IOException.class, () -> new BinaryPetFormat.Reader(new ByteArrayInputStream(yaml)));
+        
+        byte[] newer = {0x50, 0x45, 0x54, 0x53, BinaryPetFormat.VERSION + 1, 0};
+        assertThrows(IOException.class, () -> new BinaryPetFormat.Reader(new ByteArrayInputStream(newer)));
+    }
+    
+    private static void roundTrip(boolean compress) throws IOException {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        List<PetSnapshot> firstPets = List.of(
+            pet(first, "cat", "Mittens", null),
+            pet(first, "wolf", null, 1_700_000_000_000L));
+        List<PetSnapshot> secondPets = List.of(pet(second, "cat", "Ünïcødé", null));
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BinaryPetFormat.Writer writer = new BinaryPetFormat.Writer(out, compress)) {
+            writer.writeCheckpoint(17L);
+            writer.writePlayer(first, firstPets);
+            writer.writePlayer(second, secondPets);
+        }
+        
+        try (BinaryPetFormat.Reader reader = new BinaryPetFormat.Reader(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(new BinaryPetFormat.Player(first, firstPets), reader.nextPlayer());
+            assertEquals(new BinaryPetFormat.Player(second, secondPets), reader.nextPlayer());
+            assertNull(reader.nextPlayer());
+            assertEquals(17L, reader.getCheckpoint());
+        }
+    }
+    
+    static PetSnapshot pet(UUID owner, String type, String customName, Long deathTimestamp) {
+        return new PetSnapshot(UUID.randomUUID(), owner, type, type + "-" + owner.hashCode(), customName,
+            20.0, deathTimestamp != null ? 0.0 : 13.5, deathTimestamp);
+    }
+}
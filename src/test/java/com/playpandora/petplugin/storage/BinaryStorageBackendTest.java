@@ -0,0 +1,48 @@
+package com.playpandora.petplugin.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryStorageBackendTest {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void deltaKeepsPlayersOutsideTheSnapshot() throws IOException {
+        File file = directory.resolve("pets.dat").toFile();
+        UUID kept = UUID.randomUUID();
+        UUID changed = UUID.randomUUID();
+        UUID removed = UUID.randomUUID();
+        
+        BinaryStorageBackend backend = new BinaryStorageBackend(file, true);
+        assertTrue(backend.isEmpty());
+        backend.saveBatch(new StoreSnapshot(Map.of(
+            kept, List.of(BinaryPetFormatTest.pet(kept, "cat", null, null)),
+            changed, List.of(BinaryPetFormatTest.pet(changed, "cat", null, null)),
+            removed, List.of(BinaryPetFormatTest.pet(removed, "wolf", null, null))), true, 0L, 3L));
+        
+        // A fresh backend has to read the file back before applying a delta
+        BinaryStorageBackend reopened = new BinaryStorageBackend(file, true);
+        List<PetSnapshot> renamed = List.of(BinaryPetFormatTest.pet(changed, "cat", "Tom", null));
+        reopened.saveBatch(new StoreSnapshot(Map.of(changed, renamed, removed, List.of()), false, 0L, 5L));
+        
+        Map<UUID, List<PetSnapshot>> stored = new BinaryStorageBackend(file, true).loadAll();
+        assertEquals(2, stored.size());
+        assertTrue(stored.containsKey(kept));
+        assertEquals(renamed, stored.get(changed));
+        assertFalse(stored.containsKey(removed));
+        assertEquals(5L, reopened.readCheckpoint());
+    }
+}
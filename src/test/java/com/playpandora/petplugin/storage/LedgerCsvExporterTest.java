@@ -0,0 +1,69 @@
+package com.playpandora.petplugin.storage;
+
+import com.playpandora.petplugin.managers.TransactionManager.Kind;
+import com.playpandora.petplugin.managers.TransactionManager.Outcome;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LedgerCsvExporterTest {
+    
+    @TempDir
+    Path directory;
+    
+    private final UUID player = UUID.randomUUID();
+    private final UUID other = UUID.randomUUID();
+    
+    @Test
+    void exportsEveryRecordOldestFirst() throws IOException {
+        File ledgerDirectory = writeLedger();
+        File target = directory.resolve("out/ledger.csv").toFile();
+        
+        assertEquals(3, LedgerCsvExporter.export(ledgerDirectory, target, null));
+        
+        List<String> lines = Files.readAllLines(target.toPath(), StandardCharsets.UTF_8);
+        assertEquals(4, lines.size());
+        assertEquals("timestamp,time,player,kind,pet_type,amount,outcome", lines.get(0));
+        String[] first = lines.get(1).split(",");
+        assertEquals(player.toString(), first[2]);
+        assertEquals("PURCHASE", first[3]);
+        assertEquals("cat", first[4]);
+        assertEquals("250.50", first[5]);
+        assertEquals("COMPLETED", first[6]);
+        assertTrue(lines.get(2).endsWith(",REVIVE,wolf,0.00,INSUFFICIENT_FUNDS"));
+        assertTrue(lines.get(3).endsWith(",PURCHASE,\"odd,\"\"type\"\"\",0.00,REFUNDED"));
+    }
+    
+    @Test
+    void exportsOnlyTheRequestedPlayer() throws IOException {
+        File ledgerDirectory = writeLedger();
+        File target = directory.resolve("player.csv").toFile();
+        
+        assertEquals(2, LedgerCsvExporter.export(ledgerDirectory, target, player));
+        
+        List<String> lines = Files.readAllLines(target.toPath(), StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertTrue(lines.stream().skip(1).allMatch(line -> line.contains(player.toString())));
+    }
+    
+    private File writeLedger() throws IOException {
+        File ledgerDirectory = directory.resolve("ledger").toFile();
+        TransactionLedger ledger = new TransactionLedger(ledgerDirectory, TransactionLedgerTest.quietLogger(), 2);
+        ledger.open(60_000L);
+        ledger.append(player, Kind.PURCHASE, "cat", 250.5, Outcome.COMPLETED);
+        ledger.append(other, Kind.REVIVE, "wolf", 0.0, Outcome.INSUFFICIENT_FUNDS);
+        ledger.append(player, Kind.PURCHASE, "odd,\"type\"", 0.0, Outcome.REFUNDED);
+        ledger.close();
+        return ledgerDirectory;
+    }
+}
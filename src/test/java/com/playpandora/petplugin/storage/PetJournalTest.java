@@ -0,0 +1,124 @@
+package com.playpandora.petplugin.storage;
+
+import com.playpandora.petplugin.models.Pet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PetJournalTest {
+    
+    @TempDir
+    Path directory;
+    
+    private final UUID owner = UUID.randomUUID();
+    
+    @Test
+    void appendedRecordsReplayInOrder() throws IOException {
+        Pet pet = new Pet(UUID.randomUUID(), owner, "cat", "Whiskers");
+        PetJournal journal = open(0L);
+        journal.appendAdd(pet);
+        pet.setCustomName("Tom");
+        journal.appendRename(pet);
+        pet.setMaxHealth(30.0);
+        pet.setCurrentHealth(12.5);
+        journal.appendHealth(pet);
+        pet.setDeathTimestamp(1_700_000_000_000L);
+        journal.appendDeath(pet);
+        journal.appendRemove(pet);
+        journal.close();
+        
+        List<JournalEntry> entries = replay(0L);
+        assertEquals(List.of(PetJournal.ADD, PetJournal.RENAME, PetJournal.HEALTH, PetJournal.DEATH, PetJournal.REMOVE),
+            entries.stream().map(JournalEntry::op).toList());
+        
+        PetSnapshot added = entries.get(0).pet();
+        assertEquals(pet.getPetId(), added.petId());
+        assertEquals(owner, added.ownerUUID());
+        assertEquals("Whiskers", added.generatedName());
+        assertNull(added.customName());
+        assertNull(added.deathTimestamp());
+        assertEquals("Tom", entries.get(1).customName());
+        assertEquals(12.5, entries.get(2).currentHealth(), 0.0);
+        assertEquals(30.0, entries.get(2).maxHealth(), 0.0);
+        assertEquals(1_700_000_000_000L, entries.get(3).timestamp());
+    }
+    
+    @Test
+    void checkpointSkipsSegmentsFoldedIntoTheSnapshot() throws IOException {
+        Pet folded = new Pet(UUID.randomUUID(), owner, "cat", "Before");
+        Pet pending = new Pet(UUID.randomUUID(), owner, "wolf", "After");
+        PetJournal journal = open(0L);
+        journal.appendAdd(folded);
+        long checkpoint = journal.rollover();
+        journal.appendAdd(pending);
+        journal.close();
+        
+        assertEquals(2, replay(0L).size());
+        assertEquals(List.of(pending.getPetId()), replay(checkpoint).stream().map(JournalEntry::petId).toList());
+        
+        journal.deleteSegmentsBefore(checkpoint);
+        assertEquals(List.of(pending.getPetId()), replay(0L).stream().map(JournalEntry::petId).toList());
+    }
+    
+    @Test
+    void reopenedJournalAppendsAfterExistingSegments() throws IOException {
+        Pet first = new Pet(UUID.randomUUID(), owner, "cat", "First");
+        Pet second = new Pet(UUID.randomUUID(), owner, "cat", "Second");
+        PetJournal journal = open(0L);
+        journal.appendAdd(first);
+        journal.close();
+        
+        PetJournal reopened = open(0L);
+        reopened.appendAdd(second);
+        reopened.close();
+        
+        assertEquals(List.of(first.getPetId(), second.getPetId()), replay(0L).stream().map(JournalEntry::petId).toList());
+    }
+    
+    @Test
+    void tornTailEndsTheSegment() throws IOException {
+        PetJournal journal = open(0L);
+        journal.appendAdd(new Pet(UUID.randomUUID(), owner, "cat", "Kept"));
+        journal.appendAdd(new Pet(UUID.randomUUID(), owner, "cat", "Torn"));
+        journal.close();
+        
+        File[] segments = directory.toFile().listFiles();
+        assertEquals(1, segments.length);
+        try (RandomAccessFile segment = new RandomAccessFile(segments[0], "rw")) {
+            segment.setLength(segment.length() - 3);
+        }
+        
+        List<JournalEntry> entries = replay(0L);
+        assertEquals(1, entries.size());
+        assertEquals("Kept", entries.get(0).pet().generatedName());
+    }
+    
+    private PetJournal open(long checkpoint) throws IOException {
+        PetJournal journal = new PetJournal(directory.toFile(), quietLogger());
+        journal.open(checkpoint, 60_000L);
+        return journal;
+    }
+    
+    private List<JournalEntry> replay(long checkpoint) {
+        List<JournalEntry> entries = new ArrayList<>();
+        new PetJournal(directory.toFile(), quietLogger()).replay(checkpoint, entries::add);
+        return entries;
+    }
+    
+    private static Logger quietLogger() {
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        return logger;
+    }
+}
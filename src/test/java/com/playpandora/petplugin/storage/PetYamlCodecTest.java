@@ -0,0 +1,32 @@
+package com.playpandora.petplugin.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PetYamlCodecTest {
+    
+    @Test
+    void legacyIdIsStableAcrossReads() {
+        UUID owner = UUID.randomUUID();
+        assertEquals(PetYamlCodec.legacyPetId(owner, "pet0"), PetYamlCodec.legacyPetId(owner, "pet0"));
+    }
+    
+    @Test
+    void legacyIdDependsOnOwnerAndKey() {
+        UUID owner = UUID.randomUUID();
+        assertNotEquals(PetYamlCodec.legacyPetId(owner, "pet0"), PetYamlCodec.legacyPetId(owner, "pet1"));
+        assertNotEquals(PetYamlCodec.legacyPetId(owner, "pet0"), PetYamlCodec.legacyPetId(UUID.randomUUID(), "pet0"));
+    }
+    
+    @Test
+    void onlyDerivedIdsAreLegacy() {
+        assertTrue(PetYamlCodec.isLegacyPetId(PetYamlCodec.legacyPetId(UUID.randomUUID(), "pet0")));
+        assertFalse(PetYamlCodec.isLegacyPetId(UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,130 @@
+package com.playpandora.petplugin.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqliteStorageBackendTest {
+    
+    @TempDir
+    Path directory;
+    
+    private final UUID owner = UUID.randomUUID();
+    private final UUID other = UUID.randomUUID();
+    
+    @Test
+    void savedPlayerLoadsBackInSlotOrder() throws IOException {
+        SqliteStorageBackend backend = open();
+        assertTrue(backend.isEmpty());
+        List<PetSnapshot> pets = List.of(
+            BinaryPetFormatTest.pet(owner, "wolf", "Rex", null),
+            BinaryPetFormatTest.pet(owner, "cat", null, 1_700_000_000_000L));
+        backend.saveBatch(new StoreSnapshot(Map.of(owner, pets), false, 0L, 0L));
+        
+        assertFalse(backend.isEmpty());
+        assertEquals(pets, backend.loadPlayer(owner));
+        assertEquals(List.of(), backend.loadPlayer(other));
+        backend.close();
+    }
+    
+    @Test
+    void deltaReplacesOnlyThePlayersInTheBatch() throws IOException {
+        SqliteStorageBackend backend = open();
+        List<PetSnapshot> kept = List.of(BinaryPetFormatTest.pet(other, "cat", null, null));
+        backend.saveBatch(new StoreSnapshot(Map.of(
+            owner, List.of(BinaryPetFormatTest.pet(owner, "cat", null, null)),
+            other, kept), true, 0L, 0L));
+        
+        List<PetSnapshot> renamed = List.of(BinaryPetFormatTest.pet(owner, "cat", "Tom", null));
+        backend.saveBatch(new StoreSnapshot(Map.of(owner, renamed), false, 0L, 0L));
+        
+        assertEquals(Map.of(owner, renamed, other, kept), backend.loadAll());
+        backend.close();
+    }
+    
+    @Test
+    void failedBatchRollsBackEveryPlayer() throws IOException {
+        SqliteStorageBackend backend = open();
+        List<PetSnapshot> stored = List.of(BinaryPetFormatTest.pet(owner, "cat", null, null));
+        List<PetSnapshot> otherStored = List.of(BinaryPetFormatTest.pet(other, "wolf", null, null));
+        backend.saveBatch(new StoreSnapshot(Map.of(owner, stored, other, otherStored), false, 0L, 4L));
+        
+        // The missing type violates NOT NULL after both players' rows were already deleted
+        PetSnapshot broken = new PetSnapshot(UUID.randomUUID(), other, null, "Broken", null, 20.0, 20.0, null);
+        StoreSnapshot failing = new StoreSnapshot(Map.of(
+            owner, List.of(BinaryPetFormatTest.pet(owner, "wolf", null, null)),
+            other, List.of(broken)), false, 0L, 9L);
+        assertThrows(IOException.class, () -> backend.saveBatch(failing));
+        
+        assertEquals(stored, backend.loadPlayer(owner));
+        assertEquals(otherStored, backend.loadPlayer(other));
+        assertEquals(4L, backend.readCheckpoint());
+        backend.close();
+    }
+    
+    @Test
+    void deletePetRemovesOnlyThatPet() throws IOException {
+        SqliteStorageBackend backend = open();
+        PetSnapshot removed = BinaryPetFormatTest.pet(owner, "cat", null, null);
+        PetSnapshot kept = BinaryPetFormatTest.pet(owner, "wolf", null, null);
+        backend.saveBatch(new StoreSnapshot(Map.of(owner, List.of(removed, kept)), false, 0L, 0L));
+        
+        // The owner has to match as well as the id
+        backend.deletePet(other, removed.petId());
+        assertEquals(List.of(removed, kept), backend.loadPlayer(owner));
+        
+        backend.deletePet(owner, removed.petId());
+        assertEquals(List.of(kept), backend.loadPlayer(owner));
+        backend.close();
+    }
+    
+    @Test
+    void queriesByTypeAndDeathTime() throws IOException {
+        SqliteStorageBackend backend = open();
+        PetSnapshot oldest = BinaryPetFormatTest.pet(owner, "cat", null, 1_000L);
+        PetSnapshot older = BinaryPetFormatTest.pet(other, "cat", null, 2_000L);
+        PetSnapshot recent = BinaryPetFormatTest.pet(owner, "wolf", null, 9_000L);
+        PetSnapshot alive = BinaryPetFormatTest.pet(other, "parrot", null, null);
+        backend.saveBatch(new StoreSnapshot(Map.of(
+            owner, List.of(recent, oldest),
+            other, List.of(alive, older)), false, 0L, 0L));
+        
+        assertEquals(List.of(oldest, older), backend.findDeadPetsBefore(5_000L, 10));
+        assertEquals(List.of(oldest), backend.findDeadPetsBefore(5_000L, 1));
+        assertEquals(Map.of("cat", 2, "parrot", 1, "wolf", 1), backend.countPetsByType());
+        backend.close();
+    }
+    
+    @Test
+    void reopenedFileKeepsPetsAndCheckpoint() throws IOException {
+        SqliteStorageBackend backend = open();
+        List<PetSnapshot> pets = List.of(BinaryPetFormatTest.pet(owner, "cat", "Ünïcødé", null));
+        backend.saveBatch(new StoreSnapshot(Map.of(owner, pets), false, 0L, 12L));
+        backend.close();
+        
+        SqliteStorageBackend reopened = open();
+        assertEquals(pets, reopened.loadPlayer(owner));
+        assertEquals(12L, reopened.readCheckpoint());
+        
+        // A batch without a checkpoint leaves the stored one alone
+        reopened.saveBatch(new StoreSnapshot(Map.of(other, List.of()), false, 0L, 0L));
+        assertEquals(12L, reopened.readCheckpoint());
+        reopened.close();
+    }
+    
+    private SqliteStorageBackend open() throws IOException {
+        File file = directory.resolve("pets.db").toFile();
+        return new SqliteStorageBackend(file, 2);
+    }
+}
@@ -0,0 +1,164 @@
+package com.playpandora.petplugin.storage;
+
+import com.playpandora.petplugin.managers.TransactionManager.Kind;
+import com.playpandora.petplugin.managers.TransactionManager.Outcome;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TransactionLedgerTest {
+    
+    private static final int HEADER_SIZE = 16;
+    
+    @TempDir
+    Path directory;
+    
+    private final UUID player = UUID.randomUUID();
+    private final UUID other = UUID.randomUUID();
+    
+    @Test
+    void appendedRecordsReadBackInOrder() throws IOException {
+        TransactionLedger ledger = open(10);
+        ledger.append(player, Kind.PURCHASE, "cat", 250.0, Outcome.COMPLETED);
+        ledger.append(other, Kind.REVIVE, "wolf", 0.0, Outcome.INSUFFICIENT_FUNDS);
+        ledger.append(player, Kind.REVIVE, null, 0.0, Outcome.REFUNDED);
+        assertEquals(3, ledger.getAppendedCount());
+        ledger.close();
+        
+        List<LedgerEntry> entries = read();
+        assertEquals(3, entries.size());
+        LedgerEntry first = entries.get(0);
+        assertEquals(player, first.playerUUID());
+        assertEquals(Kind.PURCHASE, first.kind());
+        assertEquals("cat", first.petType());
+        assertEquals(250.0, first.amount(), 0.0);
+        assertEquals(Outcome.COMPLETED, first.outcome());
+        assertEquals(Outcome.INSUFFICIENT_FUNDS, entries.get(1).outcome());
+        assertEquals("", entries.get(2).petType());
+        assertEquals(Outcome.REFUNDED, entries.get(2).outcome());
+    }
+    
+    @Test
+    void kindAndOutcomeAreStoredAsTheirCodes() throws IOException {
+        TransactionLedger ledger = open(10);
+        ledger.append(player, Kind.REVIVE, "cat", 0.0, Outcome.PAYMENT_FAILED);
+        ledger.close();
+        
+        try (RandomAccessFile segment = new RandomAccessFile(segments()[0], "r")) {
+            segment.seek(HEADER_SIZE + 24);
+            assertEquals(Kind.REVIVE.getCode(), segment.readByte());
+            assertEquals(Outcome.PAYMENT_FAILED.getCode(), segment.readByte());
+        }
+        for (Kind kind : Kind.values()) {
+            assertEquals(kind, Kind.fromCode(kind.getCode()));
+        }
+        for (Outcome outcome : Outcome.values()) {
+            assertEquals(outcome, Outcome.fromCode(outcome.getCode()));
+        }
+        assertNull(Kind.fromCode(99));
+    }
+    
+    @Test
+    void fullSegmentRotatesToTheNext() throws IOException {
+        TransactionLedger ledger = open(2);
+        for (int i = 0; i < 5; i++) {
+            ledger.append(player, Kind.PURCHASE, "type" + i, i, Outcome.COMPLETED);
+        }
+        assertEquals(2, ledger.getGeneration());
+        ledger.close();
+        
+        assertEquals(3, segments().length);
+        assertEquals(List.of("type0", "type1", "type2", "type3", "type4"), read().stream().map(LedgerEntry::petType).toList());
+    }
+    
+    @Test
+    void reopenedLedgerResumesAfterTheLastRecord() throws IOException {
+        TransactionLedger ledger = open(10);
+        ledger.append(player, Kind.PURCHASE, "first", 1.0, Outcome.COMPLETED);
+        ledger.close();
+        
+        TransactionLedger reopened = open(10);
+        assertEquals(0, reopened.getGeneration());
+        reopened.append(player, Kind.PURCHASE, "second", 2.0, Outcome.COMPLETED);
+        reopened.close();
+        
+        assertEquals(1, segments().length);
+        assertEquals(List.of("first", "second"), read().stream().map(LedgerEntry::petType).toList());
+    }
+    
+    @Test
+    void tornRecordBeforeValidOnesStartsANewSegment() throws IOException {
+        TransactionLedger ledger = open(10);
+        ledger.append(player, Kind.PURCHASE, "kept", 1.0, Outcome.COMPLETED);
+        ledger.append(player, Kind.PURCHASE, "torn", 2.0, Outcome.COMPLETED);
+        ledger.append(player, Kind.PURCHASE, "after", 3.0, Outcome.COMPLETED);
+        ledger.close();
+        
+        try (RandomAccessFile segment = new RandomAccessFile(segments()[0], "rw")) {
+            segment.seek(HEADER_SIZE + TransactionLedger.RECORD_SIZE + 30);
+            segment.writeByte(0x7F);
+        }
+        
+        TransactionLedger reopened = open(10);
+        assertEquals(1, reopened.getGeneration());
+        reopened.append(player, Kind.PURCHASE, "new", 4.0, Outcome.COMPLETED);
+        reopened.close();
+        
+        assertEquals(2, segments().length);
+        assertEquals(List.of("kept", "after", "new"), read().stream().map(LedgerEntry::petType).toList());
+    }
+    
+    @Test
+    void recentReturnsTheNewestMatchesAcrossSegments() throws IOException {
+        TransactionLedger ledger = open(2);
+        for (int i = 0; i < 5; i++) {
+            ledger.append(i % 2 == 0 ? player : other, Kind.PURCHASE, "type" + i, i, Outcome.COMPLETED);
+        }
+        ledger.close();
+        
+        File ledgerDirectory = directory.toFile();
+        assertEquals(List.of("type4", "type2", "type0"),
+            TransactionLedger.recent(ledgerDirectory, player, 10).stream().map(LedgerEntry::petType).toList());
+        assertEquals(List.of("type4", "type2"),
+            TransactionLedger.recent(ledgerDirectory, player, 2).stream().map(LedgerEntry::petType).toList());
+        assertEquals(List.of("type4", "type3", "type2"),
+            TransactionLedger.recent(ledgerDirectory, null, 3).stream().map(LedgerEntry::petType).toList());
+        assertEquals(List.of(), TransactionLedger.recent(ledgerDirectory, UUID.randomUUID(), 5));
+    }
+    
+    private TransactionLedger open(int segmentRecords) throws IOException {
+        TransactionLedger ledger = new TransactionLedger(directory.toFile(), quietLogger(), segmentRecords);
+        ledger.open(60_000L);
+        return ledger;
+    }
+    
+    private List<LedgerEntry> read() throws IOException {
+        List<LedgerEntry> entries = new ArrayList<>();
+        TransactionLedger.read(directory.toFile(), entries::add);
+        return entries;
+    }
+    
+    private File[] segments() {
+        File[] files = directory.toFile().listFiles();
+        Arrays.sort(files);
+        return files;
+    }
+    
+    static Logger quietLogger() {
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        return logger;
+    }
+}
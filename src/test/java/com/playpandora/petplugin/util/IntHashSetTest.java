@@ -0,0 +1,102 @@
+package com.playpandora.petplugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntHashSetTest {
+    
+    @Test
+    void addContainsRemove() {
+        IntHashSet set = new IntHashSet();
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.contains(42));
+        assertFalse(set.contains(43));
+        assertEquals(1, set.size());
+        
+        assertTrue(set.remove(42));
+        assertFalse(set.remove(42));
+        assertFalse(set.contains(42));
+        assertTrue(set.isEmpty());
+    }
+    
+    @Test
+    void zeroIsAnOrdinaryKey() {
+        IntHashSet set = new IntHashSet();
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+        assertTrue(set.remove(0));
+        assertFalse(set.contains(0));
+        assertEquals(0, set.size());
+    }
+    
+    @Test
+    void growsPastInitialCapacity() {
+        IntHashSet set = new IntHashSet(4);
+        for (int i = 1; i <= 10_000; i++) {
+            assertTrue(set.add(i));
+        }
+        assertEquals(10_000, set.size());
+        for (int i = 1; i <= 10_000; i++) {
+            assertTrue(set.contains(i), "missing " + i);
+        }
+        assertFalse(set.contains(10_001));
+    }
+    
+    @Test
+    void removalKeepsProbeChainsIntact() {
+        // Sequential ids like the server hands out, removed in an interleaved order
+        IntHashSet set = new IntHashSet(16);
+        for (int i = 1; i <= 1000; i++) {
+            set.add(i);
+        }
+        for (int i = 1; i <= 1000; i += 2) {
+            assertTrue(set.remove(i));
+        }
+        for (int i = 1; i <= 1000; i++) {
+            assertEquals(i % 2 == 0, set.contains(i), "key " + i);
+        }
+        assertEquals(500, set.size());
+    }
+    
+    @Test
+    void matchesHashSetUnderRandomOperations() {
+        Random random = new Random(7);
+        IntHashSet set = new IntHashSet();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(2048) - 1024;
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.add(key), set.add(key));
+                case 1 -> assertEquals(expected.remove(key), set.remove(key));
+                default -> assertEquals(expected.contains(key), set.contains(key));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        for (int key = -1024; key < 1024; key++) {
+            assertEquals(expected.contains(key), set.contains(key), "key " + key);
+        }
+    }
+    
+    @Test
+    void clearEmptiesTheSet() {
+        IntHashSet set = new IntHashSet();
+        set.add(0);
+        set.add(5);
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(5));
+        assertTrue(set.add(5));
+    }
+}
@@ -0,0 +1,90 @@
+package com.playpandora.petplugin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class TimingWheelTest {
+    
+    @Test
+    void firesOnTheFirstAdvanceAtOrAfterTheDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(50L, 1_000L);
+        wheel.schedule("a", 1_120L); // Rounds up to the 1150ms tick
+        List<String> fired = new ArrayList<>();
+        
+        wheel.advance(1_149L, fired::add);
+        assertTrue(fired.isEmpty());
+        wheel.advance(1_150L, fired::add);
+        assertEquals(List.of("a"), fired);
+        assertEquals(0, wheel.size());
+    }
+    
+    @Test
+    void pastDeadlinesFireOnTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(50L, 1_000L);
+        wheel.schedule("late", 10L);
+        List<String> fired = new ArrayList<>();
+        
+        wheel.advance(1_049L, fired::add);
+        assertTrue(fired.isEmpty());
+        wheel.advance(1_050L, fired::add);
+        assertEquals(List.of("late"), fired);
+    }
+    
+    @Test
+    void cancelledTimersNeverFire() {
+        TimingWheel<String> wheel = new TimingWheel<>(1L, 0L);
+        TimingWheel.Timer<String> kept = wheel.schedule("kept", 100L);
+        TimingWheel.Timer<String> cancelled = wheel.schedule("cancelled", 100_000L);
+        
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        assertFalse(cancelled.isPending());
+        assertEquals(1, wheel.size());
+        
+        List<String> fired = new ArrayList<>();
+        wheel.advance(200_000L, fired::add);
+        assertEquals(List.of("kept"), fired);
+        assertFalse(kept.isPending());
+    }
+    
+    @Test
+    void matchesAReferenceAcrossEveryLevel() {
+        Random random = new Random(42L);
+        TimingWheel<Integer> wheel = new TimingWheel<>(1L, 0L);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            // Spread over all four levels and past the wheel's span (2^24 ticks)
+            long deadline = 1 + (long) Math.pow(2, random.nextDouble() * 26);
+            deadlines.put(i, deadline);
+            wheel.schedule(i, deadline);
+        }
+        
+        long now = 0L;
+        while (!deadlines.isEmpty()) {
+            now += 1 + random.nextInt(100_000);
+            long at = now;
+            wheel.advance(at, item -> {
+                Long deadline = deadlines.remove(item);
+                if (deadline == null || deadline > at) {
+                    fail("Item " + item + " with deadline " + deadline + " fired at " + at);
+                }
+            });
+            for (Map.Entry<Integer, Long> entry : deadlines.entrySet()) {
+                if (entry.getValue() <= at) {
+                    fail("Item " + entry.getKey() + " with deadline " + entry.getValue() + " still pending at " + at);
+                }
+            }
+            assertEquals(deadlines.size(), wheel.size());
+        }
+    }
+}